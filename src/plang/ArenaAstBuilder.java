@@ -0,0 +1,149 @@
+package plang;
+
+import plang.ast.*;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+import java.util.Arrays;
+
+/**
+ * Implements the builder of a compact AST stored into an {@link AstArena}.
+ * The stack holds the indices of the nodes in the arena, so that no object is allocated per node.
+ */
+final class ArenaAstBuilder implements AstBuilder<AstArena> {
+    /**
+     * The types of the nodes of the productions, indexed by the ordinal of the token kind that selects them
+     */
+    private static final AstNodeType[] TYPES = new AstNodeType[TokenKind.values().length];
+    /**
+     * The ids of the productions, indexed by the ordinal of the token kind that selects them
+     */
+    private static final int[] PRODUCTIONS = new int[TokenKind.values().length];
+    /**
+     * The numbers of child nodes of the productions, indexed by the ordinal of the token kind that selects them
+     */
+    private static final int[] ARITIES = new int[TokenKind.values().length];
+
+    static {
+        production(TokenKind.END_OF_FILE, AstNodeType.PROG, 0, 1);
+        production(TokenKind.KWD_ASSIGN, AstNodeType.STAT, AssignStatAstNode.ID, 2);
+        production(TokenKind.KWD_PRINT, AstNodeType.STAT, PrintStatAstNode.ID, 1);
+        production(TokenKind.KWD_READ, AstNodeType.STAT, ReadStatAstNode.ID, 1);
+        production(TokenKind.KWD_WHILE, AstNodeType.STAT, WhileStatAstNode.ID, 2);
+        production(TokenKind.KWD_IF, AstNodeType.STAT, IfStatAstNode.ID, 3);
+        production(TokenKind.LEFT_BRACE, AstNodeType.STAT, BlockStatAstNode.ID, 1);
+        production(TokenKind.KWD_ELSE, AstNodeType.IF_EX, ElseIfExAstNode.ID, 1);
+        production(TokenKind.EQUALITY, AstNodeType.BOOL_EXPR, EqBoolExprAstNode.ID, 2);
+        production(TokenKind.INEQUALITY, AstNodeType.BOOL_EXPR, NeBoolExprAstNode.ID, 2);
+        production(TokenKind.LESS_THAN, AstNodeType.BOOL_EXPR, LtBoolExprAstNode.ID, 2);
+        production(TokenKind.LESS_THAN_EQUAL, AstNodeType.BOOL_EXPR, LeBoolExprAstNode.ID, 2);
+        production(TokenKind.GREATER_THAN, AstNodeType.BOOL_EXPR, GtBoolExprAstNode.ID, 2);
+        production(TokenKind.GREATER_THAN_EQUAL, AstNodeType.BOOL_EXPR, GeBoolExprAstNode.ID, 2);
+        production(TokenKind.LOGICAL_AND, AstNodeType.BOOL_EXPR, AndBoolExprAstNode.ID, 2);
+        production(TokenKind.LOGICAL_OR, AstNodeType.BOOL_EXPR, OrBoolExprAstNode.ID, 2);
+        production(TokenKind.LOGICAL_NOT, AstNodeType.BOOL_EXPR, NotBoolExprAstNode.ID, 1);
+        production(TokenKind.PLUS, AstNodeType.EXPR, AddExprAstNode.ID, 1);
+        production(TokenKind.MINUS, AstNodeType.EXPR, SubExprAstNode.ID, 2);
+        production(TokenKind.ASTERISK, AstNodeType.EXPR, MulExprAstNode.ID, 1);
+        production(TokenKind.SLASH, AstNodeType.EXPR, DivExprAstNode.ID, 2);
+    }
+
+    /**
+     * The arena that holds the nodes
+     */
+    private AstArena arena = new AstArena();
+    /**
+     * The stack of the indices of the nodes that have not yet been attached to their parent node
+     */
+    private int[] nodes = new int[64];
+    /**
+     * The number of nodes on the stack
+     */
+    private int nodeCount;
+
+    /**
+     * Records the node of a production.
+     *
+     * @param kind         The kind of the token that selects the production.
+     * @param type         The type of the node.
+     * @param productionId The id of the production.
+     * @param arity        The number of child nodes.
+     */
+    private static void production(TokenKind kind, AstNodeType type, int productionId, int arity) {
+        TYPES[kind.ordinal()] = type;
+        PRODUCTIONS[kind.ordinal()] = productionId;
+        ARITIES[kind.ordinal()] = arity;
+    }
+
+    @Override
+    public void reset() {
+        arena = new AstArena();
+        nodeCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.nodeCount;
+    }
+
+    @Override
+    public void pushNumber(NumberToken number) {
+        pushNode(arena.add(AstNodeType.EXPR, NumberExprAstNode.ID, number.getValue(), nodes, 0, 0));
+    }
+
+    @Override
+    public void pushIdentifier(IdentifierToken identifier) {
+        pushNode(arena.add(AstNodeType.EXPR, IdentifierExprAstNode.ID, arena.intern(identifier), nodes, 0, 0));
+    }
+
+    @Override
+    public void pushListIdentifier(IdentifierToken identifier) {
+        pushNode(arena.add(AstNodeType.IDENTIFIER, 0, arena.intern(identifier), nodes, 0, 0));
+    }
+
+    @Override
+    public void pushEndIf() {
+        pushNode(arena.add(AstNodeType.IF_EX, EndIfExAstNode.ID, 0, nodes, 0, 0));
+    }
+
+    @Override
+    public void reduce(TokenKind kind) {
+        AstNodeType type = TYPES[kind.ordinal()];
+
+        if (type == null)
+            throw new IllegalStateException("Invalid production: " + kind);
+
+        int from = nodeCount - ARITIES[kind.ordinal()];
+        int node = arena.add(type, PRODUCTIONS[kind.ordinal()], 0, nodes, from, nodeCount);
+        nodeCount = from;
+        pushNode(node);
+    }
+
+    @Override
+    public void reduceList(AstNodeType type, int count) {
+        int from = nodeCount - count;
+        int node = arena.add(type, 0, 0, nodes, from, nodeCount);
+        nodeCount = from;
+        pushNode(node);
+    }
+
+    @Override
+    public AstArena build() {
+        nodeCount--;
+        arena.trim();
+        return arena;
+    }
+
+    /**
+     * Pushes the index of a node onto the stack.
+     *
+     * @param node The index of the node.
+     */
+    private void pushNode(int node) {
+        if (nodeCount == nodes.length)
+            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+
+        nodes[nodeCount++] = node;
+    }
+}
@@ -0,0 +1,90 @@
+package plang;
+
+import plang.ast.AstNodeType;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+/**
+ * Represents the builder of the AST of a program, which is driven by the {@link Parser} as it recognizes the
+ * productions of the grammar.
+ * <p>
+ * The AST is built bottom-up on a stack of nodes: leaf nodes are pushed as their tokens are matched, and the nodes of
+ * the other productions replace their child nodes, which are on top of the stack, once they have been parsed.
+ * The builder is also told when a production is selected, before its child nodes are parsed, so that it can translate
+ * the program top-down while it is parsed, instead of building its AST.
+ *
+ * @param <T> The type of the built AST.
+ */
+interface AstBuilder<T> {
+    /**
+     * Clears the stack of nodes, so that a new AST can be built.
+     */
+    void reset();
+
+    /**
+     * Gets the number of nodes on the stack.
+     *
+     * @return The number of nodes on the stack.
+     */
+    int size();
+
+    /**
+     * Notifies that a production has been selected, before its child nodes are parsed.
+     * The leaf productions (i.e., the number and identifier {@code <expr>}, and the {@code <ifex>} without the else
+     * branch) and the lists are not notified. A builder that builds the AST bottom-up does nothing.
+     *
+     * @param kind The kind of the token that selected the production, as passed to {@link #reduce(TokenKind)}.
+     */
+    default void enter(TokenKind kind) {
+    }
+
+    /**
+     * Pushes a number {@code <expr>} node.
+     *
+     * @param number The number token.
+     */
+    void pushNumber(NumberToken number);
+
+    /**
+     * Pushes an identifier {@code <expr>} node.
+     *
+     * @param identifier The identifier token.
+     */
+    void pushIdentifier(IdentifierToken identifier);
+
+    /**
+     * Pushes an identifier of an {@code <idlist>}.
+     *
+     * @param identifier The identifier token.
+     */
+    void pushListIdentifier(IdentifierToken identifier);
+
+    /**
+     * Pushes an {@code <ifex>} node without the else branch.
+     */
+    void pushEndIf();
+
+    /**
+     * Replaces the child nodes of a production, which are on top of the stack, with the node of the production.
+     *
+     * @param kind The kind of the token that selected the production (e.g., {@code KWD_WHILE} for the while
+     *             {@code <stat>}, or {@code END_OF_FILE} for the {@code <prog>}).
+     */
+    void reduce(TokenKind kind);
+
+    /**
+     * Replaces the elements of a list, which are on top of the stack, with the node of the list.
+     *
+     * @param type  The type of the list (i.e., {@code STAT_LIST}, {@code ID_LIST} or {@code EXPR_LIST}).
+     * @param count The number of elements of the list.
+     */
+    void reduceList(AstNodeType type, int count);
+
+    /**
+     * Pops the root node of the AST, after the {@code <prog>} production has been reduced.
+     *
+     * @return The AST.
+     */
+    T build();
+}
@@ -0,0 +1,103 @@
+package plang;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Implements the fast paths of the {@link Lexer}, which skip whitespace and comment bodies eight bytes at a time.
+ * <p>
+ * Bytes are read as little-endian {@code long} words, and are tested all at once with SWAR (SIMD within a register)
+ * arithmetic: a word is turned into a mask holding the high bit of each byte that satisfies the test, so that the
+ * first such byte is found by counting the trailing zeros of the mask. The bytes that do not fill a whole word are
+ * tested one at a time.
+ */
+final class ByteScanner {
+    /**
+     * The view of a byte array as an array of little-endian {@code long}s
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    /**
+     * The word whose bytes are all {@code 0x01}
+     */
+    private static final long ONES = 0x0101010101010101L;
+    /**
+     * The word whose bytes are all {@code 0x7F}
+     */
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    /**
+     * The word whose bytes are all {@code 0x80}
+     */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private ByteScanner() {
+    }
+
+    /**
+     * Skips a run of whitespace characters (spaces, tabs, carriage returns and new-line characters).
+     *
+     * @param bytes The bytes to be scanned.
+     * @param from  The index of the first byte to be scanned.
+     * @param to    The index after the last byte to be scanned.
+     * @return The index of the first byte that is not a whitespace character, or {@code to} if there is none.
+     */
+    static int skipWhitespace(byte[] bytes, int from, int to) {
+        int i = from;
+
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long word = (long) LONGS.get(bytes, i);
+            long whitespace = zeros(word ^ (ONES * ' ')) | zeros(word ^ (ONES * '\n'))
+                    | zeros(word ^ (ONES * '\t')) | zeros(word ^ (ONES * '\r'));
+
+            if (whitespace != HIGH_BITS)
+                return i + (Long.numberOfTrailingZeros(~whitespace & HIGH_BITS) >>> 3);
+        }
+
+        for (; i < to; i++) {
+            byte c = bytes[i];
+
+            if (c != ' ' && c != '\n' && c != '\t' && c != '\r')
+                return i;
+        }
+
+        return to;
+    }
+
+    /**
+     * Finds the first occurrence of the specified byte.
+     *
+     * @param bytes The bytes to be scanned.
+     * @param from  The index of the first byte to be scanned.
+     * @param to    The index after the last byte to be scanned.
+     * @param value The byte to be found.
+     * @return The index of the first occurrence of the byte, or {@code to} if there is none.
+     */
+    static int indexOf(byte[] bytes, int from, int to, byte value) {
+        long pattern = ONES * (value & 0xFF);
+        int i = from;
+
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long found = zeros((long) LONGS.get(bytes, i) ^ pattern);
+
+            if (found != 0)
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+        }
+
+        for (; i < to; i++)
+            if (bytes[i] == value)
+                return i;
+
+        return to;
+    }
+
+    /**
+     * Computes the mask of the zero bytes of a word.
+     *
+     * @param word The word.
+     * @return A word whose bytes are {@code 0x80} where the corresponding byte of the word is zero, and {@code 0}
+     * elsewhere.
+     */
+    private static long zeros(long word) {
+        return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+    }
+}
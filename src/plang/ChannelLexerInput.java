@@ -0,0 +1,29 @@
+package plang;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Implements a {@link LexerInput} that reads a source from a (blocking) byte channel.
+ */
+final class ChannelLexerInput implements LexerInput {
+    /**
+     * The channel from which the source is read
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Initializes a new {@link ChannelLexerInput} for the specified channel.
+     *
+     * @param channel The channel from which the source is read.
+     */
+    ChannelLexerInput(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public int read(byte[] destination, int offset, int length) throws IOException {
+        return channel.read(ByteBuffer.wrap(destination, offset, length));
+    }
+}
@@ -0,0 +1,389 @@
+package plang;
+
+import plang.ast.*;
+import plang.gen.CodeGenerator;
+import plang.gen.Label;
+import plang.gen.OpCode;
+import plang.tokens.IdentifierToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements the pass over the AST that emits the code of a program, visiting each node of the AST.
+ * <p>
+ * The labels to which the code of a node jumps (e.g., the label of the statement that follows a statement) are passed
+ * to the visit through the fields of the emitter, which every visit reads before visiting the child nodes.
+ */
+final class CodeEmitter implements AstVisitor<Void> {
+    /**
+     * The identifier of the assign idlist code emission.
+     */
+    private static final int IDLIST_ASSIGN = 0;
+    /**
+     * The identifier of the print exprlist code emission.
+     */
+    private static final int EXPRLIST_PRINT = 0;
+    /**
+     * The identifier of the add exprlist code emission.
+     */
+    private static final int EXPRLIST_ADD = 1;
+    /**
+     * The identifier of the multiply exprlist code emission.
+     */
+    private static final int EXPRLIST_MULTIPLY = 2;
+    /**
+     * The code generator.
+     */
+    private final CodeGenerator codeGen;
+    /**
+     * The label of the code that follows the visited {@code <statlist>}, {@code <stat>} or {@code <ifex>} node
+     */
+    private Label nextLabel;
+    /**
+     * The label to go to if the visited {@code <boolexpr>} node is true
+     */
+    private Label trueLabel;
+    /**
+     * The label to go to if the visited {@code <boolexpr>} node is false
+     */
+    private Label falseLabel;
+    /**
+     * The index of the function that contains the visited {@code <idlist>} or {@code <exprlist>} node
+     */
+    private int listFunctionIndex;
+
+    /**
+     * Initializes a new {@link CodeEmitter}.
+     *
+     * @param codeGen The code generator to which the code is emitted.
+     */
+    CodeEmitter(CodeGenerator codeGen) {
+        this.codeGen = codeGen;
+    }
+
+    /**
+     * Emits the code for a {@code <stat>} AST node.
+     *
+     * @param stat          The {@code <stat>} AST node.
+     * @param nextStatLabel The label at which the next statement is defined.
+     */
+    void emitStatNode(StatAstNode stat, Label nextStatLabel) {
+        this.nextLabel = nextStatLabel;
+        stat.accept(this);
+    }
+
+    /**
+     * Emits the code for a {@code <statlist>} AST node.
+     *
+     * @param statList The {@code <statlist>} AST node.
+     * @param eofLabel The end-of-file label.
+     */
+    private void emitStatListNode(StatListAstNode statList, Label eofLabel) {
+        this.nextLabel = eofLabel;
+        statList.accept(this);
+    }
+
+    /**
+     * Emits the code for a {@code <ifex>} AST node.
+     *
+     * @param ifEx      The {@code <ifex>} AST node.
+     * @param nextLabel The label of the first instruction after the if block.
+     */
+    private void emitIfExNode(IfExAstNode ifEx, Label nextLabel) {
+        this.nextLabel = nextLabel;
+        ifEx.accept(this);
+    }
+
+    /**
+     * Emits the code for a {@code <idlist>} AST node.
+     *
+     * @param idList              The {@code <idlist>} AST node.
+     * @param idListFunctionIndex The index of the function that contains the id list.
+     */
+    private void emitIdListNode(IdListAstNode idList, int idListFunctionIndex) {
+        this.listFunctionIndex = idListFunctionIndex;
+        idList.accept(this);
+    }
+
+    /**
+     * Emits the code for a {@code <boolexpr>} AST node.
+     *
+     * @param boolExpr   The {@code <boolexpr>} AST node.
+     * @param trueLabel  The label to go to if the condition is true.
+     * @param falseLabel The label to go to if the condition is false.
+     */
+    private void emitBoolExprNode(BoolExprAstNode boolExpr, Label trueLabel, Label falseLabel) {
+        this.trueLabel = trueLabel;
+        this.falseLabel = falseLabel;
+        boolExpr.accept(this);
+    }
+
+    /**
+     * Emits the code for a {@code <exprlist>} AST node.
+     *
+     * @param exprList              The {@code <exprlist>} AST node.
+     * @param exprListFunctionIndex The index of the function that contains this expression list.
+     */
+    private void emitExprListNode(ExprListAstNode exprList, int exprListFunctionIndex) {
+        this.listFunctionIndex = exprListFunctionIndex;
+        exprList.accept(this);
+    }
+
+    @Override
+    public Void visitProg(ProgAstNode prog) {
+        Label eofLabel = new Label();
+        emitStatListNode(prog.getStatList(), eofLabel);
+        codeGen.addLabel(eofLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitStatList(StatListAstNode statList) {
+        Label eofLabel = nextLabel;
+
+        for (StatAstNode stat : statList) {
+            Label nextStatLabel = new Label();
+            emitStatNode(stat, nextStatLabel);
+            codeGen.addLabel(nextStatLabel);
+        }
+
+        codeGen.addGotoInstruction(eofLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitAssignStat(AssignStatAstNode assignStat) {
+        Label nextStatLabel = nextLabel;
+        assignStat.getExpr().accept(this);
+        emitIdListNode(assignStat.getIdList(), IDLIST_ASSIGN);
+        codeGen.addGotoInstruction(nextStatLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitPrintStat(PrintStatAstNode printStat) {
+        Label nextStatLabel = nextLabel;
+        emitExprListNode(printStat.getExprList(), EXPRLIST_PRINT);
+        codeGen.addGotoInstruction(nextStatLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitReadStat(ReadStatAstNode readStat) {
+        Label nextStatLabel = nextLabel;
+        IdListAstNode idList = readStat.getIdList();
+        List<String> varNames = new ArrayList<>(idList.size());
+
+        for (int i = 0; i < idList.size(); i++)
+            varNames.add(idList.get(i).getLexeme());
+
+        codeGen.addReadListInstruction(varNames);
+        codeGen.addGotoInstruction(nextStatLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitWhileStat(WhileStatAstNode whileStat) {
+        Label trueLabel = new Label();
+        Label falseLabel = nextLabel;
+        Label nextStatLabel = new Label();
+        codeGen.addLabel(nextStatLabel);
+        emitBoolExprNode(whileStat.getBoolExpr(), trueLabel, falseLabel);
+        codeGen.addLabel(trueLabel);
+        emitStatNode(whileStat.getStat(), nextStatLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitIfStat(IfStatAstNode ifStat) {
+        Label nextStatLabel = nextLabel;
+        Label trueLabel = new Label();
+        Label falseLabel = new Label();
+        emitBoolExprNode(ifStat.getBoolExpr(), trueLabel, falseLabel);
+        codeGen.addLabel(trueLabel);
+        emitStatNode(ifStat.getStat(), nextStatLabel);
+        codeGen.addLabel(falseLabel);
+        emitIfExNode(ifStat.getIfEx(), nextStatLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitBlockStat(BlockStatAstNode blockStat) {
+        emitStatListNode(blockStat.getStatList(), nextLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitEndIfEx(EndIfExAstNode endIfEx) {
+        codeGen.addGotoInstruction(nextLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitElseIfEx(ElseIfExAstNode elseIfEx) {
+        emitStatNode(elseIfEx.getStat(), nextLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitIdList(IdListAstNode idList) {
+        IdentifierToken identifier = idList.get(0);
+        codeGen.addStoreVarInstruction(identifier.getLexeme());
+
+        for (int i = 1; i < idList.size(); i++) {
+            if (listFunctionIndex == IDLIST_ASSIGN)
+                codeGen.addLoadVarInstruction(identifier.getLexeme());
+
+            codeGen.addStoreVarInstruction(idList.get(i).getLexeme());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Void visitEqBoolExpr(EqBoolExprAstNode eqBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        eqBoolExpr.getExpr1().accept(this);
+        eqBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_NE, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitNeBoolExpr(NeBoolExprAstNode neBoolExpr) {
+        Label trueLabel = this.trueLabel;
+        neBoolExpr.getExpr1().accept(this);
+        neBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_EQ, trueLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitLtBoolExpr(LtBoolExprAstNode ltBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        ltBoolExpr.getExpr1().accept(this);
+        ltBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_GE, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitLeBoolExpr(LeBoolExprAstNode leBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        leBoolExpr.getExpr1().accept(this);
+        leBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_GT, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitGtBoolExpr(GtBoolExprAstNode gtBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        gtBoolExpr.getExpr1().accept(this);
+        gtBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_LE, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitGeBoolExpr(GeBoolExprAstNode geBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        geBoolExpr.getExpr1().accept(this);
+        geBoolExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.IF_LT, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitAndBoolExpr(AndBoolExprAstNode andBoolExpr) {
+        Label trueLabel = this.trueLabel;
+        Label falseLabel = this.falseLabel;
+        Label nextBoolExprLabel = new Label();
+        emitBoolExprNode(andBoolExpr.getBoolExpr1(), nextBoolExprLabel, falseLabel);
+        codeGen.addLabel(nextBoolExprLabel);
+        emitBoolExprNode(andBoolExpr.getBoolExpr2(), trueLabel, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitOrBoolExpr(OrBoolExprAstNode orBoolExpr) {
+        Label trueLabel = this.trueLabel;
+        Label falseLabel = this.falseLabel;
+        Label nextBoolExprLabel = new Label();
+        emitBoolExprNode(orBoolExpr.getBoolExpr1(), trueLabel, nextBoolExprLabel);
+        codeGen.addGotoInstruction(trueLabel);
+        codeGen.addLabel(nextBoolExprLabel);
+        emitBoolExprNode(orBoolExpr.getBoolExpr2(), trueLabel, falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitNotBoolExpr(NotBoolExprAstNode notBoolExpr) {
+        Label falseLabel = this.falseLabel;
+        emitBoolExprNode(notBoolExpr.getBoolExpr(), falseLabel, trueLabel);
+        codeGen.addGotoInstruction(falseLabel);
+        return null;
+    }
+
+    @Override
+    public Void visitAddExpr(AddExprAstNode addExpr) {
+        emitExprListNode(addExpr.getExprList(), EXPRLIST_ADD);
+        return null;
+    }
+
+    @Override
+    public Void visitSubExpr(SubExprAstNode subExpr) {
+        subExpr.getExpr1().accept(this);
+        subExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.SUBTRACT);
+        return null;
+    }
+
+    @Override
+    public Void visitMulExpr(MulExprAstNode mulExpr) {
+        emitExprListNode(mulExpr.getExprList(), EXPRLIST_MULTIPLY);
+        return null;
+    }
+
+    @Override
+    public Void visitDivExpr(DivExprAstNode divExpr) {
+        divExpr.getExpr1().accept(this);
+        divExpr.getExpr2().accept(this);
+        codeGen.addInstruction(OpCode.DIVIDE);
+        return null;
+    }
+
+    @Override
+    public Void visitNumberExpr(NumberExprAstNode numberExpr) {
+        codeGen.addInstruction(OpCode.LOAD_CONST, numberExpr.getNumber().getValue());
+        return null;
+    }
+
+    @Override
+    public Void visitIdentifierExpr(IdentifierExprAstNode identifierExpr) {
+        codeGen.addLoadVarInstruction(identifierExpr.getIdentifier().getLexeme());
+        return null;
+    }
+
+    @Override
+    public Void visitExprList(ExprListAstNode exprList) {
+        int exprListFunctionIndex = listFunctionIndex;
+        exprList.get(0).accept(this);
+
+        if (exprListFunctionIndex == EXPRLIST_PRINT)
+            codeGen.addPrintInstruction();
+
+        for (int i = 1; i < exprList.size(); i++) {
+            exprList.get(i).accept(this);
+
+            switch (exprListFunctionIndex) {
+                case EXPRLIST_PRINT -> codeGen.addPrintInstruction();
+                case EXPRLIST_ADD -> codeGen.addInstruction(OpCode.ADD);
+                case EXPRLIST_MULTIPLY -> codeGen.addInstruction(OpCode.MULTIPLY);
+            }
+        }
+
+        return null;
+    }
+}
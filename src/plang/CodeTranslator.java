@@ -0,0 +1,340 @@
+package plang;
+
+import plang.ast.AstNodeType;
+import plang.gen.CodeGenerator;
+import plang.gen.Label;
+import plang.gen.OpCode;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implements a builder that, instead of building the AST of a program, emits its code while it is parsed (i.e., a
+ * one-pass, syntax-directed translation).
+ * <p>
+ * The code and the labels are emitted in the same order as {@link CodeEmitter} does, so that the generated code is the
+ * same as the one of the AST. For each production that is being parsed, a frame holds its labels (either created when
+ * the production is selected, or inherited from the frame of its parent) and the number of its parsed child nodes,
+ * which tells which code follows each child node. Thus, the memory used by the translator is bounded by the nesting
+ * depth of the program (and by the length of its longest read list, whose variables are read at once).
+ * <p>
+ * A variable that is used before being assigned is reported once the whole program has been parsed, as it is when the
+ * code of the AST is emitted, so that a syntax error that follows it is reported first.
+ */
+final class CodeTranslator implements AstBuilder<Void> {
+    /**
+     * The code generator
+     */
+    private final CodeGenerator codeGen;
+    /**
+     * The token kinds that selected the productions of the frames
+     */
+    private TokenKind[] kinds = new TokenKind[16];
+    /**
+     * The labels of the code that follows the {@code <prog>} (i.e., the end-of-file label), {@code <stat>} or
+     * {@code <ifex>} of the frames
+     */
+    private Label[] nextLabels = new Label[16];
+    /**
+     * The labels to go to if the condition of the frames is true, for the {@code <boolexpr>}, while and if
+     * {@code <stat>} frames
+     */
+    private Label[] trueLabels = new Label[16];
+    /**
+     * The labels to go to if the condition of the frames is false, for the {@code <boolexpr>}, while and if
+     * {@code <stat>} frames
+     */
+    private Label[] falseLabels = new Label[16];
+    /**
+     * The labels of the condition of the while {@code <stat>} frames, and of the second operand of the and/or
+     * {@code <boolexpr>} frames
+     */
+    private Label[] innerLabels = new Label[16];
+    /**
+     * The numbers of parsed child nodes (or list elements) of the frames
+     */
+    private int[] childCounts = new int[16];
+    /**
+     * The first identifier of the {@code <idlist>} of the assign {@code <stat>} frames
+     */
+    private String[] firstIdentifiers = new String[16];
+    /**
+     * The identifiers of the {@code <idlist>} of the read {@code <stat>} that is being parsed (read statements do not
+     * nest), which are read at once when the statement is reduced
+     */
+    private final List<String> readIdentifiers = new ArrayList<>();
+    /**
+     * The number of frames
+     */
+    private int depth;
+    /**
+     * The error of the first variable that has been used before being assigned, or {@code null} if there is none
+     */
+    private IllegalArgumentException undeclaredVariable;
+
+    /**
+     * Initializes a new {@link CodeTranslator}.
+     *
+     * @param codeGen The code generator to which the code is emitted.
+     */
+    CodeTranslator(CodeGenerator codeGen) {
+        this.codeGen = codeGen;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(nextLabels, 0, depth, null);
+        Arrays.fill(trueLabels, 0, depth, null);
+        Arrays.fill(falseLabels, 0, depth, null);
+        Arrays.fill(innerLabels, 0, depth, null);
+        Arrays.fill(firstIdentifiers, 0, depth, null);
+        readIdentifiers.clear();
+        depth = 0;
+        undeclaredVariable = null;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public void enter(TokenKind kind) {
+        int parent = depth - 1;
+        int frame = pushFrame(kind);
+
+        switch (kind) {
+            case END_OF_FILE -> nextLabels[frame] = new Label();
+            case KWD_ASSIGN, KWD_PRINT, KWD_READ, KWD_WHILE, KWD_IF, LEFT_BRACE -> {
+                nextLabels[frame] = switch (kinds[parent]) {
+                    case END_OF_FILE, LEFT_BRACE -> new Label();
+                    case KWD_WHILE -> innerLabels[parent];
+                    case KWD_IF, KWD_ELSE -> nextLabels[parent];
+                    default -> throw new IllegalStateException("Invalid parent of a statement: " + kinds[parent]);
+                };
+
+                switch (kind) {
+                    case KWD_WHILE -> {
+                        trueLabels[frame] = new Label();
+                        falseLabels[frame] = nextLabels[frame];
+                        innerLabels[frame] = new Label();
+                        codeGen.addLabel(innerLabels[frame]);
+                    }
+                    case KWD_IF -> {
+                        trueLabels[frame] = new Label();
+                        falseLabels[frame] = new Label();
+                    }
+                }
+            }
+            case KWD_ELSE -> nextLabels[frame] = nextLabels[parent];
+            case EQUALITY, INEQUALITY, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL,
+                    LOGICAL_AND, LOGICAL_OR, LOGICAL_NOT -> {
+                boolean first = childCounts[parent] == 0;
+
+                switch (kinds[parent]) {
+                    case KWD_WHILE, KWD_IF -> {
+                        trueLabels[frame] = trueLabels[parent];
+                        falseLabels[frame] = falseLabels[parent];
+                    }
+                    case LOGICAL_AND -> {
+                        trueLabels[frame] = first ? innerLabels[parent] : trueLabels[parent];
+                        falseLabels[frame] = falseLabels[parent];
+                    }
+                    case LOGICAL_OR -> {
+                        trueLabels[frame] = trueLabels[parent];
+                        falseLabels[frame] = first ? innerLabels[parent] : falseLabels[parent];
+                    }
+                    case LOGICAL_NOT -> {
+                        trueLabels[frame] = falseLabels[parent];
+                        falseLabels[frame] = trueLabels[parent];
+                    }
+                    default -> throw new IllegalStateException("Invalid parent of a condition: " + kinds[parent]);
+                }
+
+                if (kind == TokenKind.LOGICAL_AND || kind == TokenKind.LOGICAL_OR)
+                    innerLabels[frame] = new Label();
+            }
+        }
+    }
+
+    @Override
+    public void pushNumber(NumberToken number) {
+        codeGen.addInstruction(OpCode.LOAD_CONST, number.getValue());
+        endChild(null);
+    }
+
+    @Override
+    public void pushIdentifier(IdentifierToken identifier) {
+        addLoadVarInstruction(identifier.getLexeme());
+        endChild(null);
+    }
+
+    @Override
+    public void pushListIdentifier(IdentifierToken identifier) {
+        int frame = depth - 1;
+
+        if (kinds[frame] == TokenKind.KWD_READ) {
+            readIdentifiers.add(identifier.getLexeme());
+            return;
+        }
+
+        if (firstIdentifiers[frame] == null)
+            firstIdentifiers[frame] = identifier.getLexeme();
+        else
+            addLoadVarInstruction(firstIdentifiers[frame]);
+
+        codeGen.addStoreVarInstruction(identifier.getLexeme());
+    }
+
+    @Override
+    public void pushEndIf() {
+        codeGen.addGotoInstruction(nextLabels[depth - 1]);
+        endChild(null);
+    }
+
+    @Override
+    public void reduce(TokenKind kind) {
+        int frame = depth - 1;
+        Label nextLabel = nextLabels[frame];
+
+        switch (kind) {
+            case END_OF_FILE -> codeGen.addLabel(nextLabel);
+            case KWD_ASSIGN, KWD_PRINT -> codeGen.addGotoInstruction(nextLabel);
+            case KWD_READ -> {
+                codeGen.addReadListInstruction(readIdentifiers);
+                readIdentifiers.clear();
+                codeGen.addGotoInstruction(nextLabel);
+            }
+            case EQUALITY -> codeGen.addInstruction(OpCode.IF_NE, falseLabels[frame]);
+            case INEQUALITY -> codeGen.addInstruction(OpCode.IF_EQ, trueLabels[frame]);
+            case LESS_THAN -> codeGen.addInstruction(OpCode.IF_GE, falseLabels[frame]);
+            case LESS_THAN_EQUAL -> codeGen.addInstruction(OpCode.IF_GT, falseLabels[frame]);
+            case GREATER_THAN -> codeGen.addInstruction(OpCode.IF_LE, falseLabels[frame]);
+            case GREATER_THAN_EQUAL -> codeGen.addInstruction(OpCode.IF_LT, falseLabels[frame]);
+            case LOGICAL_NOT -> codeGen.addGotoInstruction(falseLabels[frame]);
+            case MINUS -> codeGen.addInstruction(OpCode.SUBTRACT);
+            case SLASH -> codeGen.addInstruction(OpCode.DIVIDE);
+        }
+
+        popFrame();
+
+        if (depth > 0)
+            endChild(nextLabel);
+    }
+
+    @Override
+    public void reduceList(AstNodeType type, int count) {
+        if (type == AstNodeType.STAT_LIST)
+            codeGen.addGotoInstruction(nextLabels[depth - 1]);
+    }
+
+    /**
+     * Throws the error of the first variable that has been used before being assigned, if any.
+     *
+     * @return {@code null}.
+     * @throws IllegalArgumentException If a variable has been used before being assigned.
+     */
+    @Override
+    public Void build() {
+        if (undeclaredVariable != null)
+            throw undeclaredVariable;
+
+        return null;
+    }
+
+    /**
+     * Emits the load of a variable, recording the error if the variable has not been assigned yet.
+     *
+     * @param varName The name of the variable.
+     */
+    private void addLoadVarInstruction(String varName) {
+        try {
+            codeGen.addLoadVarInstruction(varName);
+        } catch (IllegalArgumentException e) {
+            if (undeclaredVariable == null)
+                undeclaredVariable = e;
+        }
+    }
+
+    /**
+     * Emits the code that follows a child node of the production of the innermost frame, once it has been parsed.
+     *
+     * @param nextLabel The label of the code that follows the child node, if it is a {@code <stat>}.
+     */
+    private void endChild(Label nextLabel) {
+        int frame = depth - 1;
+        int index = childCounts[frame]++;
+
+        switch (kinds[frame]) {
+            case END_OF_FILE, LEFT_BRACE -> codeGen.addLabel(nextLabel);
+            case KWD_WHILE -> {
+                if (index == 0)
+                    codeGen.addLabel(trueLabels[frame]);
+            }
+            case KWD_IF -> {
+                if (index == 0)
+                    codeGen.addLabel(trueLabels[frame]);
+                else if (index == 1)
+                    codeGen.addLabel(falseLabels[frame]);
+            }
+            case LOGICAL_AND -> {
+                if (index == 0)
+                    codeGen.addLabel(innerLabels[frame]);
+            }
+            case LOGICAL_OR -> {
+                if (index == 0) {
+                    codeGen.addGotoInstruction(trueLabels[frame]);
+                    codeGen.addLabel(innerLabels[frame]);
+                }
+            }
+            case KWD_PRINT -> codeGen.addPrintInstruction();
+            case PLUS -> {
+                if (index > 0)
+                    codeGen.addInstruction(OpCode.ADD);
+            }
+            case ASTERISK -> {
+                if (index > 0)
+                    codeGen.addInstruction(OpCode.MULTIPLY);
+            }
+        }
+    }
+
+    /**
+     * Pushes a frame for a production.
+     *
+     * @param kind The kind of the token that selected the production.
+     * @return The index of the frame.
+     */
+    private int pushFrame(TokenKind kind) {
+        if (depth == kinds.length) {
+            int capacity = depth * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            nextLabels = Arrays.copyOf(nextLabels, capacity);
+            trueLabels = Arrays.copyOf(trueLabels, capacity);
+            falseLabels = Arrays.copyOf(falseLabels, capacity);
+            innerLabels = Arrays.copyOf(innerLabels, capacity);
+            childCounts = Arrays.copyOf(childCounts, capacity);
+            firstIdentifiers = Arrays.copyOf(firstIdentifiers, capacity);
+        }
+
+        kinds[depth] = kind;
+        childCounts[depth] = 0;
+        return depth++;
+    }
+
+    /**
+     * Pops the innermost frame, releasing its labels.
+     */
+    private void popFrame() {
+        depth--;
+        nextLabels[depth] = null;
+        trueLabels[depth] = null;
+        falseLabels[depth] = null;
+        innerLabels[depth] = null;
+        firstIdentifiers[depth] = null;
+    }
+}
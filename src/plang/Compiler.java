@@ -3,10 +3,15 @@ package plang;
 import plang.ast.*;
 import plang.gen.CodeGenerator;
 import plang.gen.Label;
-import plang.gen.OpCode;
-import plang.tokens.IdentifierToken;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -15,33 +20,35 @@ import java.nio.file.Path;
  */
 public final class Compiler {
     /**
-     * The identifier of the assign idlist code emission.
+     * The input file path that makes the compiler read the source from the standard input.
      */
-    private static final int IDLIST_ASSIGN = 0;
+    private static final String STANDARD_INPUT_PATH = "-";
     /**
-     * The identifier of the read idlist code emission.
+     * The extension of the output file path that makes the compiler write a class file.
      */
-    private static final int IDLIST_READ = 1;
+    private static final String CLASS_FILE_EXTENSION = ".class";
     /**
-     * The identifier of the print exprlist code emission.
+     * The abstract syntax tree of the program, or {@code null} if the program is a compact AST or is compiled in one
+     * pass
      */
-    private static final int EXPRLIST_PRINT = 0;
-    /**
-     * The identifier of the add exprlist code emission.
-     */
-    private static final int EXPRLIST_ADD = 1;
+    private final AstNode ast;
     /**
-     * The identifier of the multiply exprlist code emission.
+     * The compact abstract syntax tree of the program, or {@code null} if the program is made of AST nodes or is
+     * compiled in one pass
      */
-    private static final int EXPRLIST_MULTIPLY = 2;
+    private final AstArena arena;
     /**
-     * The abstract syntax tree of the program
+     * The parser of the program that is compiled in one pass, or {@code null} if the program has already been parsed
      */
-    private final AstNode ast;
+    private final Parser parser;
     /**
      * The code generator.
      */
     private final CodeGenerator codeGen = new CodeGenerator();
+    /**
+     * The pass that emits the code of the AST.
+     */
+    private final CodeEmitter emitter = new CodeEmitter(codeGen);
 
     /**
      * Initializes a new {@link Compiler} for a source file.
@@ -49,343 +56,207 @@ public final class Compiler {
      * @param filePath The path of the source file to be compiled.
      */
     public Compiler(String filePath) throws IOException {
-        ast = new Parser(filePath).parse();
+        this(new Parser(filePath));
     }
 
     /**
-     * The entry point of the compiler.
-     * <br>
-     * The first argument shall be the input file path, and the second argument shall be the output file path.
+     * Initializes a new {@link Compiler} for a source read from the specified channel.
      *
-     * @param args The arguments.
+     * @param fileName The name of the source, used in error messages.
+     * @param channel  The (blocking) channel from which the source is read.
+     * @throws IOException If an I/O error occurs reading the source, or if the source is not a valid program.
      */
-    public static void main(String[] args) {
-        if (args.length == 0)
-            System.err.println("The input file path shall be specified as the first argument.");
-        else if (args.length == 1)
-            System.err.println("The output file path shall be specified as the second argument.");
-        else {
-            try {
-                if (!Files.exists(Path.of(args[0])))
-                    throw new IOException("Unable to find input file: " + args[0]);
-
-                var compiler = new Compiler(args[0]);
-                compiler.compile(args[1]);
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-            }
-        }
+    public Compiler(String fileName, ReadableByteChannel channel) throws IOException {
+        this(new Parser(fileName, channel));
     }
+
     /**
-     * Compiles the specified
+     * Initializes a new {@link Compiler} for a source read from the specified reader.
      *
-     * @param outPath The output file path.
-     * @throws IOException If an I/O exception occurs when generating the code.
+     * @param fileName The name of the source, used in error messages.
+     * @param reader   The reader from which the source is read.
+     * @throws IOException If an I/O error occurs reading the source, or if the source is not a valid program.
      */
-    public void compile(String outPath) throws IOException {
-        if (ast.getType() != AstNodeType.PROG)
-            throw new IllegalStateException("The AST node root should be a program");
-
-        emitProgNode((ProgAstNode) ast);
-        codeGen.generate(outPath);
+    public Compiler(String fileName, Reader reader) throws IOException {
+        this(new Parser(fileName, reader));
     }
 
     /**
-     * Emits the code for a {@code <prog>} AST node.
+     * Initializes a new {@link Compiler} for the source parsed by the specified parser.
      *
-     * @param prog The {@code <prog>} AST node.
+     * @param parser The parser of the source to be compiled.
+     * @throws IOException If an I/O error occurs reading the source, or if the source is not a valid program.
      */
-    private void emitProgNode(ProgAstNode prog) {
-        Label eofLabel = new Label();
-        emitStatListNode(prog.getStatList(), eofLabel);
-        codeGen.addLabel(eofLabel);
+    public Compiler(Parser parser) throws IOException {
+        this(parser, false);
     }
 
     /**
-     * Emits the code for a {@code <statlist>} AST node.
+     * Initializes a new {@link Compiler} for the source parsed by the specified parser, optionally compiling it in one
+     * pass.
+     * <p>
+     * In one-pass mode, the source is not parsed until {@link #compile(String)} is called: then, the parser drives the
+     * code generation while it recognizes the source, and the code is written to the output file as it is generated,
+     * without building the AST, so that the memory used is bounded by the nesting depth of the program rather than by
+     * its size. The generated code is the same as the one of the AST.
      *
-     * @param statList The {@code <statlist>} AST node.
-     * @param eofLabel The end-of-file label.
+     * @param parser  The parser of the source to be compiled.
+     * @param onePass {@code true} if the source shall be compiled in one pass; otherwise, {@code false}.
+     * @throws IOException If an I/O error occurs reading the source, or if the source is not a valid program (only if
+     *                     it is not compiled in one pass).
      */
-    private void emitStatListNode(StatListAstNode statList, Label eofLabel) {
-        Label nextStatLabel = new Label();
-        emitStatNode(statList.getStat(), nextStatLabel);
-        codeGen.addLabel(nextStatLabel);
-        emitStatListExNode(statList.getStatListEx());
-        codeGen.addGotoInstruction(eofLabel);
+    public Compiler(Parser parser, boolean onePass) throws IOException {
+        this.ast = onePass ? null : parser.parse();
+        this.arena = null;
+        this.parser = onePass ? parser : null;
     }
 
     /**
-     * Emits the code for a {@code <statlistex>} AST node.
+     * Initializes a new {@link Compiler} for a program parsed into a compact AST.
+     * The statements of the program are turned into AST nodes one at a time, as their code is emitted.
      *
-     * @param statListEx The {@code <statlistex>} AST node.
+     * @param arena The arena holding the compact AST of the program.
+     * @see Parser#parseCompact()
      */
-    private void emitStatListExNode(StatListExAstNode statListEx) {
-        switch (statListEx.getProductionId()) {
-            case DefaultStatListExAstNode.ID -> {
-                DefaultStatListExAstNode defaultStatListEx = (DefaultStatListExAstNode) statListEx;
-                Label nextStatLabel = new Label();
-                emitStatNode(defaultStatListEx.getStat(), nextStatLabel);
-                codeGen.addLabel(nextStatLabel);
-                emitStatListExNode(defaultStatListEx.getStatListEx());
-            }
-            case EmptyStatListExAstNode.ID -> {
-            }
-            default ->
-                    throw new IllegalStateException("Unexpected <statlist> production id: " + statListEx.getProductionId());
-        }
+    public Compiler(AstArena arena) {
+        this.ast = null;
+        this.arena = arena;
+        this.parser = null;
     }
 
     /**
-     * Emits the code for a {@code <stat>} AST node.
+     * The entry point of the compiler.
+     * <br>
+     * The first argument shall be the input file path, and the second argument shall be the output file path.
+     * If the input file path is {@code -}, the source is read from the standard input while it is compiled.
      *
-     * @param stat          The {@code <stat>} AST node.
-     * @param nextStatLabel The label at which the next statement is defined.
+     * @param args The arguments.
      */
-    private void emitStatNode(StatAstNode stat, Label nextStatLabel) {
-        switch (stat.getProductionId()) {
-            case AssignStatAstNode.ID -> {
-                AssignStatAstNode assignStat = (AssignStatAstNode) stat;
-                emitExprNode(assignStat.getExpr());
-                emitIdListNode(assignStat.getIdList(), IDLIST_ASSIGN);
-                codeGen.addGotoInstruction(nextStatLabel);
-            }
-            case PrintStatAstNode.ID -> {
-                PrintStatAstNode printStat = (PrintStatAstNode) stat;
-                emitExprListNode(printStat.getExprList(), EXPRLIST_PRINT);
-                codeGen.addGotoInstruction(nextStatLabel);
-            }
-            case ReadStatAstNode.ID -> {
-                ReadStatAstNode readStat = (ReadStatAstNode) stat;
-                codeGen.addReadInstruction();
-                emitIdListNode(readStat.getIdList(), IDLIST_READ);
-                codeGen.addGotoInstruction(nextStatLabel);
-            }
-            case WhileStatAstNode.ID -> {
-                WhileStatAstNode whileStat = (WhileStatAstNode) stat;
-                Label trueLabel = new Label();
-                Label falseLabel = nextStatLabel;
-                nextStatLabel = new Label();
-                codeGen.addLabel(nextStatLabel);
-                emitBoolExprNode(whileStat.getBoolExpr(), trueLabel, falseLabel);
-                codeGen.addLabel(trueLabel);
-                emitStatNode(whileStat.getStat(), nextStatLabel);
-            }
-            case IfStatAstNode.ID -> {
-                IfStatAstNode ifStat = (IfStatAstNode) stat;
-                Label trueLabel = new Label();
-                Label falseLabel = new Label();
-                emitBoolExprNode(ifStat.getBoolExpr(), trueLabel, falseLabel);
-                codeGen.addLabel(trueLabel);
-                emitStatNode(ifStat.getStat(), nextStatLabel);
-                codeGen.addLabel(falseLabel);
-                emitIfExNode(ifStat.getIfEx(), nextStatLabel);
-            }
-            case BlockStatAstNode.ID -> {
-                BlockStatAstNode blockStat = (BlockStatAstNode) stat;
-                emitStatListNode(blockStat.getStatList(), nextStatLabel);
+    public static void main(String[] args) {
+        if (args.length == 0)
+            System.err.println("The input file path shall be specified as the first argument.");
+        else if (args.length == 1)
+            System.err.println("The output file path shall be specified as the second argument.");
+        else {
+            try {
+                Compiler compiler;
+
+                if (args[0].equals(STANDARD_INPUT_PATH))
+                    compiler = new Compiler("stdin", Channels.newChannel(System.in));
+                else if (!Files.exists(Path.of(args[0])))
+                    throw new IOException("Unable to find input file: " + args[0]);
+                else
+                    compiler = new Compiler(args[0]);
+
+                compiler.compile(args[1]);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
             }
-            default -> throw new IllegalStateException("Unexpected <stat> production id: " + stat.getProductionId());
         }
     }
-
     /**
-     * Emits the code for a {@code <ifex>} AST node.
+     * Compiles the source into the file at the specified path.
+     * <p>
+     * If the output file path ends with {@code .class}, the class file of the program is written directly, without
+     * Jasmin code to be assembled; otherwise, the Jasmin code of the program is written.
      *
-     * @param ifEx      The {@code <ifex>} AST node.
-     * @param nextLabel The label of the first instruction after the if block.
+     * @param outPath The output file path.
+     * @throws IOException If an I/O exception occurs when generating the code, or if the source is not a valid
+     *                     program (only if it is compiled in one pass).
      */
-    private void emitIfExNode(IfExAstNode ifEx, Label nextLabel) {
-        switch (ifEx.getProductionId()) {
-            case EndIfExAstNode.ID -> codeGen.addGotoInstruction(nextLabel);
-            case ElseIfExAstNode.ID -> {
-                ElseIfExAstNode elseIfEx = (ElseIfExAstNode) ifEx;
-                emitStatNode(elseIfEx.getStat(), nextLabel);
-            }
-            default -> throw new IllegalStateException("Unexpected <ifex> production id: " + ifEx.getProductionId());
+    public void compile(String outPath) throws IOException {
+        boolean classFile = outPath.endsWith(CLASS_FILE_EXTENSION);
+
+        if (parser != null && !classFile) {
+            compileOnePass(outPath);
+            return;
         }
-    }
 
-    /**
-     * Emits the code for a {@code <idlist>} AST node.
-     *
-     * @param idList              The {@code <idlist>} AST node.
-     * @param idListFunctionIndex The index of the function that contains the id list.
-     */
-    private void emitIdListNode(IdListAstNode idList, int idListFunctionIndex) {
-        codeGen.addStoreVarInstruction(idList.getIdentifier().getLexeme());
-        emitIdListExNode(idList.getIdListEx(), idListFunctionIndex, idList.getIdentifier());
+        emit();
+
+        if (classFile)
+            codeGen.generateClass(outPath);
+        else
+            codeGen.generate(outPath);
     }
 
     /**
-     * Emits the code for a {@code <idlistex>} AST node.
+     * Compiles the source into the bytes of a class file, without writing any file.
      *
-     * @param idListEx            The {@code <idlistex>} AST node.
-     * @param idListFunctionIndex The index of the function that contains the id list.
-     * @param identifier          The identifier of the first identifier of the list.
+     * @param className The internal name of the class (e.g., {@code plang/Output}).
+     * @return The bytes of the class file.
+     * @throws IOException           If the source is not a valid program (only if it is compiled in one pass).
+     * @throws IllegalStateException If the code of the program is too large for a method.
      */
-    private void emitIdListExNode(IdListExAstNode idListEx, int idListFunctionIndex, IdentifierToken identifier) {
-        switch (idListEx.getProductionId()) {
-            case DefaultIdListExAstNode.ID -> {
-                DefaultIdListExAstNode defaultIdListEx = (DefaultIdListExAstNode) idListEx;
-
-                switch (idListFunctionIndex) {
-                    case IDLIST_READ -> codeGen.addReadInstruction();
-                    case IDLIST_ASSIGN -> codeGen.addLoadVarInstruction(identifier.getLexeme());
-                }
-
-                codeGen.addStoreVarInstruction(defaultIdListEx.getIdentifier().getLexeme());
-                emitIdListExNode(defaultIdListEx.getIdListEx(), idListFunctionIndex, identifier);
-            }
-            case EmptyIdListExAstNode.ID -> {
-            }
-            default ->
-                    throw new IllegalStateException("Unexpected <idlistex> production id: " + idListEx.getProductionId());
-        }
+    public byte[] compileClass(String className) throws IOException {
+        emit();
+        return codeGen.toClassFile(className);
     }
 
     /**
-     * Emits the code for a {@code <boolexpr>} AST node.
+     * Emits the code of the program into the code generator.
+     * In one-pass mode, the source is parsed while its code is emitted, but the code is not streamed, since a class
+     * file can only be written once the whole code is known.
      *
-     * @param boolExpr   The {@code <boolexpr>} AST node.
-     * @param trueLabel  The label to go to if the condition is true.
-     * @param falseLabel The label to go to if the condition is false.
+     * @throws IOException If the source is not a valid program (only if it is compiled in one pass).
      */
-    private void emitBoolExprNode(BoolExprAstNode boolExpr, Label trueLabel, Label falseLabel) {
-        switch (boolExpr.getProductionId()) {
-            case EqBoolExprAstNode.ID -> {
-                EqBoolExprAstNode eqBoolExpr = (EqBoolExprAstNode) boolExpr;
-                emitExprNode(eqBoolExpr.getExpr1());
-                emitExprNode(eqBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_NE, falseLabel);
-            }
-            case NeBoolExprAstNode.ID -> {
-                NeBoolExprAstNode neBoolExpr = (NeBoolExprAstNode) boolExpr;
-                emitExprNode(neBoolExpr.getExpr1());
-                emitExprNode(neBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_EQ, trueLabel);
-            }
-            case LtBoolExprAstNode.ID -> {
-                LtBoolExprAstNode ltBoolExpr = (LtBoolExprAstNode) boolExpr;
-                emitExprNode(ltBoolExpr.getExpr1());
-                emitExprNode(ltBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_GE, falseLabel);
-            }
-            case LeBoolExprAstNode.ID -> {
-                LeBoolExprAstNode leBoolExpr = (LeBoolExprAstNode) boolExpr;
-                emitExprNode(leBoolExpr.getExpr1());
-                emitExprNode(leBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_GT, falseLabel);
-            }
-            case GtBoolExprAstNode.ID -> {
-                GtBoolExprAstNode gtBoolExpr = (GtBoolExprAstNode) boolExpr;
-                emitExprNode(gtBoolExpr.getExpr1());
-                emitExprNode(gtBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_LE, falseLabel);
-            }
-            case GeBoolExprAstNode.ID -> {
-                GeBoolExprAstNode geBoolExpr = (GeBoolExprAstNode) boolExpr;
-                emitExprNode(geBoolExpr.getExpr1());
-                emitExprNode(geBoolExpr.getExpr2());
-                codeGen.addInstruction(OpCode.IF_LT, falseLabel);
-            }
-            case AndBoolExprAstNode.ID -> {
-                AndBoolExprAstNode andBoolExpr = (AndBoolExprAstNode) boolExpr;
-                Label nextBoolExprLabel = new Label();
-                emitBoolExprNode(andBoolExpr.getBoolExpr1(), nextBoolExprLabel, falseLabel);
-                codeGen.addLabel(nextBoolExprLabel);
-                emitBoolExprNode(andBoolExpr.getBoolExpr2(), trueLabel, falseLabel);
-            }
-            case OrBoolExprAstNode.ID -> {
-                OrBoolExprAstNode orBoolExpr = (OrBoolExprAstNode) boolExpr;
-                Label nextBoolExprLabel = new Label();
-                emitBoolExprNode(orBoolExpr.getBoolExpr1(), trueLabel, nextBoolExprLabel);
-                codeGen.addGotoInstruction(trueLabel);
-                codeGen.addLabel(nextBoolExprLabel);
-                emitBoolExprNode(orBoolExpr.getBoolExpr2(), trueLabel, falseLabel);
-            }
-            case NotBoolExprAstNode.ID -> {
-                NotBoolExprAstNode notBoolExpr = (NotBoolExprAstNode) boolExpr;
-                emitBoolExprNode(notBoolExpr.getBoolExpr(), falseLabel, trueLabel);
-                codeGen.addGotoInstruction(falseLabel);
-            }
-            default ->
-                    throw new IllegalStateException("Unexpected <boolexpr> production id: " + boolExpr.getProductionId());
-        }
+    private void emit() throws IOException {
+        if (parser != null)
+            parser.parse(new CodeTranslator(codeGen));
+        else if (arena != null)
+            emitProgNode(arena.cursor());
+        else if (ast.getType() != AstNodeType.PROG)
+            throw new IllegalStateException("The AST node root should be a program");
+        else
+            ast.accept(emitter);
     }
 
     /**
-     * Emits the code for a {@code <expr>} AST node.
+     * Parses the source and emits its code in one pass, streaming the code to the output file.
+     * If the source is not a valid program, the output file is deleted.
      *
-     * @param expr The {@code <expr>} AST node.
+     * @param outPath The output file path.
+     * @throws IOException If an I/O exception occurs when generating the code, or if the source is not a valid
+     *                     program.
      */
-    private void emitExprNode(ExprAstNode expr) {
-        switch (expr.getProductionId()) {
-            case AddExprAstNode.ID -> {
-                AddExprAstNode addExpr = (AddExprAstNode) expr;
-                emitExprListNode(addExpr.getExprList(), EXPRLIST_ADD);
-            }
-            case SubExprAstNode.ID -> {
-                SubExprAstNode subExpr = (SubExprAstNode) expr;
-                emitExprNode(subExpr.getExpr1());
-                emitExprNode(subExpr.getExpr2());
-                codeGen.addInstruction(OpCode.SUBTRACT);
-            }
-            case MulExprAstNode.ID -> {
-                MulExprAstNode mulExpr = (MulExprAstNode) expr;
-                emitExprListNode(mulExpr.getExprList(), EXPRLIST_MULTIPLY);
-            }
-            case DivExprAstNode.ID -> {
-                DivExprAstNode divExpr = (DivExprAstNode) expr;
-                emitExprNode(divExpr.getExpr1());
-                emitExprNode(divExpr.getExpr2());
-                codeGen.addInstruction(OpCode.DIVIDE);
-            }
-            case NumberExprAstNode.ID -> {
-                NumberExprAstNode numberExpr = (NumberExprAstNode) expr;
-                codeGen.addInstruction(OpCode.LOAD_CONST, numberExpr.getNumber().getValue());
-            }
-            case IdentifierExprAstNode.ID -> {
-                IdentifierExprAstNode identifierExpr = (IdentifierExprAstNode) expr;
-                codeGen.addLoadVarInstruction(identifierExpr.getIdentifier().getLexeme());
-            }
-            default -> throw new IllegalStateException("Unexpected <expr> production id: " + expr.getProductionId());
+    private void compileOnePass(String outPath) throws IOException {
+        boolean compiled = false;
+
+        try (Writer out = new BufferedWriter(new FileWriter(outPath, false))) {
+            CodeGenerator streamGen = new CodeGenerator(out);
+            parser.parse(new CodeTranslator(streamGen));
+            streamGen.finish();
+            compiled = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!compiled)
+                Files.deleteIfExists(Path.of(outPath));
         }
     }
 
     /**
-     * Emits the code for a {@code <exprlist>} AST node.
+     * Emits the code for the {@code <prog>} node of a compact AST.
+     * Each statement of the program is turned into AST nodes on its own, so that only one statement at a time is
+     * held as AST nodes.
      *
-     * @param exprList              The {@code <exprlist>} AST node.
-     * @param exprListFunctionIndex The index of the function that contains this expression list.
+     * @param cursor The cursor positioned on the {@code <prog>} node.
      */
-    private void emitExprListNode(ExprListAstNode exprList, int exprListFunctionIndex) {
-        emitExprNode(exprList.getExpr());
-
-        if (exprListFunctionIndex == EXPRLIST_PRINT)
-            codeGen.addPrintInstruction();
-
-        emitExprListExNode(exprList.getExprListEx(), exprListFunctionIndex);
-    }
+    private void emitProgNode(AstCursor cursor) {
+        if (cursor.getType() != AstNodeType.PROG)
+            throw new IllegalStateException("The AST node root should be a program");
 
-    private void emitExprListExNode(ExprListExAstNode exprListEx, int exprListFunctionId) {
-        switch (exprListEx.getProductionId()) {
-            case DefaultExprListExAstNode.ID -> {
-                DefaultExprListExAstNode defaultExprListEx = (DefaultExprListExAstNode) exprListEx;
-                emitExprNode(defaultExprListEx.getExpr());
+        Label eofLabel = new Label();
+        cursor.gotoFirstChild();
+        cursor.gotoFirstChild();
 
-                switch (exprListFunctionId) {
-                    case EXPRLIST_PRINT -> codeGen.addPrintInstruction();
-                    case EXPRLIST_ADD -> codeGen.addInstruction(OpCode.ADD);
-                    case EXPRLIST_MULTIPLY -> codeGen.addInstruction(OpCode.MULTIPLY);
-                }
+        do {
+            Label nextStatLabel = new Label();
+            emitter.emitStatNode((StatAstNode) cursor.toAstNode(), nextStatLabel);
+            codeGen.addLabel(nextStatLabel);
+        } while (cursor.gotoNextSibling());
 
-                emitExprListExNode(defaultExprListEx.getExprListEx(), exprListFunctionId);
-            }
-            case EmptyExprListExAstNode.ID -> {
-            }
-            default ->
-                    throw new IllegalStateException("Unexpected <exprlistex> production id: " + exprListEx.getProductionId());
-        }
+        codeGen.addGotoInstruction(eofLabel);
+        codeGen.addLabel(eofLabel);
     }
 }
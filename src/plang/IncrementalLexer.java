@@ -0,0 +1,210 @@
+package plang;
+
+import plang.tokens.SymbolPool;
+import plang.tokens.TokenKind;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Implements a lexer that keeps the tokens of a P source up to date while the source is edited.
+ * <p>
+ * After an edit, the source is tokenized again only from the last token that starts before the edit (which the lexer
+ * scanned from its initial state, and which is thus a safe restart point), until a new token is scanned from the
+ * same source offset of an old token that follows the edit: since the rest of the source is unchanged, the rest
+ * of the old tokens are reused as they are, just shifting their source offsets.
+ * <p>
+ * Offsets and lengths of the edits are byte offsets into the UTF-8 encoded source, as the source offsets of the
+ * tokens are. The {@link TokenBuffer} returned by this lexer is updated in place by the following edits.
+ */
+public final class IncrementalLexer {
+    /**
+     * The name of the source file
+     */
+    private final String fileName;
+    /**
+     * The bytes of the source, encoded in UTF-8
+     */
+    private byte[] source;
+    /**
+     * The number of bytes of the source
+     */
+    private int length;
+    /**
+     * The tokens of the source, or {@code null} if they have not been computed yet
+     */
+    private TokenBuffer tokens;
+    /**
+     * The index of the first token replaced by the last edit, or {@code -1} if the source has been tokenized from
+     * scratch since
+     */
+    private int changeStart = -1;
+    /**
+     * The number of old tokens replaced by the last edit
+     */
+    private int removedTokens;
+    /**
+     * The number of new tokens inserted by the last edit
+     */
+    private int insertedTokens;
+
+    /**
+     * Initializes a new {@link IncrementalLexer} for the specified source.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param source   The source code.
+     */
+    public IncrementalLexer(String fileName, String source) {
+        this.fileName = fileName;
+        this.source = source.getBytes(StandardCharsets.UTF_8);
+        this.length = this.source.length;
+    }
+
+    /**
+     * Gets the tokens of the current source, tokenizing it from scratch if needed.
+     * If the source contains a lexical error, the error ends the tokens (see {@link TokenBuffer}).
+     *
+     * @return The buffer holding the tokens of the source.
+     * @throws IOException If the source is too large to be stored into a token buffer.
+     */
+    public TokenBuffer getTokens() throws IOException {
+        if (tokens == null) {
+            tokens = new Lexer(fileName, source, 0, length, new SymbolPool()).tokenize();
+            changeStart = -1;
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Applies an edit to the source, and updates its tokens.
+     * <p>
+     * If the source contains a lexical error after the edit (e.g., an unterminated block comment that swallows the rest
+     * of the source), the error ends the tokens, and the following edit will tokenize the source from scratch.
+     *
+     * @param offset        The byte offset at which the edit starts.
+     * @param removedLength The number of bytes removed by the edit.
+     * @param insertedText  The text inserted by the edit.
+     * @return The buffer holding the tokens of the edited source.
+     * @throws IOException               If the edited source is too large to be stored into a token buffer.
+     * @throws IndexOutOfBoundsException If the edited range is not within the source.
+     */
+    public TokenBuffer edit(int offset, int removedLength, String insertedText) throws IOException {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > length)
+            throw new IndexOutOfBoundsException("Invalid edit range: " + offset + "+" + removedLength);
+
+        byte[] inserted = insertedText.getBytes(StandardCharsets.UTF_8);
+        int delta = inserted.length - removedLength;
+
+        if (length + delta > source.length)
+            source = Arrays.copyOf(source, Math.max(source.length * 2, length + delta));
+
+        System.arraycopy(source, offset + removedLength, source, offset + inserted.length, length - offset - removedLength);
+        System.arraycopy(inserted, 0, source, offset, inserted.length);
+        length += delta;
+
+        if (tokens == null || tokens.getError() != null) {
+            tokens = null;
+            return getTokens();
+        }
+
+        TokenBuffer old = tokens;
+        tokens = null;
+        changeStart = -1;
+
+        int restart = old.findBefore(offset);
+        int from = Math.max(restart, 0);
+        Lexer lexer = new Lexer(fileName, source, restart < 0 ? 0 : old.getOffset(restart), length, old.getSymbols());
+        LineMap lines = new LineMap();
+        TokenBuffer fresh = new TokenBuffer(fileName, old.getSymbols(), lines);
+
+        lines.defer(source, length, 0);
+
+        while (true) {
+            IOException error = null;
+            int kind;
+
+            try {
+                kind = lexer.scan();
+            } catch (IOException e) {
+                error = e;
+                kind = TokenKind.END_OF_FILE.ordinal();
+            }
+
+            int scanStart = (int) lexer.getScanStart();
+
+            if (error == null && scanStart >= offset + inserted.length) {
+                int sync = old.find(scanStart - delta, from);
+
+                if (sync >= 0) {
+                    old.splice(from, sync, fresh, delta, lines);
+                    removedTokens = sync - from;
+                    break;
+                }
+            }
+
+            if (error != null)
+                fresh.addError(error, scanStart);
+            else
+                fresh.add(kind, kind == TokenKind.NUMBER.ordinal() || kind == TokenKind.IDENTIFIER.ordinal() ? lexer.getPayload() : 0, scanStart);
+
+            if (kind == TokenKind.END_OF_FILE.ordinal()) {
+                removedTokens = old.size() - from;
+                old.splice(from, old.size(), fresh, 0, lines);
+                break;
+            }
+        }
+
+        changeStart = from;
+        insertedTokens = fresh.size();
+        tokens = old;
+        return tokens;
+    }
+
+    /**
+     * Gets the index of the first token replaced by the last edit.
+     *
+     * @return The index of the first token replaced by the last edit, or {@code -1} if the source has been tokenized
+     * from scratch since (in which case all the tokens have to be considered as changed).
+     */
+    int getChangeStart() {
+        return changeStart;
+    }
+
+    /**
+     * Gets the number of old tokens replaced by the last edit, starting at {@link #getChangeStart()}.
+     *
+     * @return The number of old tokens replaced by the last edit.
+     */
+    int getRemovedTokens() {
+        return removedTokens;
+    }
+
+    /**
+     * Gets the number of new tokens inserted by the last edit, starting at {@link #getChangeStart()}.
+     *
+     * @return The number of new tokens inserted by the last edit.
+     */
+    int getInsertedTokens() {
+        return insertedTokens;
+    }
+
+    /**
+     * Gets the current source code.
+     *
+     * @return The source code.
+     */
+    public String getSource() {
+        return new String(source, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the name of the P source file.
+     *
+     * @return The name of the P source file.
+     */
+    public String getFileName() {
+        return this.fileName;
+    }
+}
@@ -0,0 +1,172 @@
+package plang;
+
+import plang.ast.*;
+
+import java.io.IOException;
+
+/**
+ * Implements a parser that keeps the AST of a P source up to date while the source is edited.
+ * <p>
+ * The source is tokenized by an {@link IncrementalLexer}, which tells which tokens have been replaced by an edit, and
+ * the range of tokens of each {@code <stat>} node is kept in a {@link StatementIndex}. After an edit, only the
+ * innermost statement that contains the replaced tokens is parsed again: if it still ends right before the token that
+ * followed it, the rest of the source (which is unchanged) is parsed exactly as before, so its new node is spliced into
+ * the AST, copying only the nodes on its path to the root, and reusing all the other subtrees. Otherwise, the enclosing
+ * statements are parsed again, from the innermost one, and the whole source is parsed if none of them can be (e.g.,
+ * because the edit added a top-level statement, or because it made the source invalid, in which case the first error
+ * is reported as a {@link Parser} of the tokens of the whole source reports it).
+ * <p>
+ * Offsets and lengths of the edits are byte offsets into the UTF-8 encoded source, as for {@link IncrementalLexer}.
+ */
+public final class IncrementalParser {
+    /**
+     * The lexer of the source
+     */
+    private final IncrementalLexer lexer;
+    /**
+     * The AST of the current source, or {@code null} if it has to be parsed from scratch (e.g., because the source
+     * contained an error)
+     */
+    private ProgAstNode ast;
+    /**
+     * The index of the statements of the AST
+     */
+    private StatementIndex index;
+
+    /**
+     * Initializes a new {@link IncrementalParser} for the specified source.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param source   The source code.
+     */
+    public IncrementalParser(String fileName, String source) {
+        this.lexer = new IncrementalLexer(fileName, source);
+    }
+
+    /**
+     * Gets the AST of the current source, parsing it from scratch if needed.
+     *
+     * @return The root node of the AST.
+     * @throws IOException If the source contains an error.
+     */
+    public AstNode getAst() throws IOException {
+        if (ast == null) {
+            TokenCursor cursor = new TokenCursor(lexer.getTokens());
+            IndexingAstBuilder builder = new IndexingAstBuilder(cursor);
+            ast = (ProgAstNode) new Parser(cursor).parse(builder);
+            index = builder.getIndex();
+        }
+
+        return ast;
+    }
+
+    /**
+     * Applies an edit to the source, and updates its AST.
+     * <p>
+     * If the source contains an error after the edit, the error is thrown, and the following edit will parse the
+     * source from scratch.
+     *
+     * @param offset        The byte offset at which the edit starts.
+     * @param removedLength The number of bytes removed by the edit.
+     * @param insertedText  The text inserted by the edit.
+     * @return The root node of the AST of the edited source.
+     * @throws IOException               If the edited source contains an error.
+     * @throws IndexOutOfBoundsException If the edited range is not within the source.
+     */
+    public AstNode edit(int offset, int removedLength, String insertedText) throws IOException {
+        ProgAstNode previous = ast;
+        ast = null;
+
+        TokenBuffer tokens = lexer.edit(offset, removedLength, insertedText);
+        int changeStart = lexer.getChangeStart();
+
+        if (previous == null || changeStart < 0)
+            return getAst();
+
+        int changeEnd = changeStart + lexer.getRemovedTokens();
+        int delta = lexer.getInsertedTokens() - lexer.getRemovedTokens();
+
+        for (int entry = index.findEnclosing(changeStart, changeEnd); entry >= 0; entry = index.getParent(entry)) {
+            StatementIndex reparsed = reparse(tokens, index.getStart(entry), index.getEnd(entry) + delta);
+
+            if (reparsed != null) {
+                ast = splice(previous, entry, reparsed.getNode(0));
+                index.replace(entry, reparsed, delta);
+                return ast;
+            }
+        }
+
+        return getAst();
+    }
+
+    /**
+     * Gets the current source code.
+     *
+     * @return The source code.
+     */
+    public String getSource() {
+        return lexer.getSource();
+    }
+
+    /**
+     * Gets the name of the P source file.
+     *
+     * @return The name of the P source file.
+     */
+    public String getFileName() {
+        return lexer.getFileName();
+    }
+
+    /**
+     * Parses a statement again.
+     *
+     * @param tokens The buffer holding the tokens of the edited source.
+     * @param start  The index of the first token of the statement.
+     * @param end    The index of the token that shall follow the statement.
+     * @return The index of the statement and of its nested statements, or {@code null} if the tokens are not a valid
+     * statement that ends right before the specified token.
+     */
+    private static StatementIndex reparse(TokenBuffer tokens, int start, int end) {
+        TokenCursor cursor = new TokenCursor(tokens, start);
+        IndexingAstBuilder builder = new IndexingAstBuilder(cursor);
+
+        try {
+            if (new Parser(cursor).parseStatements(cursor, builder, new int[]{end}, 0, 1) == null)
+                return null;
+        } catch (IOException e) {
+            return null;
+        }
+
+        return builder.getIndex();
+    }
+
+    /**
+     * Replaces a statement of the AST, copying the nodes on its path to the root.
+     *
+     * @param previous The root node of the AST.
+     * @param entry    The index of the entry of the replaced statement.
+     * @param stat     The new node of the statement.
+     * @return The root node of the new AST.
+     */
+    private ProgAstNode splice(ProgAstNode previous, int entry, StatAstNode stat) {
+        for (int parent = index.getParent(entry); parent >= 0; parent = index.getParent(entry)) {
+            stat = replaceChild(index.getNode(parent), index.getSlot(entry), stat);
+            index.setNode(parent, stat);
+            entry = parent;
+        }
+
+        return new ProgAstNode(previous.getStatList().replace(index.getSlot(entry), stat));
+    }
+
+    /**
+     * Creates a copy of a statement node in which one of its nested statements is replaced.
+     *
+     * @param parent The node of the statement.
+     * @param slot   The slot of the nested statement into the node.
+     * @param stat   The new node of the nested statement.
+     * @return The new node of the statement.
+     */
+    private static StatAstNode replaceChild(StatAstNode parent, int slot, StatAstNode stat) {
+        return parent.accept(new NestedStatReplacer(slot, stat));
+    }
+}
@@ -0,0 +1,147 @@
+package plang;
+
+import plang.ast.AstNode;
+import plang.ast.AstNodeType;
+import plang.ast.StatAstNode;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+import java.util.Arrays;
+
+/**
+ * Implements a builder of an AST made of {@link AstNode}s that also records, into a {@link StatementIndex}, the range
+ * of tokens from which each {@code <stat>} node has been parsed.
+ * <p>
+ * The ranges are read from the cursor of the parser: when a statement is selected, the lookahead token is its first
+ * token, and when it is reduced, the lookahead token is the one that follows it.
+ */
+final class IndexingAstBuilder implements AstBuilder<AstNode> {
+    /**
+     * The builder of the nodes
+     */
+    private final NodeAstBuilder nodeBuilder = new NodeAstBuilder();
+    /**
+     * The cursor from which the parser reads the tokens
+     */
+    private final TokenCursor cursor;
+    /**
+     * The index of the statements
+     */
+    private final StatementIndex index = new StatementIndex();
+    /**
+     * The entries of the statements that are being parsed, from the outermost one
+     */
+    private int[] openEntries = new int[16];
+    /**
+     * The numbers of nested statements of the statements that are being parsed
+     */
+    private int[] childCounts = new int[16];
+    /**
+     * The number of statements that are being parsed
+     */
+    private int depth;
+    /**
+     * The number of top-level statements
+     */
+    private int topCount;
+
+    /**
+     * Initializes a new {@link IndexingAstBuilder}.
+     *
+     * @param cursor The cursor from which the parser reads the tokens.
+     */
+    IndexingAstBuilder(TokenCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Gets the index of the statements that have been parsed.
+     *
+     * @return The index of the statements.
+     */
+    StatementIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void reset() {
+        nodeBuilder.reset();
+        index.clear();
+        depth = 0;
+        topCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return nodeBuilder.size();
+    }
+
+    @Override
+    public void enter(TokenKind kind) {
+        if (!isStatement(kind))
+            return;
+
+        int parent = depth == 0 ? -1 : openEntries[depth - 1];
+        int slot = depth == 0 ? topCount++ : childCounts[depth - 1]++;
+
+        if (depth == openEntries.length) {
+            openEntries = Arrays.copyOf(openEntries, depth * 2);
+            childCounts = Arrays.copyOf(childCounts, depth * 2);
+        }
+
+        openEntries[depth] = index.open(cursor.getLastIndex(), parent, slot);
+        childCounts[depth++] = 0;
+    }
+
+    @Override
+    public void pushNumber(NumberToken number) {
+        nodeBuilder.pushNumber(number);
+    }
+
+    @Override
+    public void pushIdentifier(IdentifierToken identifier) {
+        nodeBuilder.pushIdentifier(identifier);
+    }
+
+    @Override
+    public void pushListIdentifier(IdentifierToken identifier) {
+        nodeBuilder.pushListIdentifier(identifier);
+    }
+
+    @Override
+    public void pushEndIf() {
+        nodeBuilder.pushEndIf();
+    }
+
+    @Override
+    public void reduce(TokenKind kind) {
+        nodeBuilder.reduce(kind);
+
+        if (isStatement(kind))
+            index.close(openEntries[--depth], cursor.getLastIndex(), (StatAstNode) nodeBuilder.peek());
+    }
+
+    @Override
+    public void reduceList(AstNodeType type, int count) {
+        nodeBuilder.reduceList(type, count);
+    }
+
+    @Override
+    public AstNode build() {
+        return nodeBuilder.build();
+    }
+
+    /**
+     * Tells whether a production is a {@code <stat>} production.
+     *
+     * @param kind The kind of the token that selected the production.
+     * @return {@code true} if the production is a {@code <stat>} production.
+     */
+    private static boolean isStatement(TokenKind kind) {
+        return switch (kind) {
+            case KWD_ASSIGN, KWD_PRINT, KWD_READ, KWD_WHILE, KWD_IF, LEFT_BRACE -> true;
+            default -> false;
+        };
+    }
+}
@@ -3,43 +3,79 @@ package plang;
 import plang.tokens.*;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Implements a lexer, which lazily tokenize the content of a P source file ( with {@code .p} extension).
+ * <p>
+ * The lexer works directly on the bytes of the source file: since every token of the language is made of ASCII
+ * characters, the source is never decoded, and non-ASCII bytes are only accepted inside comments.
  */
-@SuppressWarnings("SwitchStatementWithTooFewBranches")
-public final class Lexer {
+public final class Lexer implements TokenSource {
     /**
      * The name of the source file
      */
     private final String fileName;
     /**
-     * The source code to be tokenized
+     * The size of the buffer used when the source is read through a {@link LexerInput}
      */
-    private final String source;
+    private static final int BUFFER_SIZE = 64 * 1024;
     /**
-     * The position of the cursor into the source string
+     * The input from which the buffer is refilled, or {@code null} if the whole source is already buffered
+     */
+    private LexerInput input;
+    /**
+     * The buffer holding the bytes of the source code to be tokenized
+     */
+    private byte[] buffer;
+    /**
+     * The number of valid bytes in the buffer
+     */
+    private int limit;
+    /**
+     * The position of the cursor into the buffer
      */
     private int position;
     /**
-     * The current line number
+     * The source offset of the first byte of the buffer
+     */
+    private long base;
+    /**
+     * The source offset from which the last token has been scanned (i.e., the offset of the last read token)
+     */
+    private long scanStart;
+    /**
+     * The map from the source offsets to line and column numbers, built only when a position is requested
+     */
+    private final LineMap lines = new LineMap();
+    /**
+     * The source offset from which the positions are kept even once they precede the last read token, so that the
+     * lines that precede it can be released when the source is read through a {@link LexerInput}
+     */
+    private long retained = Long.MAX_VALUE;
+    /**
+     * The payload of the last scanned token (the value of a number, or the symbol id of an identifier)
      */
-    private int line = 1;
+    private int payload;
     /**
-     * The current column number
+     * The position into the buffer of the first byte of the token being recognized
      */
-    private int column = 1;
+    private int tokenStart;
     /**
-     * The previous line number (i.e., the line number of the last read token).
+     * The pool in which the identifiers are interned
      */
-    private int prevLine;
+    private final SymbolPool symbols;
     /**
-     * The previous column number (i.e., the column number of the last read token).
+     * The kinds of token, indexed by their ordinal
      */
-    private int prevColumn;
+    private static final TokenKind[] KINDS = TokenKind.values();
 
     /**
      * Initializes a new {@code Lexer} for the specified source file.
@@ -48,37 +84,172 @@ public final class Lexer {
      * @throws IOException If an I/O error occurs reading from the file.
      */
     public Lexer(String filePath) throws IOException {
+        this(filePath, false);
+    }
+
+    /**
+     * Initializes a new {@code Lexer} for the specified source file.
+     * <p>
+     * When the file is memory-mapped, it is never loaded as a whole into the heap: its bytes are scanned from the
+     * mapping through a fixed-size buffer, so that the memory used by the lexer does not depend on the file size.
+     *
+     * @param filePath     The path of the P source code file.
+     * @param memoryMapped Whether the file shall be memory-mapped instead of being read into memory.
+     * @throws IOException If an I/O error occurs reading from the file.
+     */
+    public Lexer(String filePath, boolean memoryMapped) throws IOException {
         Path path = Paths.get(filePath);
         this.fileName = path.getFileName().toString();
-        this.source = Files.readString(path);
+        this.symbols = new SymbolPool();
+
+        if (memoryMapped) {
+            this.input = new MappedLexerInput(path);
+            this.buffer = new byte[BUFFER_SIZE];
+        } else {
+            this.buffer = Files.readAllBytes(path);
+            this.limit = buffer.length;
+        }
+    }
+
+    /**
+     * Initializes a new {@code Lexer} that reads a P source from the specified channel.
+     * <p>
+     * The source is read lazily, through a fixed-size buffer, while it is tokenized: thus, it can be tokenized while
+     * it is still being produced.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param channel  The (blocking) channel from which the source is read.
+     */
+    public Lexer(String fileName, ReadableByteChannel channel) {
+        this(fileName, new ChannelLexerInput(channel));
+    }
+
+    /**
+     * Initializes a new {@code Lexer} that reads a P source from the specified reader.
+     * <p>
+     * The source is read lazily, through a fixed-size buffer, while it is tokenized: thus, it can be tokenized while
+     * it is still being produced.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param reader   The reader from which the source is read.
+     */
+    public Lexer(String fileName, Reader reader) {
+        this(fileName, new ReaderLexerInput(reader));
+    }
+
+    /**
+     * Initializes a new {@code Lexer} that tokenizes a range of a P source held in memory.
+     * The source offsets of the tokens are relative to the start of the whole source.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param source   The bytes of the source.
+     * @param start    The offset at which the range starts.
+     * @param end      The offset at which the range ends.
+     * @param symbols  The pool in which the identifiers are interned.
+     */
+    Lexer(String fileName, byte[] source, int start, int end, SymbolPool symbols) {
+        this.fileName = fileName;
+        this.symbols = symbols;
+        this.buffer = source;
+        this.position = start;
+        this.limit = end;
     }
 
     /**
-     * Advances the position by one.
-     * If the source code has already been consumed, this method does not have any effect.
+     * Initializes a new {@code Lexer} that reads a P source from the specified input.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param input    The input from which the source is read.
      */
-    private void advance() {
-        if (position >= source.length())
-            return;
+    private Lexer(String fileName, LexerInput input) {
+        this.fileName = fileName;
+        this.symbols = new SymbolPool();
+        this.input = input;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Refills the buffer with the next bytes of the source code.
+     * The bytes starting from the specified offset are moved to the beginning of the buffer, so that a character or
+     * a token that crosses the end of the buffer can still be read as a whole; if the buffer is already full of bytes
+     * to be kept, it is enlarged. Since the other bytes are discarded, they are indexed into the line map first, and
+     * the lines that precede both the last read token and the retained positions are released from it: thus, the map
+     * only covers the current buffer and the lines whose positions can still be requested.
+     *
+     * @param from The offset of the first byte to be kept.
+     * @return {@code true} if at least one byte has been read, or {@code false} if the source code has been consumed.
+     * @throws IOException If an I/O error occurs reading from the input.
+     */
+    private boolean refill(int from) throws IOException {
+        if (input == null)
+            return false;
+
+        lines.index(buffer, from, base);
+        lines.release(Math.min(scanStart, retained));
 
-        char c = source.charAt(position++);
+        int remaining = limit - from;
 
-        if (c == '\n') {
-            line++;
-            column = 1;
-        } else column++;
+        if (from == 0 && remaining == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        else
+            System.arraycopy(buffer, from, buffer, 0, remaining);
+
+        base += from;
+        position -= from;
+        tokenStart -= from;
+        limit = remaining;
+
+        int count;
+
+        do count = input.read(buffer, limit, buffer.length - limit);
+        while (count == 0);
+
+        if (count < 0) {
+            input = null;
+            return false;
+        }
+
+        limit += count;
+        return true;
     }
 
     /**
      * Gets the current character from the source code.
      *
-     * @return The current character, or {@code -1} if the source code has already been consumed.
+     * @return The current byte, or {@code -1} if the source code has already been consumed.
+     * @throws IOException If an I/O error occurs reading from the input.
      */
-    private char current() {
-        if (position >= source.length())
-            return (char) -1;
+    private int current() throws IOException {
+        if (position >= limit && !refill(position))
+            return -1;
 
-        return source.charAt(position);
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Gets the current character from the source code, decoding it if it is not an ASCII character.
+     * This method shall be used only to describe the character in error messages.
+     *
+     * @return The current character, or {@code (char) -1} if the source code has already been consumed.
+     * @throws IOException If an I/O error occurs reading from the input.
+     */
+    private char currentChar() throws IOException {
+        int c = current();
+
+        if (c < 0x80)
+            return (char) c;
+
+        int length = c >= 0xF0 ? 4 : c >= 0xE0 ? 3 : 2;
+        int codePoint = c & (0x3F >> (length - 1));
+
+        while (limit - position < length)
+            if (!refill(position))
+                break;
+
+        for (int i = 1; i < length && position + i < limit; i++)
+            codePoint = (codePoint << 6) | (buffer[position + i] & 0x3F);
+
+        return Character.isBmpCodePoint(codePoint) ? (char) codePoint : Character.highSurrogate(codePoint);
     }
 
     /**
@@ -87,210 +258,259 @@ public final class Lexer {
      * @return The next token
      * @throws IOException If an invalid character is encountered.
      */
+    @Override
     public Token nextToken() throws IOException {
-        prevLine = line;
-        prevColumn = column;
-
-        while (current() == ' ' || current() == '\n' || current() == '\t' || current() == '\r')
-            advance();
-
-        switch (current()) {
-            case (char) -1:
-                advance();
-                return CommonTokens.get(TokenKind.END_OF_FILE);
-
-            case '!':
-                advance();
-                return CommonTokens.get(TokenKind.LOGICAL_NOT);
-
-            case '(':
-                advance();
-                return CommonTokens.get(TokenKind.LEFT_PARENTHESIS);
-
-            case ')':
-                advance();
-                return CommonTokens.get(TokenKind.RIGHT_PARENTHESIS);
-
-            case '{':
-                advance();
-                return CommonTokens.get(TokenKind.LEFT_BRACE);
-
-            case '}':
-                advance();
-                return CommonTokens.get(TokenKind.RIGHT_BRACE);
-
-            case '+':
-                advance();
-                return CommonTokens.get(TokenKind.PLUS);
-
-            case '-':
-                advance();
-                return CommonTokens.get(TokenKind.MINUS);
-
-            case '*':
-                advance();
-                return CommonTokens.get(TokenKind.ASTERISK);
-
-            case '/':
-                advance();
-                return switch (current()) {
-                    case '/':
-                        do advance();
-                        while (current() != '\n' && current() != (char) -1);
-                        yield nextToken();
-
-                    case '*':
-                        int state = 0; // 0 -> in comment; 1 -> found asterisk; 2 -> end
-                        int currentLine = line;
-                        int currentColumn = column;
-
-                        do {
-                            advance();
-                            state = switch (current()) {
-                                case '*' -> 1;
-                                case '/' -> state == 1 ? 2 : 0;
-                                case (char) -1 -> state;
-                                default -> 0;
-                            };
-                        } while (state < 2 && current() != (char) -1);
-
-                        if (state < 2)
-                            throwIOException(currentLine, currentColumn, "Unterminated block comment");
-
-                        yield nextToken();
-
-                    default:
-                        yield CommonTokens.get(TokenKind.SLASH);
-                };
-
-            case ';':
-                advance();
-                return CommonTokens.get(TokenKind.SEMICOLON);
-
-            case ',':
-                advance();
-                return CommonTokens.get(TokenKind.COMMA);
-
-            case '&':
-                advance();
-                return switch (current()) {
-                    case '&' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.LOGICAL_AND);
-                    }
-                    default -> {
-                        throwIOException("Invalid character after '&': '" + current() + "'");
-                        yield null;
-                    }
-                };
-
-            case '|':
-                advance();
-                return switch (current()) {
-                    case '|' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.LOGICAL_OR);
-                    }
-                    default -> {
-                        throwIOException("Invalid character after '|': '" + current() + "'");
-                        yield null;
-                    }
-                };
-
-            case '=':
-                advance();
-                return switch (current()) {
-                    case '=' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.EQUALITY);
-                    }
-                    default -> {
-                        throwIOException("Invalid character after '=': '" + current() + "'");
-                        yield null;
-                    }
-                };
-
-            case '<':
-                advance();
-                return switch (current()) {
-                    case '>' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.INEQUALITY);
-                    }
-                    case '=' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.LESS_THAN_EQUAL);
-                    }
-                    default -> CommonTokens.get(TokenKind.LESS_THAN);
-                };
-
-            case '>':
-                advance();
-                return switch (current()) {
-                    case '=' -> {
-                        advance();
-                        yield CommonTokens.get(TokenKind.GREATER_THAN_EQUAL);
-                    }
-                    default -> CommonTokens.get(TokenKind.GREATER_THAN);
-                };
-
-            default:
-                StringBuilder sb = new StringBuilder();
-
-                if (Character.isLetter(current()) || current() == '_') {
-                    int currentLine = line;
-                    int currentColumn = column;
-
-                    do {
-                        sb.append(current());
-                        advance();
-                    } while (Character.isLetterOrDigit(current()) || current() == '_');
-
-                    String content = sb.toString();
-
-                    if (content.chars().allMatch(value -> value == '_'))
-                        throwIOException(currentLine, currentColumn, "An identifier cannot consist solely of the character '_'");
-
-                    return switch (content) {
-                        case "assign" -> CommonTokens.get(TokenKind.KWD_ASSIGN);
-                        case "to" -> CommonTokens.get(TokenKind.KWD_TO);
-                        case "if" -> CommonTokens.get(TokenKind.KWD_IF);
-                        case "else" -> CommonTokens.get(TokenKind.KWD_ELSE);
-                        case "while" -> CommonTokens.get(TokenKind.KWD_WHILE);
-                        case "end" -> CommonTokens.get(TokenKind.KWD_END);
-                        case "print" -> CommonTokens.get(TokenKind.KWD_PRINT);
-                        case "read" -> CommonTokens.get(TokenKind.KWD_READ);
-                        default -> new IdentifierToken(content);
-                    };
-                } else if (Character.isDigit(current())) {
-                    do {
-                        sb.append(current());
-                        advance();
-                    } while (Character.isDigit(current()));
-
-                    if (current() == '_' || Character.isLetter(current()))
-                        throwIOException("Invalid suffix to digit sequence");
-
-                    return new NumberToken(Integer.parseInt(sb.toString()));
-                }
+        int kind = scan();
 
-                break;
+        if (kind == TokenKind.NUMBER.ordinal())
+            return NumberToken.valueOf(payload);
+        if (kind == TokenKind.IDENTIFIER.ordinal())
+            return symbols.get(payload);
+
+        return CommonTokens.get(KINDS[kind]);
+    }
+
+    /**
+     * Consumes all the tokens of the source code, storing them into a {@link TokenBuffer}.
+     * <p>
+     * No token object is allocated: each token is stored as its kind, its payload and its source offset.
+     * If a lexical error (or an I/O error) stops the tokenization, it is stored as the last entry of the buffer, and
+     * thrown only when a parser reaches it: thus, a syntax error that precedes it is reported first, as when the
+     * source is parsed while it is tokenized.
+     *
+     * @return The buffer holding the tokens of the source code.
+     * @throws IOException If the source is too large.
+     */
+    public TokenBuffer tokenize() throws IOException {
+        TokenBuffer tokens = new TokenBuffer(fileName, symbols, lines);
+        retainPositionsFrom(base + position);
+        int kind;
+
+        do {
+            IOException error = null;
+
+            try {
+                kind = scan();
+            } catch (IOException e) {
+                error = e;
+                kind = TokenKind.END_OF_FILE.ordinal();
+            }
+
+            if (scanStart > Integer.MAX_VALUE)
+                throwIOException(scanStart, "The source is too large to be stored into a token buffer");
+
+            if (error != null)
+                tokens.addError(error, (int) scanStart);
+            else
+                tokens.add(kind, kind == TokenKind.NUMBER.ordinal() || kind == TokenKind.IDENTIFIER.ordinal() ? payload : 0, (int) scanStart);
+        } while (kind != TokenKind.END_OF_FILE.ordinal());
+
+        lines.defer(buffer, limit, base);
+        return tokens;
+    }
+
+    /**
+     * Consumes all the tokens of the source code, storing them into a {@link TokenBuffer}, using the specified
+     * pool to tokenize several chunks of the source in parallel.
+     * <p>
+     * Only a source that has been read as a whole into memory, and that has not been consumed yet, can be tokenized
+     * in parallel; otherwise, or if the source is too small to be worth splitting, it is tokenized sequentially.
+     * The result is the same as the one of {@link #tokenize()}.
+     *
+     * @param pool The pool on which the chunks of the source are tokenized.
+     * @return The buffer holding the tokens of the source code.
+     * @throws IOException If the source is too large, or if the tokenization has been interrupted.
+     */
+    public TokenBuffer tokenize(ForkJoinPool pool) throws IOException {
+        if (input != null || position != 0)
+            return tokenize();
+
+        return ParallelLexer.tokenize(fileName, buffer, limit, pool);
+    }
+
+    /**
+     * Scans the next token from the source code.
+     * <p>
+     * The token is recognized by running the {@link LexerAutomaton} over the bytes of the source: whitespace and
+     * comments are skipped by the same loop that recognizes the token, so that a long sequence of comments does not
+     * require any recursion. Runs of whitespace and comment bodies are skipped by the {@link ByteScanner}, several
+     * bytes at a time.
+     *
+     * @return The ordinal of the kind of the token; its payload, if any, is stored into {@link #payload}.
+     * @throws IOException If an invalid character is encountered.
+     */
+    int scan() throws IOException {
+        scanStart = base + position;
+
+        int state = LexerAutomaton.S_START;
+
+        while (true) {
+            int c;
+
+            if (position < limit || refill(state >= LexerAutomaton.S_UNDERSCORE ? tokenStart : position))
+                c = buffer[position] & 0xFF;
+            else
+                c = -1;
+
+            int transition = LexerAutomaton.TRANSITIONS[state * LexerAutomaton.CLASS_COUNT + LexerAutomaton.classOf(c)];
+            int argument = transition & 0xFF;
+
+            switch (transition >>> 8) {
+                case LexerAutomaton.A_MOVE:
+                    if (state == LexerAutomaton.S_START && argument != LexerAutomaton.S_START)
+                        tokenStart = position;
+
+                    position++;
+                    state = argument;
+                    break;
+
+                case LexerAutomaton.A_SKIP:
+                    state = argument;
+
+                    if (state == LexerAutomaton.S_START)
+                        position = ByteScanner.skipWhitespace(buffer, position + 1, limit);
+                    else if (state == LexerAutomaton.S_LINE_COMMENT)
+                        position = ByteScanner.indexOf(buffer, position + 1, limit, (byte) '\n');
+                    else
+                        position = ByteScanner.indexOf(buffer, position + 1, limit, (byte) '*');
+
+                    break;
+
+                case LexerAutomaton.A_END_COMMENT:
+                    position++;
+                    scanStart = base + position;
+                    state = LexerAutomaton.S_START;
+                    break;
+
+                case LexerAutomaton.A_END_LINE_COMMENT:
+                    scanStart = base + position;
+                    state = LexerAutomaton.S_START;
+                    break;
+
+                case LexerAutomaton.A_EMIT:
+                    position++;
+                    return argument;
+
+                case LexerAutomaton.A_EMIT_BEFORE:
+                    return argument;
+
+                case LexerAutomaton.A_END_IDENTIFIER:
+                    return identifier();
+
+                case LexerAutomaton.A_END_NUMBER:
+                    return number();
+
+                default:
+                    fail(argument);
+            }
         }
+    }
 
-        throwIOException("Invalid character: '" + current() + "'");
-        return null;
+    /**
+     * Gets the source offset from which the last token has been scanned.
+     *
+     * @return The source offset of the last scanned token.
+     */
+    long getScanStart() {
+        return this.scanStart;
+    }
+
+    /**
+     * Keeps the positions of the source offsets from the specified one, even once the lexer has read past them.
+     * By default, when the source is read through a fixed-size buffer, only the positions from the last read token
+     * can be requested, so that the lines that precede it are released from the line map.
+     *
+     * @param offset The first source offset whose position shall be kept.
+     */
+    void retainPositionsFrom(long offset) {
+        this.retained = offset;
+    }
+
+    /**
+     * Gets the payload of the last scanned token.
+     *
+     * @return The value of the last scanned token, if it is a number; its symbol id, if it is an identifier.
+     */
+    int getPayload() {
+        return this.payload;
+    }
+
+    /**
+     * Raises an error of the {@link LexerAutomaton}.
+     *
+     * @param error The error to be raised.
+     * @throws IOException Always.
+     */
+    private void fail(int error) throws IOException {
+        switch (error) {
+            case LexerAutomaton.E_INVALID_AFTER_AMPERSAND ->
+                    throwIOException("Invalid character after '&': '" + currentChar() + "'");
+            case LexerAutomaton.E_INVALID_AFTER_PIPE ->
+                    throwIOException("Invalid character after '|': '" + currentChar() + "'");
+            case LexerAutomaton.E_INVALID_AFTER_EQUAL ->
+                    throwIOException("Invalid character after '=': '" + currentChar() + "'");
+            case LexerAutomaton.E_UNTERMINATED_COMMENT ->
+                    throwIOException(base + tokenStart + 1, "Unterminated block comment");
+            case LexerAutomaton.E_INVALID_SUFFIX -> throwIOException("Invalid suffix to digit sequence");
+            case LexerAutomaton.E_UNDERSCORE_IDENTIFIER ->
+                    throwIOException(base + tokenStart, "An identifier cannot consist solely of the character '_'");
+            default -> throwIOException("Invalid character: '" + currentChar() + "'");
+        }
+    }
+
+    /**
+     * Computes the value of the number that has just been recognized, directly from its digits in the buffer.
+     *
+     * @return The ordinal of the {@link TokenKind#NUMBER} kind; the value of the number is stored into
+     * {@link #payload}.
+     * @throws IOException If the number is too large to be represented.
+     */
+    private int number() throws IOException {
+        int value = 0;
+
+        for (int i = tokenStart; i < position; i++) {
+            int digit = buffer[i] - '0';
+
+            if (value > (Integer.MAX_VALUE - digit) / 10)
+                throwIOException(base + tokenStart, "Number out of range: '"
+                        + new String(buffer, tokenStart, position - tokenStart, StandardCharsets.US_ASCII) + "'");
+
+            value = value * 10 + digit;
+        }
+
+        payload = value;
+        return TokenKind.NUMBER.ordinal();
+    }
+
+    /**
+     * Gets the kind of the identifier or the keyword that has just been recognized.
+     * Keywords are matched directly against the buffer, while identifiers are interned in the symbol pool, so that
+     * nothing is allocated for a lexeme that has already been encountered.
+     *
+     * @return The ordinal of the kind of the token; the symbol id of an identifier is stored into {@link #payload}.
+     */
+    private int identifier() {
+        int length = position - tokenStart;
+        int slot = LexerAutomaton.keywordSlot(buffer[tokenStart], length);
+        byte[] keyword = LexerAutomaton.KEYWORDS[slot];
+
+        if (keyword != null && Arrays.equals(keyword, 0, keyword.length, buffer, tokenStart, position))
+            return LexerAutomaton.KEYWORD_KINDS[slot].ordinal();
+
+        payload = symbols.intern(buffer, tokenStart, length);
+        return TokenKind.IDENTIFIER.ordinal();
     }
 
     /**
      * Throws an IO exception with extended info about a custom position in the source file and a custom message.
      *
      * @param message A message that describes the cause of the exception.
-     * @param line    The line number at which the exception is thrown.
-     * @param column  The column number at which the exception is thrown.
+     * @param offset  The source offset at which the exception is thrown.
      * @throws IOException Always.
      */
-    private void throwIOException(int line, int column, String message) throws IOException {
-        throw new IOException("<" + fileName + "[" + line + ":" + column + "]> " + message);
+    private void throwIOException(long offset, String message) throws IOException {
+        LineMap lines = lines();
+        throw new IOException("<" + fileName + "[" + lines.lineOf(offset) + ":" + lines.columnOf(offset) + "]> " + message);
     }
 
     /**
@@ -300,25 +520,43 @@ public final class Lexer {
      * @throws IOException Always.
      */
     private void throwIOException(String message) throws IOException {
-        throwIOException(line, column, message);
+        throwIOException(base + position, message);
+    }
+
+    /**
+     * Gets the map from the source offsets to line and column numbers, deferring the indexing of the buffer to it.
+     *
+     * @return The map from the source offsets to line and column numbers.
+     */
+    private LineMap lines() {
+        lines.defer(buffer, limit, base);
+        return lines;
     }
 
     /**
      * Gets the line number of the last read token.
+     * <p>
+     * Line numbers are not tracked while the source is consumed, but are computed on demand from the source offset
+     * of the token.
      *
      * @return The line number of the last read token.
      */
+    @Override
     public int getLastLine() {
-        return this.prevLine;
+        return lines().lineOf(scanStart);
     }
 
     /**
      * Gets the column number of the last read token.
+     * <p>
+     * Column numbers are not tracked while the source is consumed, but are computed on demand from the source offset
+     * of the token.
      *
      * @return The column number of the last read token.
      */
+    @Override
     public int getLastColumn() {
-        return this.prevColumn;
+        return lines().columnOf(scanStart);
     }
 
     /**
@@ -326,6 +564,7 @@ public final class Lexer {
      *
      * @return The name of the P source file.
      */
+    @Override
     public String getFileName() {
         return this.fileName;
     }
@@ -0,0 +1,440 @@
+package plang;
+
+import plang.tokens.TokenKind;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Defines the deterministic finite automaton that drives the {@link Lexer}.
+ * <p>
+ * Each input byte is first mapped to a character class through a 128-entry table (non-ASCII bytes always belong to
+ * the {@link #C_OTHER} class), and then the pair made of the current state and the character class selects a
+ * transition. A transition is encoded as an integer, whose high bits identify the action to be performed, and whose
+ * low byte is its argument (the next state, the kind of the token to be emitted, or the error to be raised).
+ */
+final class LexerAutomaton {
+    /**
+     * The class of the characters that cannot appear outside comments.
+     */
+    static final int C_OTHER = 0;
+    /**
+     * The class of the whitespace characters, except the new-line character.
+     */
+    static final int C_SPACE = 1;
+    /**
+     * The class of the new-line character.
+     */
+    static final int C_NEWLINE = 2;
+    /**
+     * The class of the ASCII letters.
+     */
+    static final int C_LETTER = 3;
+    /**
+     * The class of the ASCII digits.
+     */
+    static final int C_DIGIT = 4;
+    /**
+     * The class of the underscore character ({@code _}).
+     */
+    static final int C_UNDERSCORE = 5;
+    /**
+     * The class of the exclamation mark ({@code !}).
+     */
+    static final int C_EXCLAMATION = 6;
+    /**
+     * The class of the left parenthesis ({@code (}).
+     */
+    static final int C_LEFT_PARENTHESIS = 7;
+    /**
+     * The class of the right parenthesis ({@code )}).
+     */
+    static final int C_RIGHT_PARENTHESIS = 8;
+    /**
+     * The class of the left brace (<code>{</code>).
+     */
+    static final int C_LEFT_BRACE = 9;
+    /**
+     * The class of the right brace (<code>}</code>).
+     */
+    static final int C_RIGHT_BRACE = 10;
+    /**
+     * The class of the plus sign ({@code +}).
+     */
+    static final int C_PLUS = 11;
+    /**
+     * The class of the minus sign ({@code -}).
+     */
+    static final int C_MINUS = 12;
+    /**
+     * The class of the asterisk ({@code *}).
+     */
+    static final int C_ASTERISK = 13;
+    /**
+     * The class of the slash ({@code /}).
+     */
+    static final int C_SLASH = 14;
+    /**
+     * The class of the semicolon ({@code ;}).
+     */
+    static final int C_SEMICOLON = 15;
+    /**
+     * The class of the comma ({@code ,}).
+     */
+    static final int C_COMMA = 16;
+    /**
+     * The class of the ampersand ({@code &}).
+     */
+    static final int C_AMPERSAND = 17;
+    /**
+     * The class of the vertical bar ({@code |}).
+     */
+    static final int C_PIPE = 18;
+    /**
+     * The class of the equal sign ({@code =}).
+     */
+    static final int C_EQUAL = 19;
+    /**
+     * The class of the less than sign ({@code <}).
+     */
+    static final int C_LESS = 20;
+    /**
+     * The class of the greater than sign ({@code >}).
+     */
+    static final int C_GREATER = 21;
+    /**
+     * The class of the end of the source.
+     */
+    static final int C_END = 22;
+    /**
+     * The number of character classes.
+     */
+    static final int CLASS_COUNT = 23;
+
+    /**
+     * The initial state, in which whitespace is skipped until the beginning of a token.
+     */
+    static final int S_START = 0;
+    /**
+     * The state after a slash, which can start a comment.
+     */
+    static final int S_SLASH = 1;
+    /**
+     * The state inside an end-of-line comment.
+     */
+    static final int S_LINE_COMMENT = 2;
+    /**
+     * The state inside a block comment.
+     */
+    static final int S_BLOCK_COMMENT = 3;
+    /**
+     * The state inside a block comment, after an asterisk.
+     */
+    static final int S_BLOCK_COMMENT_ASTERISK = 4;
+    /**
+     * The state after an ampersand.
+     */
+    static final int S_AMPERSAND = 5;
+    /**
+     * The state after a vertical bar.
+     */
+    static final int S_PIPE = 6;
+    /**
+     * The state after an equal sign.
+     */
+    static final int S_EQUAL = 7;
+    /**
+     * The state after a less than sign.
+     */
+    static final int S_LESS = 8;
+    /**
+     * The state after a greater than sign.
+     */
+    static final int S_GREATER = 9;
+    /**
+     * The state inside an identifier that, so far, consists solely of underscores.
+     * This state, {@link #S_IDENTIFIER} and {@link #S_NUMBER} must be the last ones, since they are the only states
+     * whose lexeme is sliced from the buffer.
+     */
+    static final int S_UNDERSCORE = 10;
+    /**
+     * The state inside an identifier or a keyword.
+     */
+    static final int S_IDENTIFIER = 11;
+    /**
+     * The state inside a number.
+     */
+    static final int S_NUMBER = 12;
+    /**
+     * The number of states.
+     */
+    static final int STATE_COUNT = 13;
+
+    /**
+     * The action that consumes the current character and moves to the state specified by the argument.
+     */
+    static final int A_MOVE = 0;
+    /**
+     * The action that consumes the current character, moves to the state specified by the argument, and then
+     * skips the following characters that do not leave that state (i.e., whitespace in the initial state, or the
+     * body of a comment) through the fast paths of the {@link ByteScanner}.
+     */
+    static final int A_SKIP = 1;
+    /**
+     * The action that consumes the current character, which ends a block comment, and moves to the initial state.
+     */
+    static final int A_END_COMMENT = 2;
+    /**
+     * The action that ends an end-of-line comment, without consuming the current character, and moves to the
+     * initial state.
+     */
+    static final int A_END_LINE_COMMENT = 3;
+    /**
+     * The action that consumes the current character and emits a token of the kind specified by the argument.
+     */
+    static final int A_EMIT = 4;
+    /**
+     * The action that emits a token of the kind specified by the argument, without consuming the current character.
+     */
+    static final int A_EMIT_BEFORE = 5;
+    /**
+     * The action that ends an identifier or a keyword, without consuming the current character.
+     */
+    static final int A_END_IDENTIFIER = 6;
+    /**
+     * The action that ends a number, without consuming the current character.
+     */
+    static final int A_END_NUMBER = 7;
+    /**
+     * The action that raises the error specified by the argument.
+     */
+    static final int A_ERROR = 8;
+
+    /**
+     * The error raised when an invalid character is found.
+     */
+    static final int E_INVALID_CHARACTER = 0;
+    /**
+     * The error raised when an ampersand is not followed by another ampersand.
+     */
+    static final int E_INVALID_AFTER_AMPERSAND = 1;
+    /**
+     * The error raised when a vertical bar is not followed by another vertical bar.
+     */
+    static final int E_INVALID_AFTER_PIPE = 2;
+    /**
+     * The error raised when an equal sign is not followed by another equal sign.
+     */
+    static final int E_INVALID_AFTER_EQUAL = 3;
+    /**
+     * The error raised when the source ends inside a block comment.
+     */
+    static final int E_UNTERMINATED_COMMENT = 4;
+    /**
+     * The error raised when a number is immediately followed by a letter or an underscore.
+     */
+    static final int E_INVALID_SUFFIX = 5;
+    /**
+     * The error raised when an identifier consists solely of underscores.
+     */
+    static final int E_UNDERSCORE_IDENTIFIER = 6;
+
+    /**
+     * The character class of each ASCII character.
+     */
+    static final byte[] CLASSES = new byte[128];
+    /**
+     * The transitions of the automaton, indexed by {@code state * CLASS_COUNT + characterClass}.
+     */
+    static final int[] TRANSITIONS = new int[STATE_COUNT * CLASS_COUNT];
+    /**
+     * The lexemes of the keywords, indexed by {@link #keywordSlot(int, int)}, encoded in ASCII
+     */
+    static final byte[][] KEYWORDS = new byte[16][];
+    /**
+     * The kinds of the keywords, indexed by {@link #keywordSlot(int, int)}
+     */
+    static final TokenKind[] KEYWORD_KINDS = new TokenKind[16];
+
+    static {
+        for (int c = 'a'; c <= 'z'; c++)
+            CLASSES[c] = C_LETTER;
+        for (int c = 'A'; c <= 'Z'; c++)
+            CLASSES[c] = C_LETTER;
+        for (int c = '0'; c <= '9'; c++)
+            CLASSES[c] = C_DIGIT;
+
+        CLASSES[' '] = C_SPACE;
+        CLASSES['\t'] = C_SPACE;
+        CLASSES['\r'] = C_SPACE;
+        CLASSES['\n'] = C_NEWLINE;
+        CLASSES['_'] = C_UNDERSCORE;
+        CLASSES['!'] = C_EXCLAMATION;
+        CLASSES['('] = C_LEFT_PARENTHESIS;
+        CLASSES[')'] = C_RIGHT_PARENTHESIS;
+        CLASSES['{'] = C_LEFT_BRACE;
+        CLASSES['}'] = C_RIGHT_BRACE;
+        CLASSES['+'] = C_PLUS;
+        CLASSES['-'] = C_MINUS;
+        CLASSES['*'] = C_ASTERISK;
+        CLASSES['/'] = C_SLASH;
+        CLASSES[';'] = C_SEMICOLON;
+        CLASSES[','] = C_COMMA;
+        CLASSES['&'] = C_AMPERSAND;
+        CLASSES['|'] = C_PIPE;
+        CLASSES['='] = C_EQUAL;
+        CLASSES['<'] = C_LESS;
+        CLASSES['>'] = C_GREATER;
+
+        set(S_START, C_OTHER, A_ERROR, E_INVALID_CHARACTER);
+        set(S_START, C_SPACE, A_SKIP, S_START);
+        set(S_START, C_NEWLINE, A_SKIP, S_START);
+        set(S_START, C_LETTER, A_MOVE, S_IDENTIFIER);
+        set(S_START, C_DIGIT, A_MOVE, S_NUMBER);
+        set(S_START, C_UNDERSCORE, A_MOVE, S_UNDERSCORE);
+        set(S_START, C_EXCLAMATION, A_EMIT, TokenKind.LOGICAL_NOT.ordinal());
+        set(S_START, C_LEFT_PARENTHESIS, A_EMIT, TokenKind.LEFT_PARENTHESIS.ordinal());
+        set(S_START, C_RIGHT_PARENTHESIS, A_EMIT, TokenKind.RIGHT_PARENTHESIS.ordinal());
+        set(S_START, C_LEFT_BRACE, A_EMIT, TokenKind.LEFT_BRACE.ordinal());
+        set(S_START, C_RIGHT_BRACE, A_EMIT, TokenKind.RIGHT_BRACE.ordinal());
+        set(S_START, C_PLUS, A_EMIT, TokenKind.PLUS.ordinal());
+        set(S_START, C_MINUS, A_EMIT, TokenKind.MINUS.ordinal());
+        set(S_START, C_ASTERISK, A_EMIT, TokenKind.ASTERISK.ordinal());
+        set(S_START, C_SLASH, A_MOVE, S_SLASH);
+        set(S_START, C_SEMICOLON, A_EMIT, TokenKind.SEMICOLON.ordinal());
+        set(S_START, C_COMMA, A_EMIT, TokenKind.COMMA.ordinal());
+        set(S_START, C_AMPERSAND, A_MOVE, S_AMPERSAND);
+        set(S_START, C_PIPE, A_MOVE, S_PIPE);
+        set(S_START, C_EQUAL, A_MOVE, S_EQUAL);
+        set(S_START, C_LESS, A_MOVE, S_LESS);
+        set(S_START, C_GREATER, A_MOVE, S_GREATER);
+        set(S_START, C_END, A_EMIT_BEFORE, TokenKind.END_OF_FILE.ordinal());
+
+        setAll(S_SLASH, A_EMIT_BEFORE, TokenKind.SLASH.ordinal());
+        set(S_SLASH, C_SLASH, A_MOVE, S_LINE_COMMENT);
+        set(S_SLASH, C_ASTERISK, A_MOVE, S_BLOCK_COMMENT);
+
+        setAll(S_LINE_COMMENT, A_SKIP, S_LINE_COMMENT);
+        set(S_LINE_COMMENT, C_NEWLINE, A_END_LINE_COMMENT, S_START);
+        set(S_LINE_COMMENT, C_END, A_END_LINE_COMMENT, S_START);
+
+        setAll(S_BLOCK_COMMENT, A_SKIP, S_BLOCK_COMMENT);
+        set(S_BLOCK_COMMENT, C_ASTERISK, A_MOVE, S_BLOCK_COMMENT_ASTERISK);
+        set(S_BLOCK_COMMENT, C_END, A_ERROR, E_UNTERMINATED_COMMENT);
+
+        setAll(S_BLOCK_COMMENT_ASTERISK, A_SKIP, S_BLOCK_COMMENT);
+        set(S_BLOCK_COMMENT_ASTERISK, C_ASTERISK, A_MOVE, S_BLOCK_COMMENT_ASTERISK);
+        set(S_BLOCK_COMMENT_ASTERISK, C_SLASH, A_END_COMMENT, S_START);
+        set(S_BLOCK_COMMENT_ASTERISK, C_END, A_ERROR, E_UNTERMINATED_COMMENT);
+
+        setAll(S_AMPERSAND, A_ERROR, E_INVALID_AFTER_AMPERSAND);
+        set(S_AMPERSAND, C_AMPERSAND, A_EMIT, TokenKind.LOGICAL_AND.ordinal());
+
+        setAll(S_PIPE, A_ERROR, E_INVALID_AFTER_PIPE);
+        set(S_PIPE, C_PIPE, A_EMIT, TokenKind.LOGICAL_OR.ordinal());
+
+        setAll(S_EQUAL, A_ERROR, E_INVALID_AFTER_EQUAL);
+        set(S_EQUAL, C_EQUAL, A_EMIT, TokenKind.EQUALITY.ordinal());
+
+        setAll(S_LESS, A_EMIT_BEFORE, TokenKind.LESS_THAN.ordinal());
+        set(S_LESS, C_GREATER, A_EMIT, TokenKind.INEQUALITY.ordinal());
+        set(S_LESS, C_EQUAL, A_EMIT, TokenKind.LESS_THAN_EQUAL.ordinal());
+
+        setAll(S_GREATER, A_EMIT_BEFORE, TokenKind.GREATER_THAN.ordinal());
+        set(S_GREATER, C_EQUAL, A_EMIT, TokenKind.GREATER_THAN_EQUAL.ordinal());
+
+        setAll(S_UNDERSCORE, A_ERROR, E_UNDERSCORE_IDENTIFIER);
+        set(S_UNDERSCORE, C_LETTER, A_MOVE, S_IDENTIFIER);
+        set(S_UNDERSCORE, C_DIGIT, A_MOVE, S_IDENTIFIER);
+        set(S_UNDERSCORE, C_UNDERSCORE, A_MOVE, S_UNDERSCORE);
+
+        setAll(S_IDENTIFIER, A_END_IDENTIFIER, 0);
+        set(S_IDENTIFIER, C_LETTER, A_MOVE, S_IDENTIFIER);
+        set(S_IDENTIFIER, C_DIGIT, A_MOVE, S_IDENTIFIER);
+        set(S_IDENTIFIER, C_UNDERSCORE, A_MOVE, S_IDENTIFIER);
+
+        setAll(S_NUMBER, A_END_NUMBER, 0);
+        set(S_NUMBER, C_DIGIT, A_MOVE, S_NUMBER);
+        set(S_NUMBER, C_LETTER, A_ERROR, E_INVALID_SUFFIX);
+        set(S_NUMBER, C_UNDERSCORE, A_ERROR, E_INVALID_SUFFIX);
+
+        keyword("assign", TokenKind.KWD_ASSIGN);
+        keyword("to", TokenKind.KWD_TO);
+        keyword("if", TokenKind.KWD_IF);
+        keyword("else", TokenKind.KWD_ELSE);
+        keyword("while", TokenKind.KWD_WHILE);
+        keyword("end", TokenKind.KWD_END);
+        keyword("print", TokenKind.KWD_PRINT);
+        keyword("read", TokenKind.KWD_READ);
+    }
+
+    private LexerAutomaton() {
+    }
+
+    /**
+     * Gets the class of the specified character.
+     *
+     * @param c The character, or {@code -1} for the end of the source.
+     * @return The class of the character.
+     */
+    static int classOf(int c) {
+        if (c < 0)
+            return C_END;
+
+        return c < 0x80 ? CLASSES[c] : C_OTHER;
+    }
+
+    /**
+     * Gets the slot of the keyword that could match a lexeme.
+     * <p>
+     * The slot is a perfect hash of the length and the first character of the keywords, so that a lexeme can match
+     * at most the keyword in its slot.
+     *
+     * @param first  The first character of the lexeme.
+     * @param length The length of the lexeme.
+     * @return The slot of the keyword that could match the lexeme.
+     */
+    static int keywordSlot(int first, int length) {
+        return (first + (length << 3)) & 15;
+    }
+
+    /**
+     * Registers a keyword.
+     *
+     * @param lexeme The lexeme of the keyword.
+     * @param kind   The kind of the keyword.
+     * @throws IllegalStateException If the slot of the keyword is already taken.
+     */
+    private static void keyword(String lexeme, TokenKind kind) {
+        int slot = keywordSlot(lexeme.charAt(0), lexeme.length());
+
+        if (KEYWORDS[slot] != null)
+            throw new IllegalStateException("The keyword '" + lexeme + "' collides with another keyword");
+
+        KEYWORDS[slot] = lexeme.getBytes(StandardCharsets.US_ASCII);
+        KEYWORD_KINDS[slot] = kind;
+    }
+
+    /**
+     * Sets the transition from a state for a character class.
+     *
+     * @param state          The state.
+     * @param characterClass The character class.
+     * @param action         The action to be performed.
+     * @param argument       The argument of the action.
+     */
+    private static void set(int state, int characterClass, int action, int argument) {
+        TRANSITIONS[state * CLASS_COUNT + characterClass] = (action << 8) | argument;
+    }
+
+    /**
+     * Sets the transition from a state for every character class.
+     *
+     * @param state    The state.
+     * @param action   The action to be performed.
+     * @param argument The argument of the action.
+     */
+    private static void setAll(int state, int action, int argument) {
+        for (int characterClass = 0; characterClass < CLASS_COUNT; characterClass++)
+            set(state, characterClass, action, argument);
+    }
+}
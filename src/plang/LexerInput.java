@@ -0,0 +1,19 @@
+package plang;
+
+import java.io.IOException;
+
+/**
+ * Represents an input from which a {@link Lexer} reads the bytes of a P source file.
+ */
+interface LexerInput {
+    /**
+     * Reads the next bytes of the source into the specified array.
+     *
+     * @param destination The array into which the bytes are read.
+     * @param offset      The offset into the array of the first byte to be read.
+     * @param length      The maximum number of bytes to be read.
+     * @return The number of bytes read, or {@code -1} if the end of the source has been reached.
+     * @throws IOException If an I/O error occurs reading from the input.
+     */
+    int read(byte[] destination, int offset, int length) throws IOException;
+}
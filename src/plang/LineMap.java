@@ -0,0 +1,212 @@
+package plang;
+
+import java.util.Arrays;
+
+/**
+ * Maps the byte offsets of a P source to line and column numbers.
+ * <p>
+ * The map holds the offsets at which each line starts, and the offsets of the non-ASCII bytes whose width in columns
+ * is not one (columns are counted in UTF-16 characters, so that UTF-8 continuation bytes are not counted, and the
+ * leading byte of a four-bytes sequence counts as two columns). Both tables are searched by binary search.
+ * <p>
+ * The tables are built from the bytes of the source, which are indexed in order of offset: bytes can be indexed
+ * immediately (e.g., before they are discarded by the lexer), or deferred, so that they are indexed only when a
+ * position that follows them is requested.
+ * <p>
+ * When the positions of the offsets that precede a given one are no longer requested, the lines that end before it can
+ * be released: only their number and the sum of their adjustments are kept, so that the size of the tables depends
+ * on the lines still in use rather than on the size of the source.
+ */
+final class LineMap {
+    /**
+     * The offsets at which each line of the table starts (the first line starts at offset {@code 0}, unless it has been
+     * released)
+     */
+    private long[] lineStarts = new long[64];
+    /**
+     * The number of lines in the table
+     */
+    private int lineCount = 1;
+    /**
+     * The number of lines that have been released from the table
+     */
+    private int releasedLines;
+    /**
+     * The offsets of the bytes whose width in columns is not one
+     */
+    private long[] adjustments = new long[16];
+    /**
+     * The sum of the widths in columns, minus one, of the bytes up to each adjustment (included)
+     */
+    private int[] adjustmentSums = new int[16];
+    /**
+     * The number of adjustments
+     */
+    private int adjustmentCount;
+    /**
+     * The sum of the widths in columns, minus one, of the bytes of the adjustments that have been released
+     */
+    private int releasedAdjustmentSum;
+    /**
+     * The offset up to which the source has been indexed
+     */
+    private long indexed;
+    /**
+     * The bytes whose indexing has been deferred, or {@code null} if there are none
+     */
+    private byte[] pending;
+    /**
+     * The number of valid bytes whose indexing has been deferred
+     */
+    private int pendingLimit;
+    /**
+     * The source offset of the first byte whose indexing has been deferred
+     */
+    private long pendingBase;
+
+    /**
+     * Indexes the specified bytes of the source.
+     * The bytes that have already been indexed are skipped.
+     *
+     * @param bytes The bytes of the source.
+     * @param limit The number of valid bytes.
+     * @param base  The source offset of the first byte.
+     */
+    void index(byte[] bytes, int limit, long base) {
+        pending = null;
+
+        for (int i = (int) Math.max(indexed - base, 0); i < limit; i++) {
+            int c = bytes[i];
+
+            if (c == '\n')
+                addLine(base + i + 1);
+            else if (c < 0) {
+                int width = (c & 0xC0) == 0x80 ? 0 : (c & 0xF8) == 0xF0 ? 2 : 1;
+
+                if (width != 1)
+                    addAdjustment(base + i, width);
+            }
+        }
+
+        indexed = Math.max(indexed, base + limit);
+    }
+
+    /**
+     * Defers the indexing of the specified bytes of the source, until a position that follows them is requested.
+     * The bytes shall not be modified until they are indexed.
+     *
+     * @param bytes The bytes of the source.
+     * @param limit The number of valid bytes.
+     * @param base  The source offset of the first byte.
+     */
+    void defer(byte[] bytes, int limit, long base) {
+        if (base + limit <= indexed)
+            return;
+
+        pending = bytes;
+        pendingLimit = limit;
+        pendingBase = base;
+    }
+
+    /**
+     * Releases the lines that end before the specified offset, so that the positions of the offsets that precede it
+     * can no longer be requested. The bytes up to the offset shall have already been indexed.
+     *
+     * @param offset The first offset whose position can still be requested.
+     */
+    void release(long offset) {
+        int line = lineIndex(offset);
+
+        if (line > 0) {
+            System.arraycopy(lineStarts, line, lineStarts, 0, lineCount - line);
+            lineCount -= line;
+            releasedLines += line;
+        }
+
+        int index = Arrays.binarySearch(adjustments, 0, adjustmentCount, lineStarts[0]);
+        int count = index >= 0 ? index : -index - 1;
+
+        if (count > 0) {
+            releasedAdjustmentSum = adjustmentSums[count - 1];
+            System.arraycopy(adjustments, count, adjustments, 0, adjustmentCount - count);
+            System.arraycopy(adjustmentSums, count, adjustmentSums, 0, adjustmentCount - count);
+            adjustmentCount -= count;
+        }
+    }
+
+    /**
+     * Gets the line number of the specified offset.
+     *
+     * @param offset The offset, which shall not precede the lines that have been released.
+     * @return The line number of the offset.
+     */
+    int lineOf(long offset) {
+        return releasedLines + lineIndex(offset) + 1;
+    }
+
+    /**
+     * Gets the column number of the specified offset.
+     *
+     * @param offset The offset, which shall not precede the lines that have been released.
+     * @return The column number of the offset.
+     */
+    int columnOf(long offset) {
+        long lineStart = lineStarts[lineIndex(offset)];
+        return (int) (offset - lineStart) + 1 + adjustmentSum(offset) - adjustmentSum(lineStart);
+    }
+
+    /**
+     * Gets the index into the table of the line of the specified offset, indexing the deferred bytes if needed.
+     *
+     * @param offset The offset, which shall not precede the lines that have been released.
+     * @return The index of the line of the offset.
+     */
+    private int lineIndex(long offset) {
+        if (offset > indexed && pending != null)
+            index(pending, pendingLimit, pendingBase);
+
+        int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Records the start of a new line.
+     *
+     * @param offset The offset at which the line starts (i.e., the offset after a new-line character).
+     */
+    private void addLine(long offset) {
+        if (lineCount == lineStarts.length)
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+
+        lineStarts[lineCount++] = offset;
+    }
+
+    /**
+     * Records a byte whose width in columns is not one.
+     *
+     * @param offset The offset of the byte.
+     * @param width  The width of the byte in columns.
+     */
+    private void addAdjustment(long offset, int width) {
+        if (adjustmentCount == adjustments.length) {
+            adjustments = Arrays.copyOf(adjustments, adjustmentCount * 2);
+            adjustmentSums = Arrays.copyOf(adjustmentSums, adjustmentCount * 2);
+        }
+
+        int sum = adjustmentCount == 0 ? releasedAdjustmentSum : adjustmentSums[adjustmentCount - 1];
+        adjustments[adjustmentCount] = offset;
+        adjustmentSums[adjustmentCount++] = sum + width - 1;
+    }
+
+    /**
+     * Gets the sum of the widths in columns, minus one, of the bytes that precede the specified offset.
+     *
+     * @param offset The offset.
+     * @return The sum of the widths of the bytes that precede the offset, minus their number.
+     */
+    private int adjustmentSum(long offset) {
+        int index = Arrays.binarySearch(adjustments, 0, adjustmentCount, offset);
+        int count = index >= 0 ? index : -index - 1;
+        return count == 0 ? releasedAdjustmentSum : adjustmentSums[count - 1];
+    }
+}
@@ -0,0 +1,63 @@
+package plang;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implements a {@link LexerInput} that reads a memory-mapped source file.
+ * <p>
+ * Since a single mapping cannot exceed 2 GiB, the file is mapped as a sequence of segments.
+ */
+final class MappedLexerInput implements LexerInput {
+    /**
+     * The size of a mapped segment
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+    /**
+     * The mapped segments of the file
+     */
+    private final MappedByteBuffer[] segments;
+    /**
+     * The size of the file
+     */
+    private final long size;
+    /**
+     * The position of the next byte to be read
+     */
+    private long position;
+
+    /**
+     * Initializes a new {@link MappedLexerInput} for the specified file.
+     *
+     * @param path The path of the file to be mapped.
+     * @throws IOException If an I/O error occurs mapping the file.
+     */
+    MappedLexerInput(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.size = channel.size();
+            this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        }
+    }
+
+    @Override
+    public int read(byte[] destination, int offset, int length) {
+        if (position >= size)
+            return -1;
+
+        MappedByteBuffer segment = segments[(int) (position / SEGMENT_SIZE)];
+        int segmentPosition = (int) (position % SEGMENT_SIZE);
+        int count = Math.min(length, segment.limit() - segmentPosition);
+
+        segment.get(segmentPosition, destination, offset, count);
+        position += count;
+        return count;
+    }
+}
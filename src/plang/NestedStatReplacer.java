@@ -0,0 +1,182 @@
+package plang;
+
+import plang.ast.*;
+
+/**
+ * Implements a visitor that creates a copy of a {@code <stat>} node in which one of its nested statements is replaced,
+ * which is used by an {@link IncrementalParser} to splice a statement that has been parsed again into the AST.
+ * <p>
+ * The nested statements of a node are numbered by their slot, as in a {@link StatementIndex}: the statements of the
+ * {@code <statlist>} of a block statement, the statement of a while statement, and the statement (slot {@code 0}) and
+ * else statement (slot {@code 1}) of an if statement. Visiting any other node throws an
+ * {@link IllegalStateException}, as it has no nested statement.
+ */
+final class NestedStatReplacer implements AstVisitor<StatAstNode> {
+    /**
+     * The slot of the replaced nested statement
+     */
+    private final int slot;
+    /**
+     * The new node of the nested statement
+     */
+    private final StatAstNode stat;
+
+    /**
+     * Initializes a new {@link NestedStatReplacer}.
+     *
+     * @param slot The slot of the replaced nested statement.
+     * @param stat The new node of the nested statement.
+     */
+    NestedStatReplacer(int slot, StatAstNode stat) {
+        this.slot = slot;
+        this.stat = stat;
+    }
+
+    /**
+     * Rejects a node that has no nested statement.
+     *
+     * @param node The node.
+     * @return Never returns.
+     * @throws IllegalStateException Always.
+     */
+    private static StatAstNode reject(AstNode node) {
+        throw new IllegalStateException("Invalid parent of a statement: " + node.getType());
+    }
+
+    @Override
+    public StatAstNode visitProg(ProgAstNode prog) {
+        return reject(prog);
+    }
+
+    @Override
+    public StatAstNode visitStatList(StatListAstNode statList) {
+        return reject(statList);
+    }
+
+    @Override
+    public StatAstNode visitAssignStat(AssignStatAstNode assignStat) {
+        return reject(assignStat);
+    }
+
+    @Override
+    public StatAstNode visitPrintStat(PrintStatAstNode printStat) {
+        return reject(printStat);
+    }
+
+    @Override
+    public StatAstNode visitReadStat(ReadStatAstNode readStat) {
+        return reject(readStat);
+    }
+
+    @Override
+    public StatAstNode visitWhileStat(WhileStatAstNode whileStat) {
+        return new WhileStatAstNode(whileStat.getBoolExpr(), stat);
+    }
+
+    @Override
+    public StatAstNode visitIfStat(IfStatAstNode ifStat) {
+        return slot == 0
+                ? new IfStatAstNode(ifStat.getBoolExpr(), stat, ifStat.getIfEx())
+                : new IfStatAstNode(ifStat.getBoolExpr(), ifStat.getStat(), new ElseIfExAstNode(stat));
+    }
+
+    @Override
+    public StatAstNode visitBlockStat(BlockStatAstNode blockStat) {
+        return new BlockStatAstNode(blockStat.getStatList().replace(slot, stat));
+    }
+
+    @Override
+    public StatAstNode visitEndIfEx(EndIfExAstNode endIfEx) {
+        return reject(endIfEx);
+    }
+
+    @Override
+    public StatAstNode visitElseIfEx(ElseIfExAstNode elseIfEx) {
+        return reject(elseIfEx);
+    }
+
+    @Override
+    public StatAstNode visitIdList(IdListAstNode idList) {
+        return reject(idList);
+    }
+
+    @Override
+    public StatAstNode visitEqBoolExpr(EqBoolExprAstNode eqBoolExpr) {
+        return reject(eqBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitNeBoolExpr(NeBoolExprAstNode neBoolExpr) {
+        return reject(neBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitLtBoolExpr(LtBoolExprAstNode ltBoolExpr) {
+        return reject(ltBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitLeBoolExpr(LeBoolExprAstNode leBoolExpr) {
+        return reject(leBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitGtBoolExpr(GtBoolExprAstNode gtBoolExpr) {
+        return reject(gtBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitGeBoolExpr(GeBoolExprAstNode geBoolExpr) {
+        return reject(geBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitAndBoolExpr(AndBoolExprAstNode andBoolExpr) {
+        return reject(andBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitOrBoolExpr(OrBoolExprAstNode orBoolExpr) {
+        return reject(orBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitNotBoolExpr(NotBoolExprAstNode notBoolExpr) {
+        return reject(notBoolExpr);
+    }
+
+    @Override
+    public StatAstNode visitAddExpr(AddExprAstNode addExpr) {
+        return reject(addExpr);
+    }
+
+    @Override
+    public StatAstNode visitSubExpr(SubExprAstNode subExpr) {
+        return reject(subExpr);
+    }
+
+    @Override
+    public StatAstNode visitMulExpr(MulExprAstNode mulExpr) {
+        return reject(mulExpr);
+    }
+
+    @Override
+    public StatAstNode visitDivExpr(DivExprAstNode divExpr) {
+        return reject(divExpr);
+    }
+
+    @Override
+    public StatAstNode visitNumberExpr(NumberExprAstNode numberExpr) {
+        return reject(numberExpr);
+    }
+
+    @Override
+    public StatAstNode visitIdentifierExpr(IdentifierExprAstNode identifierExpr) {
+        return reject(identifierExpr);
+    }
+
+    @Override
+    public StatAstNode visitExprList(ExprListAstNode exprList) {
+        return reject(exprList);
+    }
+}
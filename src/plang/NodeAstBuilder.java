@@ -0,0 +1,202 @@
+package plang;
+
+import plang.ast.*;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+import java.util.Arrays;
+
+/**
+ * Implements the builder of an AST made of {@link AstNode}s.
+ */
+final class NodeAstBuilder implements AstBuilder<AstNode> {
+    /**
+     * The stack of the nodes (and of the identifiers of the {@code <idlist>}s) that have not yet been attached to
+     * their parent node
+     */
+    private Object[] nodes = new Object[64];
+    /**
+     * The number of nodes on the stack
+     */
+    private int nodeCount;
+    /**
+     * The pool into which the expression nodes are hash-consed, or {@code null} if they are not
+     */
+    private final ExprPool exprPool;
+
+    /**
+     * Initializes a new {@link NodeAstBuilder}, which builds a tree.
+     */
+    NodeAstBuilder() {
+        this(null);
+    }
+
+    /**
+     * Initializes a new {@link NodeAstBuilder}.
+     *
+     * @param exprPool The pool into which the {@code <expr>}, {@code <exprlist>} and {@code <boolexpr>} nodes are
+     *                 hash-consed, so that the identical subexpressions are shared, or {@code null} if they are not.
+     */
+    NodeAstBuilder(ExprPool exprPool) {
+        this.exprPool = exprPool;
+    }
+
+    @Override
+    public void reset() {
+        popNodes(0);
+    }
+
+    @Override
+    public int size() {
+        return this.nodeCount;
+    }
+
+    @Override
+    public void pushNumber(NumberToken number) {
+        pushNode(intern(new NumberExprAstNode(number)));
+    }
+
+    @Override
+    public void pushIdentifier(IdentifierToken identifier) {
+        pushNode(intern(new IdentifierExprAstNode(identifier)));
+    }
+
+    @Override
+    public void pushListIdentifier(IdentifierToken identifier) {
+        pushNode(identifier);
+    }
+
+    @Override
+    public void pushEndIf() {
+        pushNode(new EndIfExAstNode());
+    }
+
+    @Override
+    public void reduce(TokenKind kind) {
+        AstNode node = switch (kind) {
+            case END_OF_FILE -> new ProgAstNode((StatListAstNode) popNode());
+            case KWD_ASSIGN -> {
+                IdListAstNode idList = (IdListAstNode) popNode();
+                yield new AssignStatAstNode((ExprAstNode) popNode(), idList);
+            }
+            case KWD_PRINT -> new PrintStatAstNode((ExprListAstNode) popNode());
+            case KWD_READ -> new ReadStatAstNode((IdListAstNode) popNode());
+            case KWD_WHILE -> {
+                StatAstNode stat = (StatAstNode) popNode();
+                yield new WhileStatAstNode((BoolExprAstNode) popNode(), stat);
+            }
+            case KWD_IF -> {
+                IfExAstNode ifEx = (IfExAstNode) popNode();
+                StatAstNode stat = (StatAstNode) popNode();
+                yield new IfStatAstNode((BoolExprAstNode) popNode(), stat, ifEx);
+            }
+            case KWD_ELSE -> new ElseIfExAstNode((StatAstNode) popNode());
+            case LEFT_BRACE -> new BlockStatAstNode((StatListAstNode) popNode());
+            case LOGICAL_NOT -> new NotBoolExprAstNode((BoolExprAstNode) popNode());
+            case LOGICAL_AND, LOGICAL_OR -> {
+                BoolExprAstNode boolExpr2 = (BoolExprAstNode) popNode();
+                BoolExprAstNode boolExpr1 = (BoolExprAstNode) popNode();
+                yield kind == TokenKind.LOGICAL_AND
+                        ? new AndBoolExprAstNode(boolExpr1, boolExpr2)
+                        : new OrBoolExprAstNode(boolExpr1, boolExpr2);
+            }
+            case EQUALITY, INEQUALITY, LESS_THAN, GREATER_THAN, LESS_THAN_EQUAL, GREATER_THAN_EQUAL -> {
+                ExprAstNode expr2 = (ExprAstNode) popNode();
+                ExprAstNode expr1 = (ExprAstNode) popNode();
+                yield switch (kind) {
+                    case EQUALITY -> new EqBoolExprAstNode(expr1, expr2);
+                    case INEQUALITY -> new NeBoolExprAstNode(expr1, expr2);
+                    case LESS_THAN -> new LtBoolExprAstNode(expr1, expr2);
+                    case GREATER_THAN -> new GtBoolExprAstNode(expr1, expr2);
+                    case LESS_THAN_EQUAL -> new LeBoolExprAstNode(expr1, expr2);
+                    default -> new GeBoolExprAstNode(expr1, expr2);
+                };
+            }
+            case PLUS -> new AddExprAstNode((ExprListAstNode) popNode());
+            case ASTERISK -> new MulExprAstNode((ExprListAstNode) popNode());
+            case MINUS, SLASH -> {
+                ExprAstNode expr2 = (ExprAstNode) popNode();
+                ExprAstNode expr1 = (ExprAstNode) popNode();
+                yield kind == TokenKind.MINUS ? new SubExprAstNode(expr1, expr2) : new DivExprAstNode(expr1, expr2);
+            }
+            default -> throw new IllegalStateException("Invalid production: " + kind);
+        };
+
+        pushNode(node.getType() == AstNodeType.EXPR || node.getType() == AstNodeType.BOOL_EXPR ? intern(node) : node);
+    }
+
+    @Override
+    public void reduceList(AstNodeType type, int count) {
+        int from = nodeCount - count;
+
+        AstNode list = switch (type) {
+            case STAT_LIST -> new StatListAstNode(Arrays.copyOfRange(nodes, from, nodeCount, StatAstNode[].class));
+            case ID_LIST -> new IdListAstNode(Arrays.copyOfRange(nodes, from, nodeCount, IdentifierToken[].class));
+            case EXPR_LIST ->
+                    intern(new ExprListAstNode(Arrays.copyOfRange(nodes, from, nodeCount, ExprAstNode[].class)));
+            default -> throw new IllegalStateException("Invalid list: " + type);
+        };
+
+        popNodes(from);
+        pushNode(list);
+    }
+
+    @Override
+    public AstNode build() {
+        return (AstNode) popNode();
+    }
+
+    /**
+     * Gets the node on the top of the stack, without popping it.
+     *
+     * @return The last built node.
+     */
+    AstNode peek() {
+        return (AstNode) nodes[nodeCount - 1];
+    }
+
+    /**
+     * Hash-conses an expression node, if the expression nodes are shared.
+     *
+     * @param node The expression node, whose child nodes have already been hash-consed.
+     * @return The shared node that is structurally equal to the specified node, or the node itself if the expression
+     * nodes are not shared.
+     */
+    private AstNode intern(AstNode node) {
+        return exprPool != null ? exprPool.intern(node) : node;
+    }
+
+    /**
+     * Pushes a node onto the stack.
+     *
+     * @param node The node.
+     */
+    private void pushNode(Object node) {
+        if (nodeCount == nodes.length)
+            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+
+        nodes[nodeCount++] = node;
+    }
+
+    /**
+     * Pops a node from the stack.
+     *
+     * @return The node.
+     */
+    private Object popNode() {
+        Object node = nodes[--nodeCount];
+        nodes[nodeCount] = null;
+        return node;
+    }
+
+    /**
+     * Pops the nodes from the stack, down to the specified size.
+     *
+     * @param size The size of the stack after the nodes have been popped.
+     */
+    private void popNodes(int size) {
+        Arrays.fill(nodes, size, nodeCount, null);
+        nodeCount = size;
+    }
+}
@@ -0,0 +1,199 @@
+package plang;
+
+import plang.tokens.SymbolPool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Implements the parallel tokenization of a P source that is entirely held in memory.
+ * <p>
+ * The source is split into chunks at safe boundaries, which are new-line characters that are not inside a block
+ * comment, so that every chunk can be tokenized on its own, starting from the initial state of the lexer. Since
+ * whether a new-line character is inside a block comment depends on the whole source that precedes it, the source
+ * is first split into regions at arbitrary new-line characters, and each region is pre-scanned in parallel twice:
+ * once assuming that it starts outside a block comment, and once assuming that it starts inside one. Composing the
+ * results of the pre-scans, in order, tells which region boundaries are safe.
+ * <p>
+ * The chunks are then tokenized in parallel, each one with its own symbol pool, and their tokens are concatenated
+ * in order, interning their identifiers into a single pool, so that the result is the same as the one of a
+ * sequential tokenization (up to the first lexical error, which ends the tokens).
+ */
+final class ParallelLexer {
+    /**
+     * The minimum size of a chunk
+     */
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    private ParallelLexer() {
+    }
+
+    /**
+     * Tokenizes the specified source in parallel.
+     *
+     * @param fileName The name of the source file.
+     * @param source   The bytes of the source.
+     * @param length   The number of bytes of the source.
+     * @param pool     The pool on which the chunks of the source are tokenized.
+     * @return The buffer holding the tokens of the source.
+     * @throws IOException If the tokenization has been interrupted.
+     */
+    static TokenBuffer tokenize(String fileName, byte[] source, int length, ForkJoinPool pool) throws IOException {
+        int regionCount = ParallelTasks.chunkCount(pool, length, MIN_CHUNK_SIZE);
+
+        if (regionCount < 2)
+            return new Lexer(fileName, source, 0, length, new SymbolPool()).tokenize();
+
+        int[] boundaries = split(source, length, regionCount);
+        int[] chunks = safeBoundaries(source, boundaries, pool);
+
+        List<Callable<TokenBuffer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i + 1 < chunks.length; i++) {
+            int start = chunks[i];
+            int end = chunks[i + 1];
+            tasks.add(() -> new Lexer(fileName, source, start, end, new SymbolPool()).tokenize());
+        }
+
+        List<TokenBuffer> buffers = ParallelTasks.invokeAll(pool, tasks, "tokenization");
+
+        LineMap lines = new LineMap();
+        lines.defer(source, length, 0);
+
+        SymbolPool symbols = new SymbolPool();
+        TokenBuffer tokens = new TokenBuffer(fileName, symbols, lines);
+        int carry = 0;
+
+        for (int i = 0; i < buffers.size(); i++) {
+            TokenBuffer chunk = buffers.get(i);
+            SymbolPool chunkSymbols = chunk.getSymbols();
+            int[] symbolMap = new int[chunkSymbols.size()];
+
+            for (int id = 0; id < symbolMap.length; id++)
+                symbolMap[id] = symbols.intern(chunkSymbols, id);
+
+            // The first token of a chunk has been scanned from the start of the chunk, while a sequential lexer
+            // would have scanned it from where it stopped scanning the last token of the previous chunk (i.e., from
+            // the source offset of the END_OF_FILE token of the previous chunk), unless a comment comes between them.
+            int offset = chunk.getOffset(0) == chunks[i] ? carry : chunk.getOffset(0);
+
+            // A lexical error ends the tokens, as it would have stopped a sequential lexer
+            if (chunk.getError() != null || i == buffers.size() - 1) {
+                tokens.append(chunk, chunk.size(), symbolMap, offset);
+                break;
+            }
+
+            tokens.append(chunk, chunk.size() - 1, symbolMap, offset);
+            carry = chunk.size() == 1 ? offset : chunk.getOffset(chunk.size() - 1);
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Splits the source into regions of about the same size, at new-line characters.
+     *
+     * @param source      The bytes of the source.
+     * @param length      The number of bytes of the source.
+     * @param regionCount The number of regions.
+     * @return The offsets at which the regions start, followed by the length of the source.
+     */
+    private static int[] split(byte[] source, int length, int regionCount) {
+        int[] boundaries = new int[regionCount + 1];
+        int count = 1;
+
+        for (int i = 1; i < regionCount; i++) {
+            int target = Math.max((int) ((long) length * i / regionCount), boundaries[count - 1]);
+            int newLine = ByteScanner.indexOf(source, target, length, (byte) '\n');
+
+            if (newLine + 1 < length && newLine + 1 > boundaries[count - 1])
+                boundaries[count++] = newLine + 1;
+        }
+
+        boundaries[count++] = length;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    /**
+     * Selects the region boundaries that are not inside a block comment.
+     *
+     * @param source     The bytes of the source.
+     * @param boundaries The offsets at which the regions start, followed by the length of the source.
+     * @param pool       The pool on which the regions are pre-scanned.
+     * @return The offsets at which the chunks start, followed by the length of the source.
+     * @throws IOException If the pre-scan has been interrupted.
+     */
+    private static int[] safeBoundaries(byte[] source, int[] boundaries, ForkJoinPool pool) throws IOException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            int start = boundaries[i];
+            int end = boundaries[i + 1];
+            tasks.add(() -> (endsInComment(source, start, end, false) ? 1 : 0)
+                    | (start > 0 && endsInComment(source, start, end, true) ? 2 : 0));
+        }
+
+        List<Integer> transitions = ParallelTasks.invokeAll(pool, tasks, "tokenization");
+        int[] chunks = new int[boundaries.length];
+        int count = 1;
+        boolean inComment = false;
+
+        for (int i = 0; i < transitions.size(); i++) {
+            if (i > 0 && !inComment)
+                chunks[count++] = boundaries[i];
+
+            inComment = (transitions.get(i) & (inComment ? 2 : 1)) != 0;
+        }
+
+        chunks[count++] = boundaries[boundaries.length - 1];
+        return Arrays.copyOf(chunks, count);
+    }
+
+    /**
+     * Determines whether a region of the source ends inside a block comment.
+     * The comments are recognized as the {@link LexerAutomaton} does.
+     *
+     * @param source    The bytes of the source.
+     * @param from      The offset at which the region starts.
+     * @param to        The offset at which the region ends.
+     * @param inComment Whether the region starts inside a block comment.
+     * @return {@code true} if the region ends inside a block comment; otherwise, {@code false}.
+     */
+    private static boolean endsInComment(byte[] source, int from, int to, boolean inComment) {
+        int i = from;
+
+        while (true) {
+            if (inComment) {
+                do {
+                    i = ByteScanner.indexOf(source, i, to, (byte) '*');
+
+                    do i++;
+                    while (i < to && source[i] == '*');
+
+                    if (i >= to)
+                        return true;
+                } while (source[i] != '/');
+
+                i++;
+                inComment = false;
+            }
+
+            i = ByteScanner.indexOf(source, i, to, (byte) '/');
+
+            if (i + 1 >= to)
+                return false;
+
+            if (source[i + 1] == '/')
+                i = ByteScanner.indexOf(source, i + 2, to, (byte) '\n');
+            else if (source[i + 1] == '*') {
+                i += 2;
+                inComment = true;
+            } else
+                i++;
+        }
+    }
+}
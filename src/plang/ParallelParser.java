@@ -0,0 +1,119 @@
+package plang;
+
+import plang.ast.AstNode;
+import plang.ast.ProgAstNode;
+import plang.ast.StatAstNode;
+import plang.ast.StatListAstNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Implements the parallel parsing of the top-level statements of a P source that has been tokenized into a
+ * {@link TokenBuffer}.
+ * <p>
+ * The tokens are first split at the {@code ;} tokens that are at the top level of the program, which are found by
+ * tracking the nesting depth of the blocks ({@code { ... }}) and of the if statements ({@code if ... end}): in a valid
+ * program, these are exactly the tokens that separate its top-level statements. The statements are then parsed in
+ * parallel, in chunks of consecutive statements, and their nodes are assembled in order into the {@code <prog>} node.
+ * <p>
+ * If a statement is not valid, or if it does not end at the token at which the source has been split (which can
+ * happen only if the source is not valid), the whole source is parsed sequentially, so that the first error of the
+ * source is reported exactly as {@link Parser#parse()} reports it.
+ */
+final class ParallelParser {
+    /**
+     * The minimum number of statements of a chunk
+     */
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    private ParallelParser() {
+    }
+
+    /**
+     * Parses the specified tokens in parallel.
+     *
+     * @param tokens The buffer holding the tokens of the source.
+     * @param pool   The pool on which the chunks of statements are parsed.
+     * @return The root node of the AST.
+     * @throws IOException If an invalid token is found, or if the parsing has been interrupted.
+     */
+    static AstNode parse(TokenBuffer tokens, ForkJoinPool pool) throws IOException {
+        int[] ends = split(tokens);
+        int chunkCount = ParallelTasks.chunkCount(pool, ends.length, MIN_CHUNK_SIZE);
+
+        if (chunkCount < 2)
+            return new Parser(tokens).parse();
+
+        List<Callable<StatListAstNode>> tasks = new ArrayList<>(chunkCount);
+
+        for (int i = 0; i < chunkCount; i++) {
+            int from = (int) ((long) ends.length * i / chunkCount);
+            int to = (int) ((long) ends.length * (i + 1) / chunkCount);
+            int start = from == 0 ? 0 : ends[from - 1] + 1;
+
+            tasks.add(() -> {
+                TokenCursor cursor = new TokenCursor(tokens, start);
+
+                try {
+                    Parser parser = new Parser(cursor);
+                    return (StatListAstNode) parser.parseStatements(cursor, new NodeAstBuilder(), ends, from, to);
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+        }
+
+        StatAstNode[] stats = new StatAstNode[ends.length];
+        int count = 0;
+
+        for (StatListAstNode chunk : ParallelTasks.invokeAll(pool, tasks, "parsing")) {
+            // The error is reported by the sequential parser, as it depends on what precedes it
+            if (chunk == null)
+                return new Parser(tokens).parse();
+
+            for (StatAstNode stat : chunk)
+                stats[count++] = stat;
+        }
+
+        return new ProgAstNode(new StatListAstNode(stats));
+    }
+
+    /**
+     * Splits the tokens at the top-level {@code ;} tokens.
+     *
+     * @param tokens The buffer holding the tokens of the source.
+     * @return The indices of the top-level {@code ;} tokens, followed by the index of the {@code END_OF_FILE} token
+     * (i.e., the indices of the tokens that follow each top-level statement).
+     */
+    private static int[] split(TokenBuffer tokens) {
+        int[] ends = new int[256];
+        int count = 0;
+        int depth = 0;
+        int last = tokens.size() - 1;
+
+        for (int i = 0; i <= last; i++) {
+            switch (tokens.getKind(i)) {
+                case LEFT_BRACE, KWD_IF -> depth++;
+                case RIGHT_BRACE, KWD_END -> depth--;
+                case SEMICOLON -> {
+                    if (depth != 0)
+                        continue;
+                    if (count == ends.length)
+                        ends = Arrays.copyOf(ends, count * 2);
+
+                    ends[count++] = i;
+                }
+            }
+        }
+
+        // The buffer always ends with the END_OF_FILE token
+        ends = Arrays.copyOf(ends, count + 1);
+        ends[count] = last;
+        return ends;
+    }
+}
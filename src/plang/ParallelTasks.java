@@ -0,0 +1,76 @@
+package plang;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Implements the running, on a fork/join pool, of the tasks into which a pass over a source (e.g., its tokenization or
+ * its parsing) is split, each of which processes a chunk of the source.
+ */
+final class ParallelTasks {
+    /**
+     * The number of chunks per thread of the pool, so that the load is balanced
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * Gets the number of chunks into which a source shall be split to be processed on a pool.
+     *
+     * @param pool         The pool on which the chunks are processed.
+     * @param size         The size of the source (e.g., its number of bytes or of statements).
+     * @param minChunkSize The minimum size of a chunk.
+     * @return The number of chunks, which is less than {@code 2} if the source is not worth splitting.
+     */
+    static int chunkCount(ForkJoinPool pool, int size, int minChunkSize) {
+        return Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, size / minChunkSize);
+    }
+
+    /**
+     * Runs the specified tasks on a pool, and waits for their results.
+     *
+     * @param pool  The pool on which the tasks are run.
+     * @param tasks The tasks.
+     * @param pass  The name of the pass that the tasks make up (e.g., {@code tokenization}), used in error messages.
+     * @param <T>   The type of the results of the tasks.
+     * @return The results of the tasks, in order.
+     * @throws IOException If a task has thrown an {@link IOException} (the one of the first task that failed is
+     *                     thrown), or if the current thread has been interrupted.
+     */
+    static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks, String pass) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+
+        try {
+            for (Future<T> future : pool.invokeAll(tasks))
+                results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The " + pass + " has been interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            // The tasks of a fork/join pool wrap the checked exceptions they throw into runtime exceptions, which
+            // can be wrapped again when they are rethrown into another thread
+            for (Throwable throwable = cause; throwable != null; throwable = throwable.getCause())
+                if (throwable instanceof IOException exception)
+                    throw exception;
+
+            if (cause instanceof RuntimeException exception)
+                throw exception;
+            if (cause instanceof Error error)
+                throw error;
+
+            throw new IllegalStateException(cause);
+        }
+
+        return results;
+    }
+}
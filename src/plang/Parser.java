@@ -7,20 +7,121 @@ import plang.tokens.Token;
 import plang.tokens.TokenKind;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * Implements a recursive descent parser, which parses a sequence of
+ * Implements a predictive (LL(1)) parser, which parses a sequence of
  * tokens into an AST (Abstract Syntax Tree) following the P language grammar.
+ * <p>
+ * The parser works as a recursive descent parser, but it keeps the grammar rules that are still to be parsed on an
+ * explicit stack of tasks, and the AST nodes that have been parsed on the explicit stack of an {@link AstBuilder},
+ * instead of on the call stack. The list rules re-push themselves for each element, so that the stacks grow only with
+ * the nesting depth of the source, and neither long lists nor deep nesting can overflow the call stack.
+ * <p>
+ * The AST is either made of {@link AstNode}s ({@link #parse()}), or stored compactly into an {@link AstArena}
+ * ({@link #parseCompact()}); a source can also be only validated ({@link #validate()}), without building its AST.
  */
 public final class Parser {
     /**
-     * The lexer that tokenize the source code.
+     * The task that parses the {@code <prog>} grammar rule
      */
-    private final Lexer lexer;
+    private static final int T_PROG = 0;
+    /**
+     * The task that parses the {@code <statlist>} grammar rule
+     */
+    private static final int T_STAT_LIST = 1;
+    /**
+     * The task that parses the {@code <statlistex>} grammar rule
+     */
+    private static final int T_STAT_LIST_EX = 2;
+    /**
+     * The task that parses the {@code <stat>} grammar rule
+     */
+    private static final int T_STAT = 3;
+    /**
+     * The task that parses the {@code <ifex>} grammar rule
+     */
+    private static final int T_IF_EX = 4;
+    /**
+     * The task that parses the {@code <idlist>} grammar rule
+     */
+    private static final int T_ID_LIST = 5;
+    /**
+     * The task that parses the {@code <boolexpr>} grammar rule
+     */
+    private static final int T_BOOL_EXPR = 6;
+    /**
+     * The task that parses the {@code <expr>} grammar rule
+     */
+    private static final int T_EXPR = 7;
+    /**
+     * The task that parses the {@code <exprlist>} grammar rule
+     */
+    private static final int T_EXPR_LIST = 8;
+    /**
+     * The task that parses the {@code <exprlistex>} grammar rule
+     */
+    private static final int T_EXPR_LIST_EX = 9;
+    /**
+     * The task that matches a token, whose kind is the argument of the task
+     */
+    private static final int T_MATCH = 10;
+    /**
+     * The task that builds the AST node of a production, which is selected by the token kind that is the argument
+     * of the task
+     */
+    private static final int T_REDUCE = 11;
+    /**
+     * The number of bits of a task that hold its type (the remaining bits hold its argument)
+     */
+    private static final int TASK_SHIFT = 4;
+    /**
+     * The mask of the bits of a task that hold its type
+     */
+    private static final int TASK_MASK = (1 << TASK_SHIFT) - 1;
+    /**
+     * The token kinds, indexed by ordinal
+     */
+    private static final TokenKind[] KINDS = TokenKind.values();
+    /**
+     * The source of the tokens to be parsed (e.g., the lexer that tokenize the source code).
+     */
+    private final TokenSource source;
+    /**
+     * The buffer holding the tokens to be parsed, or {@code null} if the tokens are not buffered
+     */
+    private final TokenBuffer tokens;
     /**
      * The lookahead token (e.g., the last read token).
      */
     private Token lookahead;
+    /**
+     * The stack of the tasks that are still to be run
+     */
+    private int[] tasks = new int[64];
+    /**
+     * The number of tasks on the stack
+     */
+    private int taskCount;
+    /**
+     * The builder of the AST that is being parsed, which holds the stack of the AST nodes that have been parsed, but
+     * not yet attached to their parent node
+     */
+    private AstBuilder<?> builder;
+    /**
+     * The stack of the sizes of the node stack at which the lists that are being parsed start
+     */
+    private int[] marks = new int[16];
+    /**
+     * The number of marks on the stack
+     */
+    private int markCount;
 
     /**
      * Initializes a new {@link Parser} for the specified source file.
@@ -29,7 +130,57 @@ public final class Parser {
      * @throws IOException If an I/O error occurs reading from the file.
      */
     public Parser(String filePath) throws IOException {
-        this.lexer = new Lexer(filePath);
+        this(new Lexer(filePath));
+    }
+
+    /**
+     * Initializes a new {@link Parser} that parses a P source read from the specified channel.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param channel  The (blocking) channel from which the source is read.
+     */
+    public Parser(String fileName, ReadableByteChannel channel) {
+        this(new Lexer(fileName, channel));
+    }
+
+    /**
+     * Initializes a new {@link Parser} that parses a P source read from the specified reader.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param reader   The reader from which the source is read.
+     */
+    public Parser(String fileName, Reader reader) {
+        this(new Lexer(fileName, reader));
+    }
+
+    /**
+     * Initializes a new {@link Parser} that parses the tokens produced by the specified lexer.
+     *
+     * @param lexer The lexer that tokenize the source code.
+     */
+    public Parser(Lexer lexer) {
+        this.source = lexer;
+        this.tokens = null;
+    }
+
+    /**
+     * Initializes a new {@link Parser} that parses the tokens stored into the specified buffer.
+     *
+     * @param tokens The buffer holding the tokens of the source code.
+     */
+    public Parser(TokenBuffer tokens) {
+        this.source = new TokenCursor(tokens);
+        this.tokens = tokens;
+    }
+
+    /**
+     * Initializes a new {@link Parser} that parses the tokens read through the specified cursor.
+     *
+     * @param cursor The cursor positioned on the first token to be parsed.
+     */
+    Parser(TokenCursor cursor) {
+        this.source = cursor;
+        this.tokens = null;
     }
 
     /**
@@ -40,7 +191,7 @@ public final class Parser {
      */
     private void match(TokenKind tokenKind) throws IOException {
         if (lookahead.getKind() == tokenKind) {
-            if (tokenKind != TokenKind.END_OF_FILE) this.lookahead = lexer.nextToken();
+            if (tokenKind != TokenKind.END_OF_FILE) this.lookahead = source.nextToken();
         } else throwIOException("Unexpected token (expected '" + tokenKind + "', got '" + lookahead.getKind() + "')");
     }
 
@@ -51,17 +202,184 @@ public final class Parser {
      * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found.
      */
     public AstNode parse() throws IOException {
-        this.lookahead = lexer.nextToken();
-        return parseProg();
+        return parse(new NodeAstBuilder());
+    }
+
+    /**
+     * Parses the input in parallel, using the specified pool, and returns the root of the Abstract Syntax Tree.
+     * <p>
+     * Only the tokens of a {@link TokenBuffer} can be parsed in parallel; otherwise, or if the source has too few
+     * top-level statements to be worth splitting, it is parsed sequentially. The result, and the error that is thrown
+     * if the source is not valid, are the same as the ones of {@link #parse()}.
+     *
+     * @param pool The pool on which the top-level statements are parsed.
+     * @return The root node of the AST.
+     * @throws IOException If the lexer throws a {@link IOException}, an invalid token is found, or the parsing has been
+     *                     interrupted.
+     */
+    public AstNode parse(ForkJoinPool pool) throws IOException {
+        return tokens != null ? ParallelParser.parse(tokens, pool) : parse();
+    }
+
+    /**
+     * Parses the input and returns the root of an Abstract Syntax Tree whose expressions are hash-consed into the
+     * specified pool, so that the identical {@code <expr>}, {@code <exprlist>} and {@code <boolexpr>} subtrees are
+     * shared (i.e., the expressions form a DAG).
+     * <p>
+     * The pool can be shared by several ASTs, whose identical expressions are then shared as well.
+     *
+     * @param exprPool The pool into which the expression nodes are hash-consed.
+     * @return The root node of the AST.
+     * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found.
+     */
+    public AstNode parse(ExprPool exprPool) throws IOException {
+        return parse(new NodeAstBuilder(exprPool));
+    }
+
+    /**
+     * Parses the input into a compact AST, which is stored into an {@link AstArena} instead of being made of
+     * {@link AstNode}s.
+     *
+     * @return The arena holding the AST, whose root is the {@code <prog>} node.
+     * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found.
+     */
+    public AstArena parseCompact() throws IOException {
+        return parse(new ArenaAstBuilder());
+    }
+
+    /**
+     * Validates the syntax of the input, recognizing it as {@link #parse()} does, but without building its AST.
+     *
+     * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found (i.e., the first
+     *                     error of the source, with its position).
+     */
+    public void validate() throws IOException {
+        parse(new ValidatingAstBuilder());
+    }
+
+    /**
+     * Validates the syntax of several source files in parallel, using the specified pool.
+     * The files are memory-mapped, so that they are never loaded into the heap, whatever their sizes and number.
+     *
+     * @param filePaths The paths of the P source code files.
+     * @param pool      The pool on which the files are validated.
+     * @return The first error of each file (as it would be thrown by {@link #validate()}), or {@code null} for each
+     * valid file, in the order of the file paths.
+     * @throws IOException If the validation has been interrupted.
+     */
+    public static List<IOException> validate(List<String> filePaths, ForkJoinPool pool) throws IOException {
+        List<Callable<IOException>> tasks = new ArrayList<>(filePaths.size());
+
+        for (String filePath : filePaths) {
+            tasks.add(() -> {
+                try {
+                    new Parser(new Lexer(filePath, true)).validate();
+                    return null;
+                } catch (IOException e) {
+                    return e;
+                }
+            });
+        }
+
+        return ParallelTasks.invokeAll(pool, tasks, "validation");
+    }
+
+    /**
+     * Parses the input, building its AST with the specified builder.
+     *
+     * @param builder The builder of the AST.
+     * @param <T>     The type of the AST.
+     * @return The AST.
+     * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found.
+     */
+    <T> T parse(AstBuilder<T> builder) throws IOException {
+        start(builder);
+        pushTask(T_PROG);
+        run();
+        return builder.build();
+    }
+
+    /**
+     * Parses a sequence of statements, each of which shall be followed by a specific token (e.g., the {@code ;} that
+     * separates it from the next statement, or the {@code END_OF_FILE} after the last top-level statement).
+     *
+     * @param cursor  The cursor from which this parser reads the tokens, positioned on the first token of the first
+     *                statement.
+     * @param builder The builder of the {@code <statlist>} node.
+     * @param ends    The indices of the tokens that follow the statements.
+     * @param from    The index (into {@code ends}) of the first statement.
+     * @param to      The index (into {@code ends}) after the last statement.
+     * @param <T>     The type of the nodes built by the builder.
+     * @return The {@code <statlist>} node of the statements, or {@code null} if a statement is not followed by its
+     * token.
+     * @throws IOException If an invalid token is found.
+     */
+    <T> T parseStatements(TokenCursor cursor, AstBuilder<T> builder, int[] ends, int from, int to) throws IOException {
+        start(builder);
+
+        for (int i = from; i < to; i++) {
+            if (i > from)
+                match(TokenKind.SEMICOLON);
+
+            pushTask(T_STAT);
+            run();
+
+            if (cursor.getLastIndex() != ends[i])
+                return null;
+        }
+
+        builder.reduceList(AstNodeType.STAT_LIST, to - from);
+        return builder.build();
+    }
+
+    /**
+     * Prepares the parsing of the input, reading the first token.
+     *
+     * @param builder The builder of the AST.
+     * @throws IOException If the lexer throws a {@link IOException}.
+     */
+    private void start(AstBuilder<?> builder) throws IOException {
+        this.lookahead = source.nextToken();
+        this.builder = builder;
+        this.taskCount = 0;
+        this.markCount = 0;
+        builder.reset();
+    }
+
+    /**
+     * Runs the tasks on the stack, until it is empty.
+     *
+     * @throws IOException If the lexer throws a {@link IOException} or an invalid token is found.
+     */
+    private void run() throws IOException {
+        while (taskCount > 0) {
+            int task = tasks[--taskCount];
+
+            switch (task & TASK_MASK) {
+                case T_PROG -> parseProg();
+                case T_STAT_LIST -> parseStatList();
+                case T_STAT_LIST_EX -> parseStatListEx();
+                case T_STAT -> parseStat();
+                case T_IF_EX -> parseIfEx();
+                case T_ID_LIST -> parseIdList();
+                case T_BOOL_EXPR -> parseBoolExpr();
+                case T_EXPR -> parseExpr();
+                case T_EXPR_LIST -> parseExprList();
+                case T_EXPR_LIST_EX -> parseExprListEx();
+                case T_MATCH -> match(KINDS[task >>> TASK_SHIFT]);
+                case T_REDUCE -> builder.reduce(KINDS[task >>> TASK_SHIFT]);
+                default -> throw new IllegalStateException("Invalid parser task: " + task);
+            }
+        }
     }
 
     /**
      * Parses the {@code <prog>} grammar rule.
+     * The {@code <prog>} AST node is built by the pushed tasks.
      *
-     * @return A {@code <prog>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private ProgAstNode parseProg() throws IOException {
+    private void parseProg() throws IOException {
         switch (lookahead.getKind()) {
             case KWD_ASSIGN:
             case KWD_PRINT:
@@ -69,25 +387,26 @@ public final class Parser {
             case KWD_WHILE:
             case KWD_IF:
             case LEFT_BRACE:
-                StatListAstNode statList = parseStatList();
-                match(TokenKind.END_OF_FILE);
-                return new ProgAstNode(statList);
+                builder.enter(TokenKind.END_OF_FILE);
+                pushTask(T_REDUCE, TokenKind.END_OF_FILE);
+                pushTask(T_MATCH, TokenKind.END_OF_FILE);
+                pushTask(T_STAT_LIST);
+                break;
 
             default:
                 throwIOException("Unexpected token in program'" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <statlist>} grammar rule.
+     * The statements of the list are parsed by the pushed tasks, and the {@code <statlist>} AST node is built by
+     * {@link #parseStatListEx()} once the list ends.
      *
-     * @return A {@code <statlist>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private StatListAstNode parseStatList() throws IOException {
+    private void parseStatList() throws IOException {
         switch (lookahead.getKind()) {
             case KWD_ASSIGN:
             case KWD_PRINT:
@@ -95,331 +414,282 @@ public final class Parser {
             case KWD_WHILE:
             case KWD_IF:
             case LEFT_BRACE:
-                StatAstNode stat = parseStat();
-                StatListExAstNode statListEx = parseStatListEx();
-                return new StatListAstNode(stat, statListEx);
+                pushMark();
+                pushTask(T_STAT_LIST_EX);
+                pushTask(T_STAT);
+                break;
 
             default:
                 throwIOException("Unexpected token in statement list '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <statlistex>} grammar rule.
+     * Each following statement is parsed by re-pushing this task, so that the stack does not grow with the length of
+     * the list; when the list ends, its statements are collected into a {@code <statlist>} AST node.
      *
-     * @return A {@code <statlistex>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private StatListExAstNode parseStatListEx() throws IOException {
+    private void parseStatListEx() throws IOException {
         switch (lookahead.getKind()) {
             case SEMICOLON:
                 match(TokenKind.SEMICOLON);
-                StatAstNode stat = parseStat();
-                StatListExAstNode statListEx = parseStatListEx();
-                return new DefaultStatListExAstNode(stat, statListEx);
+                pushTask(T_STAT_LIST_EX);
+                pushTask(T_STAT);
+                break;
 
             case END_OF_FILE:
             case RIGHT_BRACE:
-                return new EmptyStatListExAstNode();
+                builder.reduceList(AstNodeType.STAT_LIST, builder.size() - popMark());
+                break;
 
             default:
                 throwIOException("Unexpected token in statement list'" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <stat>} grammar rule.
+     * The nested grammar rules are parsed, and the {@code <stat>} AST node is built, by the pushed tasks.
      *
-     * @return A {@code <stat>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private StatAstNode parseStat() throws IOException {
-        IdListAstNode idList;
-        BoolExprAstNode boolExpr;
-        StatAstNode stat;
-
+    private void parseStat() throws IOException {
         switch (lookahead.getKind()) {
             case KWD_ASSIGN:
+                builder.enter(TokenKind.KWD_ASSIGN);
                 match(TokenKind.KWD_ASSIGN);
-                ExprAstNode expr = parseExpr();
-                match(TokenKind.KWD_TO);
-                idList = parseIdList();
-                return new AssignStatAstNode(expr, idList);
+                pushTask(T_REDUCE, TokenKind.KWD_ASSIGN);
+                pushTask(T_ID_LIST);
+                pushTask(T_MATCH, TokenKind.KWD_TO);
+                pushTask(T_EXPR);
+                break;
 
             case KWD_PRINT:
+                builder.enter(TokenKind.KWD_PRINT);
                 match(TokenKind.KWD_PRINT);
                 match(TokenKind.LEFT_PARENTHESIS);
-                ExprListAstNode exprList = parseExprList();
-                match(TokenKind.RIGHT_PARENTHESIS);
-                return new PrintStatAstNode(exprList);
+                pushTask(T_REDUCE, TokenKind.KWD_PRINT);
+                pushTask(T_MATCH, TokenKind.RIGHT_PARENTHESIS);
+                pushTask(T_EXPR_LIST);
+                break;
 
             case KWD_READ:
+                builder.enter(TokenKind.KWD_READ);
                 match(TokenKind.KWD_READ);
                 match(TokenKind.LEFT_PARENTHESIS);
-                idList = parseIdList();
+                parseIdList();
                 match(TokenKind.RIGHT_PARENTHESIS);
-                return new ReadStatAstNode(idList);
+                builder.reduce(TokenKind.KWD_READ);
+                break;
 
             case KWD_WHILE:
+                builder.enter(TokenKind.KWD_WHILE);
                 match(TokenKind.KWD_WHILE);
                 match(TokenKind.LEFT_PARENTHESIS);
-                boolExpr = parseBoolExpr();
-                match(TokenKind.RIGHT_PARENTHESIS);
-                stat = parseStat();
-                return new WhileStatAstNode(boolExpr, stat);
+                pushTask(T_REDUCE, TokenKind.KWD_WHILE);
+                pushTask(T_STAT);
+                pushTask(T_MATCH, TokenKind.RIGHT_PARENTHESIS);
+                pushTask(T_BOOL_EXPR);
+                break;
 
             case KWD_IF:
+                builder.enter(TokenKind.KWD_IF);
                 match(TokenKind.KWD_IF);
                 match(TokenKind.LEFT_PARENTHESIS);
-                boolExpr = parseBoolExpr();
-                match(TokenKind.RIGHT_PARENTHESIS);
-                stat = parseStat();
-                IfExAstNode ifEx = parseIfEx();
-                return new IfStatAstNode(boolExpr, stat, ifEx);
+                pushTask(T_REDUCE, TokenKind.KWD_IF);
+                pushTask(T_IF_EX);
+                pushTask(T_STAT);
+                pushTask(T_MATCH, TokenKind.RIGHT_PARENTHESIS);
+                pushTask(T_BOOL_EXPR);
+                break;
 
             case LEFT_BRACE:
+                builder.enter(TokenKind.LEFT_BRACE);
                 match(TokenKind.LEFT_BRACE);
-                StatListAstNode statList = parseStatList();
-                match(TokenKind.RIGHT_BRACE);
-                return new BlockStatAstNode(statList);
+                pushTask(T_REDUCE, TokenKind.LEFT_BRACE);
+                pushTask(T_MATCH, TokenKind.RIGHT_BRACE);
+                pushTask(T_STAT_LIST);
+                break;
 
             default:
                 throwIOException("Unexpected token in statement list '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <ifex>} grammar rule.
+     * The nested grammar rules are parsed, and the {@code <ifex>} AST node is built, by the pushed tasks.
      *
-     * @return A {@code <ifex>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private IfExAstNode parseIfEx() throws IOException {
+    private void parseIfEx() throws IOException {
         switch (lookahead.getKind()) {
             case KWD_END:
                 match(TokenKind.KWD_END);
-                return new EndIfExAstNode();
+                builder.pushEndIf();
+                break;
 
             case KWD_ELSE:
+                builder.enter(TokenKind.KWD_ELSE);
                 match(TokenKind.KWD_ELSE);
-                StatAstNode stat = parseStat();
-                match(TokenKind.KWD_END);
-                return new ElseIfExAstNode(stat);
+                pushTask(T_REDUCE, TokenKind.KWD_ELSE);
+                pushTask(T_MATCH, TokenKind.KWD_END);
+                pushTask(T_STAT);
+                break;
 
             default:
                 throwIOException("Unexpected token in if statement '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <idlist>} grammar rule.
+     * Identifier lists do not nest, so they are parsed by a loop, without pushing any task.
      *
-     * @return A {@code <idlist>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    @SuppressWarnings("SwitchStatementWithTooFewBranches")
-    private IdListAstNode parseIdList() throws IOException {
-        switch (lookahead.getKind()) {
-            case IDENTIFIER:
-                IdentifierToken identifier = (IdentifierToken) lookahead;
-                match(TokenKind.IDENTIFIER);
-                IdListExAstNode idListEx = parseIdListEx();
-                return new IdListAstNode(identifier, idListEx);
+    private void parseIdList() throws IOException {
+        if (lookahead.getKind() != TokenKind.IDENTIFIER)
+            throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
 
-            default:
-                throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
-                break;
-        }
+        int mark = builder.size();
+        builder.pushListIdentifier((IdentifierToken) lookahead);
+        match(TokenKind.IDENTIFIER);
 
-        return null;
-    }
+        while (true) {
+            switch (lookahead.getKind()) {
+                case COMMA:
+                    match(TokenKind.COMMA);
 
-    /**
-     * Parses the {@code <idlistex>} grammar rule.
-     *
-     * @return A {@code <idlistex>} AST node.
-     * @throws IOException If an unexpected token is found, or if a lexer error occurred.
-     */
-    private IdListExAstNode parseIdListEx() throws IOException {
-        switch (lookahead.getKind()) {
-            case COMMA:
-                match(TokenKind.COMMA);
+                    if (lookahead.getKind() != TokenKind.IDENTIFIER)
+                        throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
 
-                if (lookahead.getKind() == TokenKind.IDENTIFIER) {
-                    IdentifierToken identifier = (IdentifierToken) lookahead;
+                    builder.pushListIdentifier((IdentifierToken) lookahead);
                     match(TokenKind.IDENTIFIER);
-                    IdListExAstNode idListEx = parseIdListEx();
-                    return new DefaultIdListExAstNode(identifier, idListEx);
-                }
-
-                throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
-                break;
-
-            case RIGHT_PARENTHESIS:
-            case SEMICOLON:
-            case END_OF_FILE:
-            case KWD_ELSE:
-            case RIGHT_BRACE:
-            case KWD_END:
-                return new EmptyIdListExAstNode();
-
-            default:
-                throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
-                break;
+                    break;
+
+                case RIGHT_PARENTHESIS:
+                case SEMICOLON:
+                case END_OF_FILE:
+                case KWD_ELSE:
+                case RIGHT_BRACE:
+                case KWD_END:
+                    builder.reduceList(AstNodeType.ID_LIST, builder.size() - mark);
+                    return;
+
+                default:
+                    throwIOException("Unexpected token in identifier list '" + lookahead.getKind() + "'");
+                    break;
+            }
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <boolexpr>} grammar rule.
+     * The operands are parsed, and the {@code <boolexpr>} AST node is built, by the pushed tasks.
      *
-     * @return A {@code <boolexpr>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private BoolExprAstNode parseBoolExpr() throws IOException {
-        ExprAstNode expr1;
-        ExprAstNode expr2;
-        BoolExprAstNode boolExpr1;
-        BoolExprAstNode boolExpr2;
+    private void parseBoolExpr() throws IOException {
+        TokenKind operator = lookahead.getKind();
 
-        switch (lookahead.getKind()) {
+        switch (operator) {
             case EQUALITY:
-                match(TokenKind.EQUALITY);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new EqBoolExprAstNode(expr1, expr2);
-
             case INEQUALITY:
-                match(TokenKind.INEQUALITY);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new NeBoolExprAstNode(expr1, expr2);
-
             case LESS_THAN:
-                match(TokenKind.LESS_THAN);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new LtBoolExprAstNode(expr1, expr2);
-
             case GREATER_THAN:
-                match(TokenKind.GREATER_THAN);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new GtBoolExprAstNode(expr1, expr2);
-
             case LESS_THAN_EQUAL:
-                match(TokenKind.LESS_THAN_EQUAL);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new LeBoolExprAstNode(expr1, expr2);
-
             case GREATER_THAN_EQUAL:
-                match(TokenKind.GREATER_THAN_EQUAL);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new GeBoolExprAstNode(expr1, expr2);
+                builder.enter(operator);
+                match(operator);
+                pushTask(T_REDUCE, operator);
+                pushTask(T_EXPR);
+                pushTask(T_EXPR);
+                break;
 
             case LOGICAL_AND:
-                match(TokenKind.LOGICAL_AND);
-                boolExpr1 = parseBoolExpr();
-                boolExpr2 = parseBoolExpr();
-                return new AndBoolExprAstNode(boolExpr1, boolExpr2);
-
             case LOGICAL_OR:
-                match(TokenKind.LOGICAL_OR);
-                boolExpr1 = parseBoolExpr();
-                boolExpr2 = parseBoolExpr();
-                return new OrBoolExprAstNode(boolExpr1, boolExpr2);
+                builder.enter(operator);
+                match(operator);
+                pushTask(T_REDUCE, operator);
+                pushTask(T_BOOL_EXPR);
+                pushTask(T_BOOL_EXPR);
+                break;
 
             case LOGICAL_NOT:
-                match(TokenKind.LOGICAL_NOT);
-                boolExpr1 = parseBoolExpr();
-                return new NotBoolExprAstNode(boolExpr1);
+                builder.enter(operator);
+                match(operator);
+                pushTask(T_REDUCE, operator);
+                pushTask(T_BOOL_EXPR);
+                break;
 
             default:
                 throwIOException("Unexpected token in boolean expression '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <expr>} grammar rule.
+     * The operands are parsed, and the {@code <expr>} AST node is built, by the pushed tasks.
      *
-     * @return A {@code <expr>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private ExprAstNode parseExpr() throws IOException {
-        ExprListAstNode exprList;
-        ExprAstNode expr1;
-        ExprAstNode expr2;
+    private void parseExpr() throws IOException {
+        TokenKind operator = lookahead.getKind();
 
-        switch (lookahead.getKind()) {
+        switch (operator) {
             case PLUS:
-                match(TokenKind.PLUS);
-                match(TokenKind.LEFT_PARENTHESIS);
-                exprList = parseExprList();
-                match(TokenKind.RIGHT_PARENTHESIS);
-                return new AddExprAstNode(exprList);
-
-            case MINUS:
-                match(TokenKind.MINUS);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new SubExprAstNode(expr1, expr2);
-
             case ASTERISK:
-                match(TokenKind.ASTERISK);
+                builder.enter(operator);
+                match(operator);
                 match(TokenKind.LEFT_PARENTHESIS);
-                exprList = parseExprList();
-                match(TokenKind.RIGHT_PARENTHESIS);
-                return new MulExprAstNode(exprList);
+                pushTask(T_REDUCE, operator);
+                pushTask(T_MATCH, TokenKind.RIGHT_PARENTHESIS);
+                pushTask(T_EXPR_LIST);
+                break;
 
+            case MINUS:
             case SLASH:
-                match(TokenKind.SLASH);
-                expr1 = parseExpr();
-                expr2 = parseExpr();
-                return new DivExprAstNode(expr1, expr2);
+                builder.enter(operator);
+                match(operator);
+                pushTask(T_REDUCE, operator);
+                pushTask(T_EXPR);
+                pushTask(T_EXPR);
+                break;
 
             case NUMBER:
                 NumberToken number = (NumberToken) lookahead;
                 match(TokenKind.NUMBER);
-                return new NumberExprAstNode(number);
+                builder.pushNumber(number);
+                break;
 
             case IDENTIFIER:
                 IdentifierToken identifier = (IdentifierToken) lookahead;
                 match(TokenKind.IDENTIFIER);
-                return new IdentifierExprAstNode(identifier);
+                builder.pushIdentifier(identifier);
+                break;
 
             default:
                 throwIOException("Unexpected token in expression '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <exprlist>} grammar rule.
+     * The expressions of the list are parsed by the pushed tasks, and the {@code <exprlist>} AST node is built by
+     * {@link #parseExprListEx()} once the list ends.
      *
-     * @return A {@code <exprlist>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private ExprListAstNode parseExprList() throws IOException {
+    private void parseExprList() throws IOException {
         switch (lookahead.getKind()) {
             case PLUS:
             case MINUS:
@@ -427,41 +697,81 @@ public final class Parser {
             case SLASH:
             case IDENTIFIER:
             case NUMBER:
-                ExprAstNode expr = parseExpr();
-                ExprListExAstNode exprListEx = parseExprListEx();
-                return new ExprListAstNode(expr, exprListEx);
+                pushMark();
+                pushTask(T_EXPR_LIST_EX);
+                pushTask(T_EXPR);
+                break;
 
             default:
                 throwIOException("Unexpected token in expression list '" + lookahead.getKind() + "'");
                 break;
         }
-
-        return null;
     }
 
     /**
      * Parses the {@code <exprlistex>} grammar rule.
+     * Each following expression is parsed by re-pushing this task, so that the stack does not grow with the length
+     * of the list; when the list ends, its expressions are collected into an {@code <exprlist>} AST node.
      *
-     * @return A {@code <exprlistex>} AST node.
      * @throws IOException If an unexpected token is found, or if a lexer error occurred.
      */
-    private ExprListExAstNode parseExprListEx() throws IOException {
+    private void parseExprListEx() throws IOException {
         switch (lookahead.getKind()) {
             case COMMA:
                 match(TokenKind.COMMA);
-                ExprAstNode expr = parseExpr();
-                ExprListExAstNode exprListEx = parseExprListEx();
-                return new DefaultExprListExAstNode(expr, exprListEx);
+                pushTask(T_EXPR_LIST_EX);
+                pushTask(T_EXPR);
+                break;
 
             case RIGHT_PARENTHESIS:
-                return new EmptyExprListExAstNode();
+                builder.reduceList(AstNodeType.EXPR_LIST, builder.size() - popMark());
+                break;
 
             default:
                 throwIOException("Unexpected token in expression list '" + lookahead.getKind() + "'");
                 break;
         }
+    }
+
+    /**
+     * Pushes a task without argument onto the task stack.
+     *
+     * @param task The type of the task.
+     */
+    private void pushTask(int task) {
+        if (taskCount == tasks.length)
+            tasks = Arrays.copyOf(tasks, taskCount * 2);
+
+        tasks[taskCount++] = task;
+    }
+
+    /**
+     * Pushes a task onto the task stack.
+     *
+     * @param task     The type of the task.
+     * @param argument The token kind that is the argument of the task.
+     */
+    private void pushTask(int task, TokenKind argument) {
+        pushTask(task | argument.ordinal() << TASK_SHIFT);
+    }
+
+    /**
+     * Marks the start of a list on the node stack of the builder.
+     */
+    private void pushMark() {
+        if (markCount == marks.length)
+            marks = Arrays.copyOf(marks, markCount * 2);
+
+        marks[markCount++] = builder.size();
+    }
 
-        return null;
+    /**
+     * Pops the mark of the start of the innermost list.
+     *
+     * @return The size of the node stack at which the list starts.
+     */
+    private int popMark() {
+        return marks[--markCount];
     }
 
     /**
@@ -471,6 +781,6 @@ public final class Parser {
      * @throws IOException Always.
      */
     private void throwIOException(String message) throws IOException {
-        throw new IOException("<" + lexer.getFileName() + "[" + lexer.getLastLine() + ":" + lexer.getLastColumn() + "]> " + message);
+        throw new IOException("<" + source.getFileName() + "[" + source.getLastLine() + ":" + source.getLastColumn() + "]> " + message);
     }
 }
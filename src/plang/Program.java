@@ -0,0 +1,172 @@
+package plang;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Implements a P program compiled into the running JVM, so that it can be run without writing, assembling and
+ * loading its class file, and without starting a new JVM.
+ * <p>
+ * The class file of the program is defined as a hidden class (see
+ * {@link MethodHandles.Lookup#defineHiddenClass(byte[], boolean, MethodHandles.Lookup.ClassOption...)}), whose name is
+ * made unique by the JVM, so that any number of programs (even of the same source) can be defined. Since the class is
+ * not strongly linked to its class loader, it is unloaded once the program is no longer reachable.
+ * <p>
+ * As the {@code Output} class of the generated code, the program reads from the standard input and prints to the
+ * standard output when it is run as a {@link Runnable}. It can also be embedded, reading from an {@link IntSupplier}
+ * or an array and printing to an {@link IntConsumer} or an array: each of these is a method of the class, into which
+ * the source and the sink are passed as arguments, so that the program can be run any number of times (even
+ * concurrently) with no setup and no boxing.
+ */
+public final class Program implements Runnable {
+    /**
+     * The internal name of the classes of the programs, which shall be in the package of this class
+     */
+    private static final String CLASS_NAME = "plang/Output";
+    /**
+     * The (empty) arguments of the {@code main} method of the programs
+     */
+    private static final String[] NO_ARGUMENTS = new String[0];
+    /**
+     * The hidden class of the program
+     */
+    private final Class<?> programClass;
+    /**
+     * The handle of the {@code main} method of the program
+     */
+    private final MethodHandle main;
+    /**
+     * The handle of the {@code run(IntSupplier, IntConsumer)V} method of the program
+     */
+    private final MethodHandle runSinks;
+    /**
+     * The handle of the {@code run(int[], int[])I} method of the program
+     */
+    private final MethodHandle runArrays;
+
+    /**
+     * Initializes a new {@link Program}.
+     *
+     * @param lookup The lookup of the hidden class of the program.
+     * @throws NoSuchMethodException  If the class has no {@code main} or {@code run} method.
+     * @throws IllegalAccessException If the {@code main} and {@code run} methods are not accessible.
+     */
+    private Program(MethodHandles.Lookup lookup) throws NoSuchMethodException, IllegalAccessException {
+        this.programClass = lookup.lookupClass();
+        this.main = lookup.findStatic(programClass, "main", MethodType.methodType(void.class, String[].class));
+        this.runSinks = lookup.findStatic(programClass, "run",
+                MethodType.methodType(void.class, IntSupplier.class, IntConsumer.class));
+        this.runArrays = lookup.findStatic(programClass, "run",
+                MethodType.methodType(int.class, int[].class, int[].class));
+    }
+
+    /**
+     * Compiles the program of a source file.
+     *
+     * @param filePath The path of the source file.
+     * @return The compiled program.
+     * @throws IOException If an I/O error occurs reading the source, or if the source is not a valid program.
+     */
+    public static Program compile(String filePath) throws IOException {
+        return compile(new Compiler(filePath));
+    }
+
+    /**
+     * Compiles the program of a source code.
+     *
+     * @param fileName The name of the source, used in error messages.
+     * @param source   The source code.
+     * @return The compiled program.
+     * @throws IOException If the source is not a valid program.
+     */
+    public static Program compile(String fileName, String source) throws IOException {
+        return compile(new Compiler(fileName, new StringReader(source)));
+    }
+
+    /**
+     * Compiles the program of the source of a compiler.
+     *
+     * @param compiler The compiler of the source, which shall not have compiled it yet.
+     * @return The compiled program.
+     * @throws IOException           If the source is not a valid program (only if it is compiled in one pass).
+     * @throws IllegalStateException If the code of the program is too large for a method.
+     */
+    public static Program compile(Compiler compiler) throws IOException {
+        byte[] classFile = compiler.compileClass(CLASS_NAME);
+
+        try {
+            return new Program(MethodHandles.lookup().defineHiddenClass(classFile, true));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Unable to define the class of the program", e);
+        }
+    }
+
+    /**
+     * Gets the name of the hidden class of the program, which is unique in the JVM.
+     *
+     * @return The name of the class of the program.
+     */
+    public String getClassName() {
+        return programClass.getName();
+    }
+
+    /**
+     * Runs the program, reading from the standard input and printing to the standard output.
+     * The printed integers are buffered by the program, and written to {@link System#out} when the buffer is full and
+     * when the program ends (even if it throws an exception), so this method shall not be invoked concurrently.
+     *
+     * @throws ArithmeticException If the program divides by zero.
+     */
+    @Override
+    public void run() {
+        try {
+            main.invokeExact(NO_ARGUMENTS);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("The program threw an unexpected exception", e);
+        }
+    }
+
+    /**
+     * Runs the program, reading from a source of integers and printing to a sink of integers.
+     *
+     * @param input  The source of the integers read by the program.
+     * @param output The sink of the integers printed by the program.
+     * @throws ArithmeticException If the program divides by zero.
+     */
+    public void run(IntSupplier input, IntConsumer output) {
+        try {
+            runSinks.invokeExact(input, output);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("The program threw an unexpected exception", e);
+        }
+    }
+
+    /**
+     * Runs the program, reading the elements of an array and printing into the elements of another array, in order.
+     *
+     * @param input  The integers read by the program.
+     * @param output The array into which the integers printed by the program are stored, from its first element.
+     * @return The number of integers printed by the program.
+     * @throws ArithmeticException            If the program divides by zero.
+     * @throws ArrayIndexOutOfBoundsException If the program reads more integers than the input holds, or prints more
+     *                                        integers than the output can hold.
+     */
+    public int run(int[] input, int[] output) {
+        try {
+            return (int) runArrays.invokeExact(input, output);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("The program threw an unexpected exception", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package plang;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implements a {@link LexerInput} that reads a source from a character stream, encoding it in UTF-8.
+ */
+final class ReaderLexerInput implements LexerInput {
+    /**
+     * The size of the character buffer
+     */
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+    /**
+     * The maximum number of bytes into which a character (or a surrogate pair) is encoded
+     */
+    private static final int MAX_CHAR_LENGTH = 4;
+    /**
+     * The reader from which the source is read
+     */
+    private final Reader reader;
+    /**
+     * The encoder that converts the characters into bytes
+     */
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    /**
+     * The buffer of the characters read but not yet encoded
+     */
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE).flip();
+    /**
+     * The bytes of an encoded character that did not fit into the destination of a read, and that are still to be read
+     */
+    private final ByteBuffer overflow = ByteBuffer.allocate(MAX_CHAR_LENGTH).flip();
+    /**
+     * Whether the end of the reader has been reached
+     */
+    private boolean endOfInput;
+    /**
+     * Whether the encoder has been flushed
+     */
+    private boolean flushed;
+
+    /**
+     * Initializes a new {@link ReaderLexerInput} for the specified reader.
+     *
+     * @param reader The reader from which the source is read.
+     */
+    ReaderLexerInput(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int read(byte[] destination, int offset, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(destination, offset, length);
+
+        while (bytes.position() == offset) {
+            if (overflow.hasRemaining()) {
+                int count = Math.min(length, overflow.remaining());
+                overflow.get(destination, offset, count);
+                return count;
+            }
+
+            if (flushed)
+                return -1;
+
+            if (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+                if (bytes.position() > offset)
+                    break;
+
+                // The next character does not fit into the destination: it is encoded on its own, and its bytes are
+                // read from the overflow buffer (across several reads, if needed), so that a read never returns 0
+                overflow.clear();
+                encoder.encode(chars, overflow, endOfInput);
+                overflow.flip();
+                continue;
+            }
+
+            if (endOfInput) {
+                if (encoder.flush(bytes).isOverflow())
+                    break;
+
+                flushed = true;
+                continue;
+            }
+
+            chars.compact();
+            endOfInput = reader.read(chars) < 0;
+            chars.flip();
+        }
+
+        return bytes.position() - offset;
+    }
+}
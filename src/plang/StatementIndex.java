@@ -0,0 +1,240 @@
+package plang;
+
+import plang.ast.StatAstNode;
+
+import java.util.Arrays;
+
+/**
+ * Represents an index of the {@code <stat>} nodes of an AST, which maps each of them to the range of tokens from which
+ * it has been parsed.
+ * <p>
+ * The entries are stored in pre-order, so that the entries of the nested statements of a statement immediately follow
+ * its own entry, and that the first tokens of the entries are strictly increasing. Each entry holds the index of the
+ * entry of its parent statement (or {@code -1} for a top-level statement), and its slot into the parent node: the index
+ * into the {@code <statlist>} of a block statement or of the program, or {@code 0} for the statement of a while or if
+ * statement and {@code 1} for the statement of the else branch of an if statement.
+ */
+final class StatementIndex {
+    /**
+     * The indices of the first tokens of the statements
+     */
+    private int[] starts = new int[64];
+    /**
+     * The indices of the tokens that follow the statements
+     */
+    private int[] ends = new int[64];
+    /**
+     * The indices of the entries of the parent statements, or {@code -1} for the top-level statements
+     */
+    private int[] parents = new int[64];
+    /**
+     * The slots of the statements into their parent nodes
+     */
+    private int[] slots = new int[64];
+    /**
+     * The nodes of the statements
+     */
+    private StatAstNode[] nodes = new StatAstNode[64];
+    /**
+     * The number of entries
+     */
+    private int count;
+
+    /**
+     * Removes all the entries.
+     */
+    void clear() {
+        Arrays.fill(nodes, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Adds the entry of a statement whose parsing has just started.
+     *
+     * @param start  The index of the first token of the statement.
+     * @param parent The index of the entry of the parent statement, or {@code -1} for a top-level statement.
+     * @param slot   The slot of the statement into its parent node.
+     * @return The index of the new entry.
+     */
+    int open(int start, int parent, int slot) {
+        ensureCapacity(count + 1);
+        starts[count] = start;
+        parents[count] = parent;
+        slots[count] = slot;
+        return count++;
+    }
+
+    /**
+     * Completes the entry of a statement that has been parsed.
+     *
+     * @param entry The index of the entry.
+     * @param end   The index of the token that follows the statement.
+     * @param node  The node of the statement.
+     */
+    void close(int entry, int end, StatAstNode node) {
+        ends[entry] = end;
+        nodes[entry] = node;
+    }
+
+    /**
+     * Gets the index of the first token of a statement.
+     *
+     * @param entry The index of the entry.
+     * @return The index of the first token of the statement.
+     */
+    int getStart(int entry) {
+        return starts[entry];
+    }
+
+    /**
+     * Gets the index of the token that follows a statement.
+     *
+     * @param entry The index of the entry.
+     * @return The index of the token that follows the statement.
+     */
+    int getEnd(int entry) {
+        return ends[entry];
+    }
+
+    /**
+     * Gets the entry of the parent statement of a statement.
+     *
+     * @param entry The index of the entry.
+     * @return The index of the entry of the parent statement, or {@code -1} for a top-level statement.
+     */
+    int getParent(int entry) {
+        return parents[entry];
+    }
+
+    /**
+     * Gets the slot of a statement into its parent node.
+     *
+     * @param entry The index of the entry.
+     * @return The slot of the statement into its parent node.
+     */
+    int getSlot(int entry) {
+        return slots[entry];
+    }
+
+    /**
+     * Gets the node of a statement.
+     *
+     * @param entry The index of the entry.
+     * @return The node of the statement.
+     */
+    StatAstNode getNode(int entry) {
+        return nodes[entry];
+    }
+
+    /**
+     * Sets the node of a statement (e.g., once a copy of it has been made with a new nested statement).
+     *
+     * @param entry The index of the entry.
+     * @param node  The new node of the statement.
+     */
+    void setNode(int entry, StatAstNode node) {
+        nodes[entry] = node;
+    }
+
+    /**
+     * Finds the innermost statement that contains a range of tokens.
+     *
+     * @param from The index of the first token of the range.
+     * @param to   The index of the token that follows the range.
+     * @return The index of the entry of the innermost statement that contains the range, or {@code -1} if no statement
+     * contains it.
+     */
+    int findEnclosing(int from, int to) {
+        int entry = Arrays.binarySearch(starts, 0, count, from);
+
+        // The last statement that starts at or before the range, or one of its ancestors, is the enclosing one
+        if (entry < 0)
+            entry = -entry - 2;
+
+        while (entry >= 0 && ends[entry] < to)
+            entry = parents[entry];
+
+        return entry;
+    }
+
+    /**
+     * Replaces the entries of a statement and of its nested statements with the entries of a statement that has been
+     * parsed again, and shifts the tokens of the following statements.
+     *
+     * @param entry The index of the entry of the replaced statement.
+     * @param index The index of the new statement, whose first entry is the one of the new statement itself, and whose
+     *              token indices are already those of the new tokens.
+     * @param delta The number of tokens added (or removed, if negative) by the replacement.
+     */
+    void replace(int entry, StatementIndex index, int delta) {
+        int parent = parents[entry];
+        int slot = slots[entry];
+        int end = entry + 1;
+
+        // The nested statements are the following ones that start before the end of the statement
+        while (end < count && starts[end] < ends[entry])
+            end++;
+
+        int shift = index.count - (end - entry);
+        int newCount = count + shift;
+        ensureCapacity(newCount);
+
+        System.arraycopy(starts, end, starts, end + shift, count - end);
+        System.arraycopy(ends, end, ends, end + shift, count - end);
+        System.arraycopy(parents, end, parents, end + shift, count - end);
+        System.arraycopy(slots, end, slots, end + shift, count - end);
+        System.arraycopy(nodes, end, nodes, end + shift, count - end);
+
+        for (int i = end + shift; i < newCount; i++) {
+            starts[i] += delta;
+            ends[i] += delta;
+
+            if (parents[i] >= end)
+                parents[i] += shift;
+        }
+
+        System.arraycopy(index.starts, 0, starts, entry, index.count);
+        System.arraycopy(index.ends, 0, ends, entry, index.count);
+        System.arraycopy(index.slots, 0, slots, entry, index.count);
+        System.arraycopy(index.nodes, 0, nodes, entry, index.count);
+
+        for (int i = 0; i < index.count; i++)
+            parents[entry + i] = index.parents[i] < 0 ? parent : index.parents[i] + entry;
+
+        slots[entry] = slot;
+
+        for (int i = parent; i >= 0; i = parents[i])
+            ends[i] += delta;
+
+        if (newCount < count)
+            Arrays.fill(nodes, newCount, count, null);
+
+        count = newCount;
+    }
+
+    /**
+     * Ensures that the index can hold the specified number of entries.
+     *
+     * @param capacity The number of entries.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= starts.length)
+            return;
+
+        int newCapacity = Math.max(starts.length * 2, capacity);
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        parents = Arrays.copyOf(parents, newCapacity);
+        slots = Arrays.copyOf(slots, newCapacity);
+        nodes = Arrays.copyOf(nodes, newCapacity);
+    }
+}
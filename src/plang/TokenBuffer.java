@@ -0,0 +1,317 @@
+package plang;
+
+import plang.tokens.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Represents the whole sequence of tokens of a P source, as produced by {@link Lexer#tokenize()}.
+ * <p>
+ * Tokens are not stored as objects, but as parallel arrays (a struct of arrays) that hold, for each token, the
+ * ordinal of its {@link TokenKind}, its payload (the value of a number, or the symbol id of an identifier, see
+ * {@link SymbolPool}) and its source offset. The source offset of a token is the byte offset from which the lexer
+ * started scanning it, after the preceding comments, and is the offset at which errors about the token are
+ * reported. The last token is always {@link TokenKind#END_OF_FILE}.
+ * <p>
+ * If the tokenization has been stopped by a lexical error, the error is stored as the last entry of the buffer (whose
+ * kind is {@link TokenKind#END_OF_FILE}), and it is thrown only when a parser reaches that entry, so that the errors
+ * of the source are reported in the same order as when it is parsed while it is tokenized.
+ */
+public final class TokenBuffer {
+    /**
+     * The kinds of token, indexed by their ordinal
+     */
+    private static final TokenKind[] KINDS = TokenKind.values();
+    /**
+     * The name of the source file
+     */
+    private final String fileName;
+    /**
+     * The pool in which the identifiers are interned
+     */
+    private final SymbolPool symbols;
+    /**
+     * The map from the source offsets to line and column numbers
+     */
+    private LineMap lines;
+    /**
+     * The ordinal of the kind of each token
+     */
+    private int[] kinds = new int[1024];
+    /**
+     * The payload of each token
+     */
+    private int[] payloads = new int[1024];
+    /**
+     * The source offset of each token
+     */
+    private int[] offsets = new int[1024];
+    /**
+     * The number of tokens
+     */
+    private int size;
+    /**
+     * The lexical error stored as the last entry, or {@code null} if the last entry is a {@code END_OF_FILE} token
+     */
+    private IOException error;
+
+    /**
+     * Initializes a new empty {@link TokenBuffer}.
+     *
+     * @param fileName The name of the source file.
+     * @param symbols  The pool in which the identifiers are interned.
+     * @param lines    The map from the source offsets to line and column numbers.
+     */
+    TokenBuffer(String fileName, SymbolPool symbols, LineMap lines) {
+        this.fileName = fileName;
+        this.symbols = symbols;
+        this.lines = lines;
+    }
+
+    /**
+     * Appends a token to the buffer.
+     *
+     * @param kind    The ordinal of the kind of the token.
+     * @param payload The payload of the token.
+     * @param offset  The source offset of the token.
+     */
+    void add(int kind, int payload, int offset) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            payloads = Arrays.copyOf(payloads, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+
+        kinds[size] = kind;
+        payloads[size] = payload;
+        offsets[size++] = offset;
+    }
+
+    /**
+     * Appends a lexical error to the buffer, as its last entry.
+     *
+     * @param error  The lexical error.
+     * @param offset The source offset from which the token that caused the error has been scanned.
+     */
+    void addError(IOException error, int offset) {
+        add(TokenKind.END_OF_FILE.ordinal(), 0, offset);
+        this.error = error;
+    }
+
+    /**
+     * Appends the tokens of another buffer, whose identifiers have been interned into another symbol pool.
+     *
+     * @param tokens    The buffer holding the tokens to be appended.
+     * @param count     The number of tokens to be appended, starting from the first one (if all of them are appended,
+     *                  so is the lexical error that ends them, if any).
+     * @param symbolMap The symbol ids in the pool of this buffer, indexed by the symbol ids in the other pool.
+     * @param offset    The source offset to be assigned to the first appended token.
+     */
+    void append(TokenBuffer tokens, int count, int[] symbolMap, int offset) {
+        if (size + count > kinds.length) {
+            int capacity = Math.max(kinds.length * 2, size + count);
+            kinds = Arrays.copyOf(kinds, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+
+        System.arraycopy(tokens.kinds, 0, kinds, size, count);
+        System.arraycopy(tokens.payloads, 0, payloads, size, count);
+        System.arraycopy(tokens.offsets, 0, offsets, size, count);
+
+        for (int i = size; i < size + count; i++)
+            if (kinds[i] == TokenKind.IDENTIFIER.ordinal())
+                payloads[i] = symbolMap[payloads[i]];
+
+        if (count > 0)
+            offsets[size] = offset;
+        if (count == tokens.size)
+            error = tokens.error;
+
+        size += count;
+    }
+
+    /**
+     * Replaces a range of tokens with the tokens of another buffer, whose identifiers have been interned into the
+     * same symbol pool, shifting the source offsets of the following tokens.
+     * If the range extends to the end of the buffer, the lexical error that ends the replacing tokens, if any, ends the
+     * buffer.
+     *
+     * @param from        The index of the first token to be replaced.
+     * @param to          The index after the last token to be replaced.
+     * @param replacement The buffer holding the replacing tokens.
+     * @param delta       The amount by which the source offsets of the following tokens are shifted.
+     * @param lines       The map from the new source offsets to line and column numbers.
+     */
+    void splice(int from, int to, TokenBuffer replacement, int delta, LineMap lines) {
+        int count = replacement.size;
+        int newSize = from + count + size - to;
+
+        if (newSize > kinds.length) {
+            int capacity = Math.max(kinds.length * 2, newSize);
+            kinds = Arrays.copyOf(kinds, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+
+        System.arraycopy(kinds, to, kinds, from + count, size - to);
+        System.arraycopy(payloads, to, payloads, from + count, size - to);
+        System.arraycopy(offsets, to, offsets, from + count, size - to);
+
+        System.arraycopy(replacement.kinds, 0, kinds, from, count);
+        System.arraycopy(replacement.payloads, 0, payloads, from, count);
+        System.arraycopy(replacement.offsets, 0, offsets, from, count);
+
+        for (int i = from + count; i < newSize; i++)
+            offsets[i] += delta;
+
+        if (to == size)
+            this.error = replacement.error;
+
+        this.size = newSize;
+        this.lines = lines;
+    }
+
+    /**
+     * Finds the last token whose source offset precedes the specified offset.
+     *
+     * @param offset The source offset.
+     * @return The index of the last token whose source offset precedes the specified offset, or {@code -1} if
+     * there is none.
+     */
+    int findBefore(int offset) {
+        int index = Arrays.binarySearch(offsets, 0, size, offset);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    /**
+     * Finds the token with the specified source offset.
+     *
+     * @param offset The source offset.
+     * @param from   The index of the first token to be searched.
+     * @return The index of the token with the specified source offset, or {@code -1} if there is none.
+     */
+    int find(int offset, int from) {
+        int index = Arrays.binarySearch(offsets, from, size, offset);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Gets the lexical error stored as the last entry of the buffer.
+     *
+     * @return The lexical error that has stopped the tokenization, or {@code null} if the whole source has been
+     * tokenized.
+     */
+    public IOException getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets the number of tokens, including the final {@link TokenKind#END_OF_FILE} token.
+     *
+     * @return The number of tokens.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the kind of the specified token.
+     *
+     * @param index The index of the token.
+     * @return The kind of the token.
+     */
+    public TokenKind getKind(int index) {
+        return KINDS[kinds[checkIndex(index)]];
+    }
+
+    /**
+     * Gets the payload of the specified token.
+     *
+     * @param index The index of the token.
+     * @return The value of the token, if it is a number; the symbol id of the token, if it is an identifier;
+     * otherwise, {@code 0}.
+     */
+    public int getPayload(int index) {
+        return payloads[checkIndex(index)];
+    }
+
+    /**
+     * Gets the source offset of the specified token.
+     *
+     * @param index The index of the token.
+     * @return The source offset of the token.
+     */
+    public int getOffset(int index) {
+        return offsets[checkIndex(index)];
+    }
+
+    /**
+     * Gets the line number of the specified token.
+     *
+     * @param index The index of the token.
+     * @return The line number of the token.
+     */
+    public int getLine(int index) {
+        return lines.lineOf(offsets[checkIndex(index)]);
+    }
+
+    /**
+     * Gets the column number of the specified token.
+     *
+     * @param index The index of the token.
+     * @return The column number of the token.
+     */
+    public int getColumn(int index) {
+        return lines.columnOf(offsets[checkIndex(index)]);
+    }
+
+    /**
+     * Gets the specified token as an object.
+     * Identifiers are taken from the symbol pool, and small numbers from the cache of {@link NumberToken}, so that
+     * only larger numbers are allocated.
+     *
+     * @param index The index of the token.
+     * @return The token.
+     */
+    public Token getToken(int index) {
+        return switch (getKind(index)) {
+            case NUMBER -> NumberToken.valueOf(payloads[index]);
+            case IDENTIFIER -> symbols.get(payloads[index]);
+            default -> CommonTokens.get(KINDS[kinds[index]]);
+        };
+    }
+
+    /**
+     * Gets the pool in which the identifiers are interned.
+     *
+     * @return The pool in which the identifiers are interned.
+     */
+    public SymbolPool getSymbols() {
+        return this.symbols;
+    }
+
+    /**
+     * Gets the name of the P source file.
+     *
+     * @return The name of the P source file.
+     */
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    /**
+     * Checks that the specified index identifies a token of the buffer.
+     *
+     * @param index The index of the token.
+     * @return The index.
+     * @throws IndexOutOfBoundsException If the index does not identify a token of the buffer.
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Invalid token index: " + index);
+
+        return index;
+    }
+}
@@ -0,0 +1,82 @@
+package plang;
+
+import plang.tokens.Token;
+
+import java.io.IOException;
+
+/**
+ * Implements a {@link TokenSource} that consumes the tokens of a {@link TokenBuffer} by index.
+ * The lexical error that ends the buffer, if any, is thrown when the cursor reaches it, as the lexer would have thrown
+ * it.
+ */
+final class TokenCursor implements TokenSource {
+    /**
+     * The buffer holding the tokens
+     */
+    private final TokenBuffer tokens;
+    /**
+     * The index of the next token
+     */
+    private int index;
+    /**
+     * The index of the last read token
+     */
+    private int last;
+
+    /**
+     * Initializes a new {@link TokenCursor} positioned on the first token of the specified buffer.
+     *
+     * @param tokens The buffer holding the tokens.
+     */
+    TokenCursor(TokenBuffer tokens) {
+        this(tokens, 0);
+    }
+
+    /**
+     * Initializes a new {@link TokenCursor} positioned on the specified token of a buffer.
+     *
+     * @param tokens The buffer holding the tokens.
+     * @param index  The index of the first token to be read.
+     */
+    TokenCursor(TokenBuffer tokens, int index) {
+        this.tokens = tokens;
+        this.index = index;
+    }
+
+    @Override
+    public Token nextToken() throws IOException {
+        if (index == tokens.size() - 1 && tokens.getError() != null)
+            throw tokens.getError();
+
+        last = index;
+
+        if (index < tokens.size() - 1)
+            index++;
+
+        return tokens.getToken(last);
+    }
+
+    /**
+     * Gets the index of the last read token.
+     *
+     * @return The index of the last read token.
+     */
+    int getLastIndex() {
+        return last;
+    }
+
+    @Override
+    public int getLastLine() {
+        return tokens.getLine(last);
+    }
+
+    @Override
+    public int getLastColumn() {
+        return tokens.getColumn(last);
+    }
+
+    @Override
+    public String getFileName() {
+        return tokens.getFileName();
+    }
+}
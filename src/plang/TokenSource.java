@@ -0,0 +1,39 @@
+package plang;
+
+import plang.tokens.Token;
+
+import java.io.IOException;
+
+/**
+ * Represents a source of tokens that can be consumed by a {@link Parser}.
+ */
+interface TokenSource {
+    /**
+     * Consumes the next token.
+     *
+     * @return The next token.
+     * @throws IOException If a lexical error occurs, or if an I/O error occurs reading the source.
+     */
+    Token nextToken() throws IOException;
+
+    /**
+     * Gets the line number of the last read token.
+     *
+     * @return The line number of the last read token.
+     */
+    int getLastLine();
+
+    /**
+     * Gets the column number of the last read token.
+     *
+     * @return The column number of the last read token.
+     */
+    int getLastColumn();
+
+    /**
+     * Gets the name of the P source file.
+     *
+     * @return The name of the P source file.
+     */
+    String getFileName();
+}
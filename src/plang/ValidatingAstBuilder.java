@@ -0,0 +1,52 @@
+package plang;
+
+import plang.ast.AstNodeType;
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+import plang.tokens.TokenKind;
+
+/**
+ * Implements a builder that builds no AST, so that the {@link Parser} only recognizes the program.
+ * <p>
+ * No node is kept on the stack: the lists, whose lengths are computed from the size of the stack, are always reduced
+ * as empty lists, which is harmless since they are discarded.
+ */
+final class ValidatingAstBuilder implements AstBuilder<Void> {
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public void pushNumber(NumberToken number) {
+    }
+
+    @Override
+    public void pushIdentifier(IdentifierToken identifier) {
+    }
+
+    @Override
+    public void pushListIdentifier(IdentifierToken identifier) {
+    }
+
+    @Override
+    public void pushEndIf() {
+    }
+
+    @Override
+    public void reduce(TokenKind kind) {
+    }
+
+    @Override
+    public void reduceList(AstNodeType type, int count) {
+    }
+
+    @Override
+    public Void build() {
+        return null;
+    }
+}
@@ -8,6 +8,10 @@ public final class AddExprAstNode extends ExprAstNode {
      * The ID of this production
      */
     public static final int ID = 0;
+    /**
+     * The {@code <exprlist>} child node
+     */
+    private final ExprListAstNode exprList;
 
     /**
      * Initializes a new {@link AddExprAstNode}.
@@ -15,7 +19,7 @@ public final class AddExprAstNode extends ExprAstNode {
      * @param exprList The {@code <exprlist>} child node.
      */
     public AddExprAstNode(ExprListAstNode exprList) {
-        super(exprList);
+        this.exprList = exprList;
     }
 
     @Override
@@ -28,9 +32,13 @@ public final class AddExprAstNode extends ExprAstNode {
      *
      * @return The {@code <exprlist>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public ExprListAstNode getExprList() {
-        return (ExprListAstNode) childNodes.get(0);
+        return this.exprList;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitAddExpr(this);
     }
 
     @Override
@@ -8,6 +8,14 @@ public final class AndBoolExprAstNode extends BoolExprAstNode {
      * The ID of this production
      */
     public static final int ID = 6;
+    /**
+     * The {@code <boolexpr>} child node
+     */
+    private final BoolExprAstNode boolExpr1;
+    /**
+     * The {@code <boolexpr>} child node
+     */
+    private final BoolExprAstNode boolExpr2;
 
     /**
      * Initializes a new {@link AndBoolExprAstNode}.
@@ -16,7 +24,8 @@ public final class AndBoolExprAstNode extends BoolExprAstNode {
      * @param boolExpr2 The second {@code <boolexpr>} child node.
      */
     public AndBoolExprAstNode(BoolExprAstNode boolExpr1, BoolExprAstNode boolExpr2) {
-        super(boolExpr1, boolExpr2);
+        this.boolExpr1 = boolExpr1;
+        this.boolExpr2 = boolExpr2;
     }
 
     /**
@@ -24,9 +33,8 @@ public final class AndBoolExprAstNode extends BoolExprAstNode {
      *
      * @return The first {@code <boolexpr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public BoolExprAstNode getBoolExpr1() {
-        return (BoolExprAstNode) childNodes.get(0);
+        return this.boolExpr1;
     }
 
     /**
@@ -35,7 +43,7 @@ public final class AndBoolExprAstNode extends BoolExprAstNode {
      * @return The second {@code <boolexpr>} child node.
      */
     public BoolExprAstNode getBoolExpr2() {
-        return (BoolExprAstNode) childNodes.get(1);
+        return this.boolExpr2;
     }
 
     @Override
@@ -43,6 +51,11 @@ public final class AndBoolExprAstNode extends BoolExprAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitAndBoolExpr(this);
+    }
+
     @Override
     public String toString() {
         return "&&" + " " + getBoolExpr1() + " " + getBoolExpr2();
@@ -8,6 +8,14 @@ public final class AssignStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 0;
+    /**
+     * The {@code <expr>} child node
+     */
+    private final ExprAstNode expr;
+    /**
+     * The {@code <idlist>} child node
+     */
+    private final IdListAstNode idList;
 
     /**
      * Initializes a new {@link AssignStatAstNode}.
@@ -16,7 +24,8 @@ public final class AssignStatAstNode extends StatAstNode {
      * @param idList The {@code <idlist>} child node.
      */
     public AssignStatAstNode(ExprAstNode expr, IdListAstNode idList) {
-        super(expr, idList);
+        this.expr = expr;
+        this.idList = idList;
     }
 
     /**
@@ -24,9 +33,8 @@ public final class AssignStatAstNode extends StatAstNode {
      *
      * @return The {@code <expr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public ExprAstNode getExpr() {
-        return (ExprAstNode) childNodes.get(0);
+        return this.expr;
     }
 
     /**
@@ -35,7 +43,7 @@ public final class AssignStatAstNode extends StatAstNode {
      * @return The {@code <idlist>} child node.
      */
     public IdListAstNode getIdList() {
-        return (IdListAstNode) childNodes.get(1);
+        return this.idList;
     }
 
     @Override
@@ -43,6 +51,11 @@ public final class AssignStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitAssignStat(this);
+    }
+
     @Override
     public String toString() {
         return "assign" + " " + getExpr() + " " + "to" + " " + getIdList();
@@ -0,0 +1,351 @@
+package plang.ast;
+
+import plang.tokens.IdentifierToken;
+import plang.tokens.NumberToken;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implements a compact AST, whose nodes are stored into parallel columns of an arena instead of being allocated one
+ * by one.
+ * <p>
+ * A node is an index into the arena, and it is made of its type, its production id, the index of its first child
+ * node, the index of its next sibling node, and a payload (the value of a number, or the symbol id of an identifier).
+ * Nodes are added after their child nodes (i.e., in post-order), so that the nodes of a subtree are stored in a
+ * contiguous range of indices that ends with its root, and the root of the whole AST is the last node.
+ * <p>
+ * The identifiers of an {@code <idlist>} are stored as child nodes of type {@link AstNodeType#IDENTIFIER}.
+ * The nodes can be traversed through an {@link AstCursor}, or turned back into {@link AstNode}s one subtree at a time.
+ */
+public final class AstArena {
+    /**
+     * The index that denotes a missing node (e.g., the first child node of a leaf node)
+     */
+    public static final int NO_NODE = -1;
+    /**
+     * The initial capacity of the arena
+     */
+    private static final int INITIAL_CAPACITY = 256;
+    /**
+     * The AST node types, indexed by ordinal
+     */
+    private static final AstNodeType[] TYPES = AstNodeType.values();
+    /**
+     * The ordinals of the types of the nodes
+     */
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    /**
+     * The production ids of the nodes
+     */
+    private byte[] productions = new byte[INITIAL_CAPACITY];
+    /**
+     * The indices of the first child nodes of the nodes
+     */
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+    /**
+     * The indices of the next sibling nodes of the nodes
+     */
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+    /**
+     * The payloads of the nodes
+     */
+    private int[] payloads = new int[INITIAL_CAPACITY];
+    /**
+     * The number of nodes
+     */
+    private int size;
+    /**
+     * The identifiers of the AST, indexed by symbol id
+     */
+    private IdentifierToken[] identifiers = new IdentifierToken[16];
+    /**
+     * The symbol ids of the identifiers of the AST, by lexeme
+     */
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+
+    /**
+     * Adds a node to the arena.
+     * The child nodes are linked to each other in order, and shall not have been added as child nodes of another node.
+     *
+     * @param type         The type of the node.
+     * @param productionId The id of the production of the node in the grammar.
+     * @param payload      The payload of the node.
+     * @param children     The array that holds the indices of the child nodes.
+     * @param from         The index of the first child node in the array.
+     * @param to           The index after the last child node in the array.
+     * @return The index of the node.
+     */
+    public int add(AstNodeType type, int productionId, int payload, int[] children, int from, int to) {
+        if (size == types.length) {
+            int capacity = Math.max(size * 2, INITIAL_CAPACITY);
+            types = Arrays.copyOf(types, capacity);
+            productions = Arrays.copyOf(productions, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+
+        for (int i = from; i + 1 < to; i++)
+            nextSiblings[children[i]] = children[i + 1];
+
+        int node = size++;
+
+        types[node] = (byte) type.ordinal();
+        productions[node] = (byte) productionId;
+        firstChildren[node] = from < to ? children[from] : NO_NODE;
+        nextSiblings[node] = NO_NODE;
+        payloads[node] = payload;
+        return node;
+    }
+
+    /**
+     * Gets the symbol id of the specified identifier, interning it if it has not been interned yet.
+     *
+     * @param identifier The identifier.
+     * @return The symbol id of the identifier.
+     */
+    public int intern(IdentifierToken identifier) {
+        Integer symbolId = symbolIds.get(identifier.getLexeme());
+
+        if (symbolId != null)
+            return symbolId;
+
+        int id = symbolIds.size();
+
+        if (id == identifiers.length)
+            identifiers = Arrays.copyOf(identifiers, Math.max(id * 2, 16));
+
+        identifiers[id] = identifier;
+        symbolIds.put(identifier.getLexeme(), id);
+        return id;
+    }
+
+    /**
+     * Shrinks the columns of the arena to the number of nodes.
+     */
+    public void trim() {
+        types = Arrays.copyOf(types, size);
+        productions = Arrays.copyOf(productions, size);
+        firstChildren = Arrays.copyOf(firstChildren, size);
+        nextSiblings = Arrays.copyOf(nextSiblings, size);
+        payloads = Arrays.copyOf(payloads, size);
+        identifiers = Arrays.copyOf(identifiers, symbolIds.size());
+    }
+
+    /**
+     * Gets the number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the root node of the AST.
+     *
+     * @return The index of the root node, or {@link #NO_NODE} if the arena is empty.
+     */
+    public int getRoot() {
+        return size - 1;
+    }
+
+    /**
+     * Gets the type of the specified node.
+     *
+     * @param node The index of the node.
+     * @return The type of the node.
+     */
+    public AstNodeType getType(int node) {
+        return TYPES[types[node]];
+    }
+
+    /**
+     * Gets the id of the production of the specified node in the grammar.
+     *
+     * @param node The index of the node.
+     * @return The id of the production of the node.
+     */
+    public int getProductionId(int node) {
+        return productions[node];
+    }
+
+    /**
+     * Gets the first child node of the specified node.
+     *
+     * @param node The index of the node.
+     * @return The index of the first child node, or {@link #NO_NODE} if the node has no child nodes.
+     */
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * Gets the next sibling node of the specified node.
+     *
+     * @param node The index of the node.
+     * @return The index of the next sibling node, or {@link #NO_NODE} if the node is the last child of its parent.
+     */
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * Gets the payload of the specified node.
+     *
+     * @param node The index of the node.
+     * @return The value of a number node, the symbol id of an identifier node, or {@code 0} for the other nodes.
+     */
+    public int getPayload(int node) {
+        return payloads[node];
+    }
+
+    /**
+     * Gets the identifier with the specified symbol id.
+     *
+     * @param symbolId The symbol id.
+     * @return The identifier with the specified symbol id.
+     * @throws IndexOutOfBoundsException If no identifier has the specified symbol id.
+     */
+    public IdentifierToken getIdentifier(int symbolId) {
+        if (symbolId < 0 || symbolId >= symbolIds.size())
+            throw new IndexOutOfBoundsException("Invalid symbol id: " + symbolId);
+
+        return identifiers[symbolId];
+    }
+
+    /**
+     * Creates a cursor positioned on the root node of the AST.
+     *
+     * @return The cursor.
+     * @throws IllegalStateException If the arena is empty.
+     */
+    public AstCursor cursor() {
+        if (size == 0)
+            throw new IllegalStateException("The arena is empty");
+
+        return new AstCursor(this, getRoot());
+    }
+
+    /**
+     * Turns the subtree rooted at the specified node into {@link AstNode}s.
+     * <p>
+     * Since the nodes of the subtree are stored in post-order in a contiguous range, they are turned into
+     * {@link AstNode}s by a single pass over the range, without recursion.
+     *
+     * @param node The index of the root node of the subtree.
+     * @return The root {@link AstNode} of the subtree, or {@code null} if the node is an identifier of an
+     * {@code <idlist>}, which is not an {@link AstNode} on its own.
+     */
+    public AstNode toAstNode(int node) {
+        int start = node;
+
+        while (firstChildren[start] != NO_NODE)
+            start = firstChildren[start];
+
+        AstNode[] stack = new AstNode[16];
+        int depth = 0;
+
+        for (int i = start; i <= node; i++) {
+            if (types[i] == AstNodeType.IDENTIFIER.ordinal())
+                continue;
+
+            int childCount = 0;
+
+            if (types[i] != AstNodeType.ID_LIST.ordinal())
+                for (int child = firstChildren[i]; child != NO_NODE; child = nextSiblings[child])
+                    childCount++;
+
+            depth -= childCount;
+            AstNode astNode = build(i, stack, depth, childCount);
+
+            if (depth == stack.length)
+                stack = Arrays.copyOf(stack, depth * 2);
+
+            stack[depth++] = astNode;
+        }
+
+        return depth == 0 ? null : stack[0];
+    }
+
+    /**
+     * Builds the {@link AstNode} of the specified node, whose child nodes have already been built.
+     *
+     * @param node       The index of the node.
+     * @param stack      The array that holds the child nodes.
+     * @param from       The index of the first child node in the array.
+     * @param childCount The number of child nodes.
+     * @return The {@link AstNode} of the node.
+     */
+    private AstNode build(int node, AstNode[] stack, int from, int childCount) {
+        int production = productions[node];
+
+        return switch (getType(node)) {
+            case PROG -> new ProgAstNode((StatListAstNode) stack[from]);
+            case STAT_LIST -> new StatListAstNode(Arrays.copyOfRange(stack, from, from + childCount, StatAstNode[].class));
+            case STAT -> switch (production) {
+                case AssignStatAstNode.ID ->
+                        new AssignStatAstNode((ExprAstNode) stack[from], (IdListAstNode) stack[from + 1]);
+                case PrintStatAstNode.ID -> new PrintStatAstNode((ExprListAstNode) stack[from]);
+                case ReadStatAstNode.ID -> new ReadStatAstNode((IdListAstNode) stack[from]);
+                case WhileStatAstNode.ID ->
+                        new WhileStatAstNode((BoolExprAstNode) stack[from], (StatAstNode) stack[from + 1]);
+                case IfStatAstNode.ID ->
+                        new IfStatAstNode((BoolExprAstNode) stack[from], (StatAstNode) stack[from + 1], (IfExAstNode) stack[from + 2]);
+                case BlockStatAstNode.ID -> new BlockStatAstNode((StatListAstNode) stack[from]);
+                default -> throw new IllegalStateException("Unexpected <stat> production id: " + production);
+            };
+            case IF_EX -> switch (production) {
+                case EndIfExAstNode.ID -> new EndIfExAstNode();
+                case ElseIfExAstNode.ID -> new ElseIfExAstNode((StatAstNode) stack[from]);
+                default -> throw new IllegalStateException("Unexpected <ifex> production id: " + production);
+            };
+            case ID_LIST -> {
+                IdentifierToken[] list = new IdentifierToken[8];
+                int count = 0;
+
+                for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                    if (count == list.length)
+                        list = Arrays.copyOf(list, count * 2);
+
+                    list[count++] = identifiers[payloads[child]];
+                }
+
+                yield new IdListAstNode(Arrays.copyOf(list, count));
+            }
+            case BOOL_EXPR -> switch (production) {
+                case EqBoolExprAstNode.ID ->
+                        new EqBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case NeBoolExprAstNode.ID ->
+                        new NeBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case LtBoolExprAstNode.ID ->
+                        new LtBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case LeBoolExprAstNode.ID ->
+                        new LeBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case GtBoolExprAstNode.ID ->
+                        new GtBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case GeBoolExprAstNode.ID ->
+                        new GeBoolExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case AndBoolExprAstNode.ID ->
+                        new AndBoolExprAstNode((BoolExprAstNode) stack[from], (BoolExprAstNode) stack[from + 1]);
+                case OrBoolExprAstNode.ID ->
+                        new OrBoolExprAstNode((BoolExprAstNode) stack[from], (BoolExprAstNode) stack[from + 1]);
+                case NotBoolExprAstNode.ID -> new NotBoolExprAstNode((BoolExprAstNode) stack[from]);
+                default -> throw new IllegalStateException("Unexpected <boolexpr> production id: " + production);
+            };
+            case EXPR -> switch (production) {
+                case AddExprAstNode.ID -> new AddExprAstNode((ExprListAstNode) stack[from]);
+                case SubExprAstNode.ID -> new SubExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case MulExprAstNode.ID -> new MulExprAstNode((ExprListAstNode) stack[from]);
+                case DivExprAstNode.ID -> new DivExprAstNode((ExprAstNode) stack[from], (ExprAstNode) stack[from + 1]);
+                case NumberExprAstNode.ID -> new NumberExprAstNode(NumberToken.valueOf(payloads[node]));
+                case IdentifierExprAstNode.ID -> new IdentifierExprAstNode(identifiers[payloads[node]]);
+                default -> throw new IllegalStateException("Unexpected <expr> production id: " + production);
+            };
+            case EXPR_LIST -> new ExprListAstNode(Arrays.copyOfRange(stack, from, from + childCount, ExprAstNode[].class));
+            default -> throw new IllegalStateException("Unexpected AST node type: " + getType(node));
+        };
+    }
+}
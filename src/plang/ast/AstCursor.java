@@ -0,0 +1,178 @@
+package plang.ast;
+
+import plang.tokens.IdentifierToken;
+
+import java.util.Arrays;
+
+/**
+ * Implements a cursor that traverses the nodes of an {@link AstArena}.
+ * <p>
+ * The cursor is positioned on a node, and it moves to the first child node, to the next sibling node, or back to the
+ * parent node of the current one, remembering the path from the node on which it has been created.
+ */
+public final class AstCursor {
+    /**
+     * The arena that holds the nodes
+     */
+    private final AstArena arena;
+    /**
+     * The node on which the cursor has been created
+     */
+    private final int root;
+    /**
+     * The node on which the cursor is positioned
+     */
+    private int node;
+    /**
+     * The ancestors of the current node, from the node on which the cursor has been created
+     */
+    private int[] path = new int[16];
+    /**
+     * The number of ancestors of the current node
+     */
+    private int depth;
+
+    /**
+     * Initializes a new {@link AstCursor} positioned on the specified node.
+     *
+     * @param arena The arena that holds the nodes.
+     * @param node  The index of the node.
+     */
+    public AstCursor(AstArena arena, int node) {
+        if (node < 0 || node >= arena.size())
+            throw new IndexOutOfBoundsException("Invalid node: " + node);
+
+        this.arena = arena;
+        this.root = node;
+        this.node = node;
+    }
+
+    /**
+     * Moves the cursor to the first child node of the current node.
+     *
+     * @return {@code true} if the cursor has been moved; otherwise (i.e., if the current node has no child nodes),
+     * {@code false}.
+     */
+    public boolean gotoFirstChild() {
+        int child = arena.getFirstChild(node);
+
+        if (child == AstArena.NO_NODE)
+            return false;
+
+        if (depth == path.length)
+            path = Arrays.copyOf(path, depth * 2);
+
+        path[depth++] = node;
+        node = child;
+        return true;
+    }
+
+    /**
+     * Moves the cursor to the next sibling node of the current node.
+     *
+     * @return {@code true} if the cursor has been moved; otherwise (i.e., if the current node is the last child of its
+     * parent, or the node on which the cursor has been created), {@code false}.
+     */
+    public boolean gotoNextSibling() {
+        int sibling = arena.getNextSibling(node);
+
+        if (depth == 0 || sibling == AstArena.NO_NODE)
+            return false;
+
+        node = sibling;
+        return true;
+    }
+
+    /**
+     * Moves the cursor to the parent node of the current node.
+     *
+     * @return {@code true} if the cursor has been moved; otherwise (i.e., if the current node is the node on which the
+     * cursor has been created), {@code false}.
+     */
+    public boolean gotoParent() {
+        if (depth == 0)
+            return false;
+
+        node = path[--depth];
+        return true;
+    }
+
+    /**
+     * Moves the cursor back to the node on which it has been created.
+     */
+    public void reset() {
+        node = root;
+        depth = 0;
+    }
+
+    /**
+     * Gets the node on which the cursor is positioned.
+     *
+     * @return The index of the node.
+     */
+    public int getNode() {
+        return this.node;
+    }
+
+    /**
+     * Gets the depth of the current node, from the node on which the cursor has been created.
+     *
+     * @return The depth of the current node.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Gets the type of the current node.
+     *
+     * @return The type of the current node.
+     */
+    public AstNodeType getType() {
+        return arena.getType(node);
+    }
+
+    /**
+     * Gets the id of the production of the current node in the grammar.
+     *
+     * @return The id of the production of the current node.
+     */
+    public int getProductionId() {
+        return arena.getProductionId(node);
+    }
+
+    /**
+     * Gets the payload of the current node.
+     *
+     * @return The value of a number node, the symbol id of an identifier node, or {@code 0} for the other nodes.
+     */
+    public int getPayload() {
+        return arena.getPayload(node);
+    }
+
+    /**
+     * Gets the identifier of the current node.
+     *
+     * @return The identifier of the current node.
+     * @throws IllegalStateException If the current node is neither an identifier {@code <expr>} nor an identifier of
+     *                               an {@code <idlist>}.
+     */
+    public IdentifierToken getIdentifier() {
+        AstNodeType type = arena.getType(node);
+
+        if (type != AstNodeType.IDENTIFIER && (type != AstNodeType.EXPR || arena.getProductionId(node) != IdentifierExprAstNode.ID))
+            throw new IllegalStateException("The current node is not an identifier");
+
+        return arena.getIdentifier(arena.getPayload(node));
+    }
+
+    /**
+     * Turns the subtree rooted at the current node into {@link AstNode}s.
+     *
+     * @return The root {@link AstNode} of the subtree.
+     * @see AstArena#toAstNode(int)
+     */
+    public AstNode toAstNode() {
+        return arena.toAstNode(node);
+    }
+}
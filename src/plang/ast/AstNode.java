@@ -1,27 +1,15 @@
 package plang.ast;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Represents an AST node.
+ * <p>
+ * The hierarchy of the AST nodes is sealed, with a final class for each production of the grammar, so that the
+ * passes over the AST can dispatch on the nodes through an {@link AstVisitor}, without switching on the production
+ * ids and casting the nodes.
  */
-public abstract class AstNode {
-    /**
-     * The list of child nodes
-     */
-    protected final List<AstNode> childNodes = new ArrayList<>();
-
-    /**
-     * Initializes a new {@link AstNode} with the specified list of child nodes.
-     *
-     * @param childNodes The child nodes of the AST node.
-     */
-    protected AstNode(AstNode... childNodes) {
-        Collections.addAll(this.childNodes, childNodes);
-    }
-
+public abstract sealed class AstNode
+        permits ProgAstNode, StatListAstNode, StatAstNode, IfExAstNode, IdListAstNode, BoolExprAstNode, ExprAstNode,
+        ExprListAstNode {
     /**
      * Gets the type of AST node.
      *
@@ -35,4 +23,13 @@ public abstract class AstNode {
      * @return The id of the production in the grammar.
      */
     public abstract int getProductionId();
+
+    /**
+     * Accepts a visitor, calling the method of the visitor that visits the production of this node.
+     *
+     * @param visitor The visitor.
+     * @param <R>     The type of the result of the visit.
+     * @return The result of the visit.
+     */
+    public abstract <R> R accept(AstVisitor<R> visitor);
 }
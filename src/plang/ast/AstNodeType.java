@@ -14,11 +14,6 @@ public enum AstNodeType {
      */
     STAT_LIST,
 
-    /**
-     * The AST node is a {@code <statlistex>} AST node.
-     */
-    STAT_LIST_EX,
-
     /**
      * The AST node is a {@code <stat>} AST node.
      */
@@ -30,15 +25,10 @@ public enum AstNodeType {
     IF_EX,
 
     /**
-     * The AST node is a {@link <idlist>} AST node.
+     * The AST node is a {@code <idlist>} AST node.
      */
     ID_LIST,
 
-    /**
-     * The AST node is a {@code <idlistex>} AST node.
-     */
-    ID_LIST_EX,
-
     /**
      * The AST node is a {@code <boolexpr>} AST node.
      */
@@ -55,7 +45,7 @@ public enum AstNodeType {
     EXPR_LIST,
 
     /**
-     * The AST node is a {@code <exprlistex>} AST node.
+     * The AST node is an identifier of an {@code <idlist>} (only found in an {@link AstArena}).
      */
-    EXPR_LIST_EX
+    IDENTIFIER
 }
@@ -0,0 +1,228 @@
+package plang.ast;
+
+/**
+ * Represents a visitor of the AST, which has a method for each production of the grammar.
+ * <p>
+ * A node is visited by calling its {@link AstNode#accept(AstVisitor)} method, which calls the method of the visitor
+ * that visits its production: the nodes of each production are instances of a single final class, so that the call
+ * dispatches directly to the right method, without switching on production ids or casting the node.
+ *
+ * @param <R> The type of the result of a visit.
+ */
+public interface AstVisitor<R> {
+    /**
+     * Visits a {@code <prog>} AST node.
+     *
+     * @param prog The {@code <prog>} AST node.
+     * @return The result of the visit.
+     */
+    R visitProg(ProgAstNode prog);
+
+    /**
+     * Visits a {@code <statlist>} AST node.
+     *
+     * @param statList The {@code <statlist>} AST node.
+     * @return The result of the visit.
+     */
+    R visitStatList(StatListAstNode statList);
+
+    /**
+     * Visits an assign {@code <stat>} AST node.
+     *
+     * @param assignStat The assign {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitAssignStat(AssignStatAstNode assignStat);
+
+    /**
+     * Visits a print {@code <stat>} AST node.
+     *
+     * @param printStat The print {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitPrintStat(PrintStatAstNode printStat);
+
+    /**
+     * Visits a read {@code <stat>} AST node.
+     *
+     * @param readStat The read {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitReadStat(ReadStatAstNode readStat);
+
+    /**
+     * Visits a while {@code <stat>} AST node.
+     *
+     * @param whileStat The while {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitWhileStat(WhileStatAstNode whileStat);
+
+    /**
+     * Visits an if {@code <stat>} AST node.
+     *
+     * @param ifStat The if {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitIfStat(IfStatAstNode ifStat);
+
+    /**
+     * Visits a block {@code <stat>} AST node.
+     *
+     * @param blockStat The block {@code <stat>} AST node.
+     * @return The result of the visit.
+     */
+    R visitBlockStat(BlockStatAstNode blockStat);
+
+    /**
+     * Visits an end {@code <ifex>} AST node.
+     *
+     * @param endIfEx The end {@code <ifex>} AST node.
+     * @return The result of the visit.
+     */
+    R visitEndIfEx(EndIfExAstNode endIfEx);
+
+    /**
+     * Visits an else {@code <ifex>} AST node.
+     *
+     * @param elseIfEx The else {@code <ifex>} AST node.
+     * @return The result of the visit.
+     */
+    R visitElseIfEx(ElseIfExAstNode elseIfEx);
+
+    /**
+     * Visits a {@code <idlist>} AST node.
+     *
+     * @param idList The {@code <idlist>} AST node.
+     * @return The result of the visit.
+     */
+    R visitIdList(IdListAstNode idList);
+
+    /**
+     * Visits an equal {@code <boolexpr>} AST node.
+     *
+     * @param eqBoolExpr The equal {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitEqBoolExpr(EqBoolExprAstNode eqBoolExpr);
+
+    /**
+     * Visits a not equal {@code <boolexpr>} AST node.
+     *
+     * @param neBoolExpr The not equal {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitNeBoolExpr(NeBoolExprAstNode neBoolExpr);
+
+    /**
+     * Visits a less than {@code <boolexpr>} AST node.
+     *
+     * @param ltBoolExpr The less than {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitLtBoolExpr(LtBoolExprAstNode ltBoolExpr);
+
+    /**
+     * Visits a less than or equal {@code <boolexpr>} AST node.
+     *
+     * @param leBoolExpr The less than or equal {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitLeBoolExpr(LeBoolExprAstNode leBoolExpr);
+
+    /**
+     * Visits a greater than {@code <boolexpr>} AST node.
+     *
+     * @param gtBoolExpr The greater than {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitGtBoolExpr(GtBoolExprAstNode gtBoolExpr);
+
+    /**
+     * Visits a greater than or equal {@code <boolexpr>} AST node.
+     *
+     * @param geBoolExpr The greater than or equal {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitGeBoolExpr(GeBoolExprAstNode geBoolExpr);
+
+    /**
+     * Visits an and {@code <boolexpr>} AST node.
+     *
+     * @param andBoolExpr The and {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitAndBoolExpr(AndBoolExprAstNode andBoolExpr);
+
+    /**
+     * Visits an or {@code <boolexpr>} AST node.
+     *
+     * @param orBoolExpr The or {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitOrBoolExpr(OrBoolExprAstNode orBoolExpr);
+
+    /**
+     * Visits a not {@code <boolexpr>} AST node.
+     *
+     * @param notBoolExpr The not {@code <boolexpr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitNotBoolExpr(NotBoolExprAstNode notBoolExpr);
+
+    /**
+     * Visits an add {@code <expr>} AST node.
+     *
+     * @param addExpr The add {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitAddExpr(AddExprAstNode addExpr);
+
+    /**
+     * Visits a subtract {@code <expr>} AST node.
+     *
+     * @param subExpr The subtract {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitSubExpr(SubExprAstNode subExpr);
+
+    /**
+     * Visits a multiply {@code <expr>} AST node.
+     *
+     * @param mulExpr The multiply {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitMulExpr(MulExprAstNode mulExpr);
+
+    /**
+     * Visits a divide {@code <expr>} AST node.
+     *
+     * @param divExpr The divide {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitDivExpr(DivExprAstNode divExpr);
+
+    /**
+     * Visits a number {@code <expr>} AST node.
+     *
+     * @param numberExpr The number {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitNumberExpr(NumberExprAstNode numberExpr);
+
+    /**
+     * Visits an identifier {@code <expr>} AST node.
+     *
+     * @param identifierExpr The identifier {@code <expr>} AST node.
+     * @return The result of the visit.
+     */
+    R visitIdentifierExpr(IdentifierExprAstNode identifierExpr);
+
+    /**
+     * Visits a {@code <exprlist>} AST node.
+     *
+     * @param exprList The {@code <exprlist>} AST node.
+     * @return The result of the visit.
+     */
+    R visitExprList(ExprListAstNode exprList);
+}
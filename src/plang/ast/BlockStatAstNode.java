@@ -8,6 +8,10 @@ public final class BlockStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 5;
+    /**
+     * The {@code <statlist>} child node
+     */
+    private final StatListAstNode statList;
 
     /**
      * Initializes a new {@link BlockStatAstNode}.
@@ -15,7 +19,7 @@ public final class BlockStatAstNode extends StatAstNode {
      * @param statList The {@code <statlist>} child node.
      */
     public BlockStatAstNode(StatListAstNode statList) {
-        super(statList);
+        this.statList = statList;
     }
 
     /**
@@ -23,9 +27,8 @@ public final class BlockStatAstNode extends StatAstNode {
      *
      * @return The {@code <statlist>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public StatListAstNode getStatList() {
-        return (StatListAstNode) childNodes.get(0);
+        return this.statList;
     }
 
     @Override
@@ -33,6 +36,11 @@ public final class BlockStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitBlockStat(this);
+    }
+
     @Override
     public String toString() {
         return "{" + " " + getStatList() + " " + "}";
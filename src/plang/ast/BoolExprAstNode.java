@@ -1,15 +1,8 @@
 package plang.ast;
 
-public abstract class BoolExprAstNode extends AstNode {
-    /**
-     * Initializes a new {@link BoolExprAstNode} with the specified list of child nodes.
-     *
-     * @param childNodes The child nodes of the AST node.
-     */
-    protected BoolExprAstNode(AstNode... childNodes) {
-        super(childNodes);
-    }
-
+public abstract sealed class BoolExprAstNode extends AstNode
+        permits EqBoolExprAstNode, NeBoolExprAstNode, LtBoolExprAstNode, LeBoolExprAstNode, GtBoolExprAstNode,
+        GeBoolExprAstNode, AndBoolExprAstNode, OrBoolExprAstNode, NotBoolExprAstNode {
     @Override
     public final AstNodeType getType() {
         return AstNodeType.BOOL_EXPR;
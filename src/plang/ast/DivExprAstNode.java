@@ -8,6 +8,14 @@ public final class DivExprAstNode extends ExprAstNode {
      * The ID of this production
      */
     public static final int ID = 3;
+    /**
+     * The {@code <expr>} child node
+     */
+    private final ExprAstNode expr1;
+    /**
+     * The {@code <expr>} child node
+     */
+    private final ExprAstNode expr2;
 
     /**
      * Initializes a new {@link DivExprAstNode}.
@@ -16,7 +24,8 @@ public final class DivExprAstNode extends ExprAstNode {
      * @param expr2 The second {@code <expr>} child node.
      */
     public DivExprAstNode(ExprAstNode expr1, ExprAstNode expr2) {
-        super(expr1, expr2);
+        this.expr1 = expr1;
+        this.expr2 = expr2;
     }
 
     @Override
@@ -29,9 +38,8 @@ public final class DivExprAstNode extends ExprAstNode {
      *
      * @return The first {@code <expr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public ExprAstNode getExpr1() {
-        return (ExprAstNode) childNodes.get(0);
+        return this.expr1;
     }
 
     /**
@@ -40,7 +48,12 @@ public final class DivExprAstNode extends ExprAstNode {
      * @return The second {@code <expr>} child node.
      */
     public ExprAstNode getExpr2() {
-        return (ExprAstNode) childNodes.get(1);
+        return this.expr2;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitDivExpr(this);
     }
 
     @Override
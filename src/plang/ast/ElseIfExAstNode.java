@@ -8,6 +8,10 @@ public final class ElseIfExAstNode extends IfExAstNode {
      * The ID of this production
      */
     public static final int ID = 1;
+    /**
+     * The {@code <stat>} child node
+     */
+    private final StatAstNode stat;
 
     /**
      * Initializes a new {@link ElseIfExAstNode}.
@@ -15,7 +19,7 @@ public final class ElseIfExAstNode extends IfExAstNode {
      * @param stat The {@code <stat>} child node.
      */
     public ElseIfExAstNode(StatAstNode stat) {
-        super(stat);
+        this.stat = stat;
     }
 
     /**
@@ -23,9 +27,8 @@ public final class ElseIfExAstNode extends IfExAstNode {
      *
      * @return The {@code <stat>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public StatAstNode getStat() {
-        return (StatAstNode) childNodes.get(0);
+        return this.stat;
     }
 
     @Override
@@ -33,6 +36,11 @@ public final class ElseIfExAstNode extends IfExAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitElseIfEx(this);
+    }
+
     @Override
     public String toString() {
         return "else" + " " + getStat() + " " + "end";
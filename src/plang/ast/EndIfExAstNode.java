@@ -21,6 +21,11 @@ public final class EndIfExAstNode extends IfExAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitEndIfEx(this);
+    }
+
     @Override
     public String toString() {
         return "end";
@@ -8,6 +8,14 @@ public final class EqBoolExprAstNode extends BoolExprAstNode {
      * The ID of this production
      */
     public static final int ID = 0;
+    /**
+     * The {@code <expr>} child node
+     */
+    private final ExprAstNode expr1;
+    /**
+     * The {@code <expr>} child node
+     */
+    private final ExprAstNode expr2;
 
     /**
      * Initializes a new {@link EqBoolExprAstNode}.
@@ -16,7 +24,8 @@ public final class EqBoolExprAstNode extends BoolExprAstNode {
      * @param expr2 The second {@code <expr>} child node.
      */
     public EqBoolExprAstNode(ExprAstNode expr1, ExprAstNode expr2) {
-        super(expr1, expr2);
+        this.expr1 = expr1;
+        this.expr2 = expr2;
     }
 
     /**
@@ -24,9 +33,8 @@ public final class EqBoolExprAstNode extends BoolExprAstNode {
      *
      * @return The first {@code <expr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public ExprAstNode getExpr1() {
-        return (ExprAstNode) childNodes.get(0);
+        return this.expr1;
     }
 
     /**
@@ -35,7 +43,7 @@ public final class EqBoolExprAstNode extends BoolExprAstNode {
      * @return The second {@code <expr>} child node.
      */
     public ExprAstNode getExpr2() {
-        return (ExprAstNode) childNodes.get(1);
+        return this.expr2;
     }
 
     @Override
@@ -43,6 +51,11 @@ public final class EqBoolExprAstNode extends BoolExprAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitEqBoolExpr(this);
+    }
+
     @Override
     public String toString() {
         return "==" + " " + getExpr1() + " " + getExpr2();
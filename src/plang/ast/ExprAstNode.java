@@ -3,16 +3,9 @@ package plang.ast;
 /**
  * Represents a {@code <expr>} AST node.
  */
-public abstract class ExprAstNode extends AstNode {
-    /**
-     * Initializes a new {@link ExprAstNode} with the specified list of child nodes.
-     *
-     * @param childNodes The child nodes of the AST node.
-     */
-    protected ExprAstNode(AstNode... childNodes) {
-        super(childNodes);
-    }
-
+public abstract sealed class ExprAstNode extends AstNode
+        permits AddExprAstNode, SubExprAstNode, MulExprAstNode, DivExprAstNode, NumberExprAstNode,
+        IdentifierExprAstNode {
     @Override
     public final AstNodeType getType() {
         return AstNodeType.EXPR;
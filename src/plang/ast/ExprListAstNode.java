@@ -1,41 +1,61 @@
 package plang.ast;
 
+import java.util.Arrays;
+import java.util.Iterator;
+
 /**
  * Represents a {@code <exprlist>} AST node.
+ * <p>
+ * The node holds the whole list of expressions (i.e., the {@code <expr>} and the following {@code <exprlistex>}
+ * productions) in a single array, instead of a chain of {@code <exprlistex>} nodes.
  */
-public final class ExprListAstNode extends AstNode {
+public final class ExprListAstNode extends AstNode implements Iterable<ExprAstNode> {
     /**
      * The ID of this production
      */
     public final int ID = 0;
 
     /**
-     * Initializes a new {@link ExprListAstNode}
+     * The {@code <expr>} child nodes, in order
+     */
+    private final ExprAstNode[] exprs;
+
+    /**
+     * Initializes a new {@link ExprListAstNode}.
      *
-     * @param expr       The {@code <expr>} child node.
-     * @param exprListEx The {@code <exprlistex>} child node.
+     * @param exprs The {@code <expr>} child nodes, in order.
+     * @throws IllegalArgumentException If there are no child nodes.
      */
-    public ExprListAstNode(ExprAstNode expr, ExprListExAstNode exprListEx) {
-        super(expr, exprListEx);
+    public ExprListAstNode(ExprAstNode... exprs) {
+        if (exprs.length == 0)
+            throw new IllegalArgumentException("An expression list shall contain at least one expression");
+
+        this.exprs = exprs.clone();
     }
 
     /**
-     * Gets the {@link ExprAstNode} child node.
+     * Gets the number of {@code <expr>} child nodes.
      *
-     * @return The {@code <expr>} child node.
+     * @return The number of {@code <expr>} child nodes.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
-    public ExprAstNode getExpr() {
-        return (ExprAstNode) childNodes.get(0);
+    public int size() {
+        return exprs.length;
     }
 
     /**
-     * Gets the {@link ExprListExAstNode} child node.
+     * Gets the {@link ExprAstNode} child node at the specified index.
      *
-     * @return The {@code <exprlistex>} child node.
+     * @param index The index of the child node.
+     * @return The {@code <expr>} child node at the specified index.
+     * @throws IndexOutOfBoundsException If the index is out of range.
      */
-    public ExprListExAstNode getExprListEx() {
-        return (ExprListExAstNode) childNodes.get(1);
+    public ExprAstNode get(int index) {
+        return exprs[index];
+    }
+
+    @Override
+    public Iterator<ExprAstNode> iterator() {
+        return Arrays.asList(exprs).iterator();
     }
 
     @Override
@@ -48,8 +68,18 @@ public final class ExprListAstNode extends AstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitExprList(this);
+    }
+
     @Override
     public String toString() {
-        return getExpr() + " " + getExprListEx();
+        StringBuilder builder = new StringBuilder().append(exprs[0]).append(' ');
+
+        for (int i = 1; i < exprs.length; i++)
+            builder.append(", ").append(exprs[i]).append(' ');
+
+        return builder.toString();
     }
 }
@@ -0,0 +1,252 @@
+package plang.ast;
+
+import java.util.Objects;
+
+/**
+ * Implements a visitor that gets the operands of an {@code <expr>}, {@code <exprlist>} or {@code <boolexpr>} node
+ * (i.e., its number, its identifier, or its child nodes), by which an {@link ExprPool} hashes and compares the nodes.
+ * <p>
+ * The operands are stored into the visitor, which is reused for each node, rather than returned, so that getting them
+ * allocates nothing. Since the visitor has a method for each production, a new production of the grammar cannot be
+ * hash-consed without stating its operands.
+ */
+final class ExprOperands implements AstVisitor<Void> {
+    /**
+     * The number of the visited node, or {@code 0} if it is not a number {@code <expr>} node
+     */
+    private int number;
+    /**
+     * The identifier of the visited node, or {@code null} if it is not an identifier {@code <expr>} node
+     */
+    private String identifier;
+    /**
+     * The first child node of the visited node, or {@code null} if it is not an operator node
+     */
+    private AstNode child1;
+    /**
+     * The second child node of the visited node, or {@code null} if it is not a binary operator node
+     */
+    private AstNode child2;
+    /**
+     * The visited node if it is a {@code <exprlist>} node, whose child nodes are its operands, or {@code null}
+     */
+    private ExprListAstNode exprList;
+
+    /**
+     * Gets the operands of the specified node, replacing the ones of the previously visited node.
+     *
+     * @param node The node.
+     * @return This visitor, holding the operands of the node.
+     * @throws IllegalArgumentException If the node is not an {@code <expr>}, {@code <exprlist>} or
+     *                                  {@code <boolexpr>} node.
+     */
+    ExprOperands of(AstNode node) {
+        node.accept(this);
+        return this;
+    }
+
+    /**
+     * Computes the hash code of the operands.
+     *
+     * @return The hash code of the operands, in which the child nodes are hashed by identity.
+     */
+    int hash() {
+        int hash = 31 * number + Objects.hashCode(identifier);
+        hash = 31 * hash + System.identityHashCode(child1);
+        hash = 31 * hash + System.identityHashCode(child2);
+
+        if (exprList != null)
+            for (ExprAstNode expr : exprList)
+                hash = 31 * hash + System.identityHashCode(expr);
+
+        return hash;
+    }
+
+    /**
+     * Tells whether the operands are the same as the ones held by another visitor.
+     *
+     * @param other The other visitor.
+     * @return {@code true} if the numbers and identifiers are equal, and if the child nodes are identical.
+     */
+    boolean sameAs(ExprOperands other) {
+        if (number != other.number || !Objects.equals(identifier, other.identifier) || child1 != other.child1
+                || child2 != other.child2)
+            return false;
+
+        if (exprList == null || other.exprList == null)
+            return exprList == other.exprList;
+        if (exprList.size() != other.exprList.size())
+            return false;
+
+        for (int i = 0; i < exprList.size(); i++)
+            if (exprList.get(i) != other.exprList.get(i))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Stores the operands of the visited node.
+     *
+     * @param number     The number of the node.
+     * @param identifier The identifier of the node.
+     * @param child1     The first child node of the node.
+     * @param child2     The second child node of the node.
+     * @param exprList   The node if it is a {@code <exprlist>} node.
+     * @return {@code null}.
+     */
+    private Void set(int number, String identifier, AstNode child1, AstNode child2, ExprListAstNode exprList) {
+        this.number = number;
+        this.identifier = identifier;
+        this.child1 = child1;
+        this.child2 = child2;
+        this.exprList = exprList;
+        return null;
+    }
+
+    /**
+     * Rejects a node that is not an expression.
+     *
+     * @param node The node.
+     * @return Never returns.
+     * @throws IllegalArgumentException Always.
+     */
+    private static Void reject(AstNode node) {
+        throw new IllegalArgumentException("Invalid expression node: " + node.getType());
+    }
+
+    @Override
+    public Void visitProg(ProgAstNode prog) {
+        return reject(prog);
+    }
+
+    @Override
+    public Void visitStatList(StatListAstNode statList) {
+        return reject(statList);
+    }
+
+    @Override
+    public Void visitAssignStat(AssignStatAstNode assignStat) {
+        return reject(assignStat);
+    }
+
+    @Override
+    public Void visitPrintStat(PrintStatAstNode printStat) {
+        return reject(printStat);
+    }
+
+    @Override
+    public Void visitReadStat(ReadStatAstNode readStat) {
+        return reject(readStat);
+    }
+
+    @Override
+    public Void visitWhileStat(WhileStatAstNode whileStat) {
+        return reject(whileStat);
+    }
+
+    @Override
+    public Void visitIfStat(IfStatAstNode ifStat) {
+        return reject(ifStat);
+    }
+
+    @Override
+    public Void visitBlockStat(BlockStatAstNode blockStat) {
+        return reject(blockStat);
+    }
+
+    @Override
+    public Void visitEndIfEx(EndIfExAstNode endIfEx) {
+        return reject(endIfEx);
+    }
+
+    @Override
+    public Void visitElseIfEx(ElseIfExAstNode elseIfEx) {
+        return reject(elseIfEx);
+    }
+
+    @Override
+    public Void visitIdList(IdListAstNode idList) {
+        return reject(idList);
+    }
+
+    @Override
+    public Void visitEqBoolExpr(EqBoolExprAstNode eqBoolExpr) {
+        return set(0, null, eqBoolExpr.getExpr1(), eqBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitNeBoolExpr(NeBoolExprAstNode neBoolExpr) {
+        return set(0, null, neBoolExpr.getExpr1(), neBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitLtBoolExpr(LtBoolExprAstNode ltBoolExpr) {
+        return set(0, null, ltBoolExpr.getExpr1(), ltBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitLeBoolExpr(LeBoolExprAstNode leBoolExpr) {
+        return set(0, null, leBoolExpr.getExpr1(), leBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitGtBoolExpr(GtBoolExprAstNode gtBoolExpr) {
+        return set(0, null, gtBoolExpr.getExpr1(), gtBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitGeBoolExpr(GeBoolExprAstNode geBoolExpr) {
+        return set(0, null, geBoolExpr.getExpr1(), geBoolExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitAndBoolExpr(AndBoolExprAstNode andBoolExpr) {
+        return set(0, null, andBoolExpr.getBoolExpr1(), andBoolExpr.getBoolExpr2(), null);
+    }
+
+    @Override
+    public Void visitOrBoolExpr(OrBoolExprAstNode orBoolExpr) {
+        return set(0, null, orBoolExpr.getBoolExpr1(), orBoolExpr.getBoolExpr2(), null);
+    }
+
+    @Override
+    public Void visitNotBoolExpr(NotBoolExprAstNode notBoolExpr) {
+        return set(0, null, notBoolExpr.getBoolExpr(), null, null);
+    }
+
+    @Override
+    public Void visitAddExpr(AddExprAstNode addExpr) {
+        return set(0, null, addExpr.getExprList(), null, null);
+    }
+
+    @Override
+    public Void visitSubExpr(SubExprAstNode subExpr) {
+        return set(0, null, subExpr.getExpr1(), subExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitMulExpr(MulExprAstNode mulExpr) {
+        return set(0, null, mulExpr.getExprList(), null, null);
+    }
+
+    @Override
+    public Void visitDivExpr(DivExprAstNode divExpr) {
+        return set(0, null, divExpr.getExpr1(), divExpr.getExpr2(), null);
+    }
+
+    @Override
+    public Void visitNumberExpr(NumberExprAstNode numberExpr) {
+        return set(numberExpr.getNumber().getValue(), null, null, null, null);
+    }
+
+    @Override
+    public Void visitIdentifierExpr(IdentifierExprAstNode identifierExpr) {
+        return set(0, identifierExpr.getIdentifier().getLexeme(), null, null, null);
+    }
+
+    @Override
+    public Void visitExprList(ExprListAstNode exprList) {
+        return set(0, null, null, null, exprList);
+    }
+}
@@ -0,0 +1,138 @@
+package plang.ast;
+
+import java.util.Arrays;
+
+/**
+ * Implements a pool of expression nodes, which hash-conses the {@code <expr>}, {@code <exprlist>} and
+ * {@code <boolexpr>} nodes by their structure, so that the identical subexpressions of an AST are stored once (i.e.,
+ * the expressions form a DAG rather than a tree).
+ * <p>
+ * The nodes shall be interned bottom-up (i.e., a node is interned after its child nodes), so that two nodes are
+ * structurally equal if and only if they are of the same production, with the same number or identifier, and with
+ * the same (identical) child nodes: thus, each node is hashed and compared in constant time (or in time linear in the
+ * length of a list), without visiting its subtree. The operands of the nodes (i.e., their numbers, identifiers or
+ * child nodes) are got by an {@link ExprOperands} visitor. The pool is an open addressing hash table with linear
+ * probing.
+ * <p>
+ * Since equal interned expressions are identical, passes over an AST built through a pool can spot the repeated
+ * expressions by comparing them by reference.
+ */
+public final class ExprPool {
+    /**
+     * The initial capacity of the pool (must be a power of two)
+     */
+    private static final int INITIAL_CAPACITY = 256;
+    /**
+     * The hash table, holding the index of each interned node plus one, or {@code 0} for an empty slot
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+    /**
+     * The interned nodes, in order of interning
+     */
+    private AstNode[] nodes = new AstNode[INITIAL_CAPACITY / 2];
+    /**
+     * The hash codes of the interned nodes
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY / 2];
+    /**
+     * The number of interned nodes
+     */
+    private int size;
+    /**
+     * The visitor that gets the operands of the node being interned
+     */
+    private final ExprOperands operands = new ExprOperands();
+    /**
+     * The visitor that gets the operands of the interned nodes that it is compared to
+     */
+    private final ExprOperands internedOperands = new ExprOperands();
+
+    /**
+     * Gets the interned node that is structurally equal to the specified node, interning it if there is none.
+     *
+     * @param node The node, whose child nodes shall have already been interned into this pool.
+     * @param <T>  The type of the node.
+     * @return The interned node that is structurally equal to the specified node.
+     * @throws IllegalArgumentException If the node is not an {@code <expr>}, {@code <exprlist>} or
+     *                                  {@code <boolexpr>} node.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AstNode> T intern(T node) {
+        int hash = hash(node, operands.of(node));
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+
+        for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            AstNode interned = nodes[entry - 1];
+
+            if (hashes[entry - 1] == hash && interned.getClass() == node.getClass()
+                    && internedOperands.of(interned).sameAs(operands))
+                return (T) interned;
+        }
+
+        add(slot, hash, node);
+        return node;
+    }
+
+    /**
+     * Gets the number of interned nodes (i.e., of distinct expressions).
+     *
+     * @return The number of interned nodes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a new node to the pool.
+     *
+     * @param slot The empty slot of the hash table in which the node shall be stored.
+     * @param hash The hash code of the node.
+     * @param node The node.
+     */
+    private void add(int slot, int hash, AstNode node) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        int index = size++;
+
+        nodes[index] = node;
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+
+        if (size * 2 > slots.length)
+            rehash();
+    }
+
+    /**
+     * Doubles the capacity of the hash table, rehashing the interned nodes.
+     */
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            slots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * Computes the hash code of a node from its production and from its operands.
+     *
+     * @param node     The node.
+     * @param operands The operands of the node.
+     * @return The hash code of the node.
+     */
+    private static int hash(AstNode node, ExprOperands operands) {
+        int hash = node.getType().ordinal() * 16 + node.getProductionId();
+        hash = 31 * hash + operands.hash();
+        return hash ^ (hash >>> 16);
+    }
+}
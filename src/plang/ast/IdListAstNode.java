@@ -2,53 +2,67 @@ package plang.ast;
 
 import plang.tokens.IdentifierToken;
 
+import java.util.Arrays;
+import java.util.Iterator;
+
 /**
  * Represents a {@code <idlist>} AST node.
+ * <p>
+ * The node holds the whole list of identifiers (i.e., the one of the {@code <idlist>} and the ones of the following
+ * {@code <idlistex>} productions) in a single array, instead of a chain of {@code <idlistex>} nodes.
  */
-public final class IdListAstNode extends AstNode {
+public final class IdListAstNode extends AstNode implements Iterable<IdentifierToken> {
     /**
      * The ID of this production
      */
     public final int ID = 0;
 
     /**
-     * The identifier token contained in this node
+     * The identifier tokens contained in this node, in order
      */
-    private final IdentifierToken identifier;
+    private final IdentifierToken[] identifiers;
 
     /**
      * Initializes a new {@link IdListAstNode}.
      *
-     * @param identifier The identifier token contained in this node
-     * @param idListEx   The {@code <idlistex>} child node.
+     * @param identifiers The identifier tokens contained in this node, in order.
+     * @throws IllegalArgumentException If there are no identifiers.
      */
-    public IdListAstNode(IdentifierToken identifier, IdListExAstNode idListEx) {
-        super(idListEx);
-        this.identifier = identifier;
+    public IdListAstNode(IdentifierToken... identifiers) {
+        if (identifiers.length == 0)
+            throw new IllegalArgumentException("An identifier list shall contain at least one identifier");
+
+        this.identifiers = identifiers.clone();
     }
 
     /**
-     * Gets the identifier token contained in this node.
+     * Gets the number of identifier tokens contained in this node.
      *
-     * @return The identifier token contained in this node
+     * @return The number of identifier tokens contained in this node.
      */
-    public IdentifierToken getIdentifier() {
-        return this.identifier;
+    public int size() {
+        return identifiers.length;
     }
 
     /**
-     * Gets the {@link IdListExAstNode} child node.
+     * Gets the identifier token at the specified index.
      *
-     * @return The {@code <idlistex>} child node.
+     * @param index The index of the identifier token.
+     * @return The identifier token at the specified index.
+     * @throws IndexOutOfBoundsException If the index is out of range.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
-    public IdListExAstNode getIdListEx() {
-        return (IdListExAstNode) childNodes.get(0);
+    public IdentifierToken get(int index) {
+        return identifiers[index];
+    }
+
+    @Override
+    public Iterator<IdentifierToken> iterator() {
+        return Arrays.asList(identifiers).iterator();
     }
 
     @Override
     public AstNodeType getType() {
-        return null;
+        return AstNodeType.ID_LIST;
     }
 
     @Override
@@ -56,8 +70,18 @@ public final class IdListAstNode extends AstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitIdList(this);
+    }
+
     @Override
     public String toString() {
-        return identifier.getLexeme() + " " + getIdListEx();
+        StringBuilder builder = new StringBuilder().append(identifiers[0].getLexeme()).append(' ');
+
+        for (int i = 1; i < identifiers.length; i++)
+            builder.append(", ").append(identifiers[i].getLexeme()).append(' ');
+
+        return builder.toString();
     }
 }
@@ -36,6 +36,11 @@ public final class IdentifierExprAstNode extends ExprAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitIdentifierExpr(this);
+    }
+
     @Override
     public String toString() {
         return identifier.getLexeme();
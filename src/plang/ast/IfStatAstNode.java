@@ -8,6 +8,18 @@ public final class IfStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 4;
+    /**
+     * The {@code <boolexpr>} child node
+     */
+    private final BoolExprAstNode boolExpr;
+    /**
+     * The {@code <stat>} child node
+     */
+    private final StatAstNode stat;
+    /**
+     * The {@code <ifex>} child node
+     */
+    private final IfExAstNode ifEx;
 
     /**
      * Initializes a new {@link IfStatAstNode}
@@ -17,7 +29,9 @@ public final class IfStatAstNode extends StatAstNode {
      * @param ifEx     The {@code <ifex>} child node.
      */
     public IfStatAstNode(BoolExprAstNode boolExpr, StatAstNode stat, IfExAstNode ifEx) {
-        super(boolExpr, stat, ifEx);
+        this.boolExpr = boolExpr;
+        this.stat = stat;
+        this.ifEx = ifEx;
     }
 
     /**
@@ -25,9 +39,8 @@ public final class IfStatAstNode extends StatAstNode {
      *
      * @return The {@code <boolexpr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public BoolExprAstNode getBoolExpr() {
-        return (BoolExprAstNode) childNodes.get(0);
+        return this.boolExpr;
     }
 
     /**
@@ -36,7 +49,7 @@ public final class IfStatAstNode extends StatAstNode {
      * @return The {@code <stat>} child node.
      */
     public StatAstNode getStat() {
-        return (StatAstNode) childNodes.get(1);
+        return this.stat;
     }
 
     /**
@@ -45,7 +58,7 @@ public final class IfStatAstNode extends StatAstNode {
      * @return The {@code <ifex>} child node.
      */
     public IfExAstNode getIfEx() {
-        return (IfExAstNode) childNodes.get(2);
+        return this.ifEx;
     }
 
     @Override
@@ -53,6 +66,11 @@ public final class IfStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitIfStat(this);
+    }
+
     @Override
     public String toString() {
         return "if" + " " + "(" + " " + getBoolExpr() + " " + ")" + " " + getStat() + " " + getIfEx();
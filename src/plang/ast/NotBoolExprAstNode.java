@@ -8,6 +8,10 @@ public final class NotBoolExprAstNode extends BoolExprAstNode {
      * The ID of this production
      */
     public static final int ID = 8;
+    /**
+     * The {@code <boolexpr>} child node
+     */
+    private final BoolExprAstNode boolExpr;
 
     /**
      * Initializes a new {@link OrBoolExprAstNode}.
@@ -15,7 +19,7 @@ public final class NotBoolExprAstNode extends BoolExprAstNode {
      * @param boolExpr The {@code <boolexpr>} child node.
      */
     public NotBoolExprAstNode(BoolExprAstNode boolExpr) {
-        super(boolExpr);
+        this.boolExpr = boolExpr;
     }
 
     /**
@@ -23,9 +27,8 @@ public final class NotBoolExprAstNode extends BoolExprAstNode {
      *
      * @return The {@code <boolexpr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public BoolExprAstNode getBoolExpr() {
-        return (BoolExprAstNode) childNodes.get(0);
+        return this.boolExpr;
     }
 
     @Override
@@ -33,6 +36,11 @@ public final class NotBoolExprAstNode extends BoolExprAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitNotBoolExpr(this);
+    }
+
     @Override
     public String toString() {
         return "!" + " " + getBoolExpr();
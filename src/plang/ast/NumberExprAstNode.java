@@ -38,6 +38,11 @@ public final class NumberExprAstNode extends ExprAstNode {
         return this.number;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitNumberExpr(this);
+    }
+
     @Override
     public String toString() {
         return String.valueOf(number.getValue());
@@ -8,6 +8,10 @@ public final class PrintStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 1;
+    /**
+     * The {@code <exprlist>} child node
+     */
+    private final ExprListAstNode exprList;
 
     /**
      * Initializes a new {@link PrintStatAstNode}.
@@ -15,7 +19,7 @@ public final class PrintStatAstNode extends StatAstNode {
      * @param exprList The {@code <exprlist>} child node.
      */
     public PrintStatAstNode(ExprListAstNode exprList) {
-        super(exprList);
+        this.exprList = exprList;
     }
 
     /**
@@ -23,9 +27,8 @@ public final class PrintStatAstNode extends StatAstNode {
      *
      * @return The {@code <exprlist>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public ExprListAstNode getExprList() {
-        return (ExprListAstNode) childNodes.get(0);
+        return this.exprList;
     }
 
     @Override
@@ -33,6 +36,11 @@ public final class PrintStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitPrintStat(this);
+    }
+
     @Override
     public String toString() {
         return "print" + " " + "(" + " " + getExprList() + " " + ")";
@@ -8,6 +8,10 @@ public final class ProgAstNode extends AstNode {
      * The ID of this production
      */
     public final int ID = 0;
+    /**
+     * The {@code <statlist>} child node
+     */
+    private final StatListAstNode statList;
 
     /**
      * Initializes a new {@link ProgAstNode}.
@@ -15,7 +19,7 @@ public final class ProgAstNode extends AstNode {
      * @param statList The {@code <statlist>} child node.
      */
     public ProgAstNode(StatListAstNode statList) {
-        super(statList);
+        this.statList = statList;
     }
 
     /**
@@ -23,9 +27,8 @@ public final class ProgAstNode extends AstNode {
      *
      * @return The {@code <statlist>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public StatListAstNode getStatList() {
-        return (StatListAstNode) childNodes.get(0);
+        return this.statList;
     }
 
     @Override
@@ -38,6 +41,11 @@ public final class ProgAstNode extends AstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitProg(this);
+    }
+
     @Override
     public String toString() {
         return getStatList() + "$";
@@ -5,6 +5,10 @@ public final class ReadStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 2;
+    /**
+     * The {@code <idlist>} child node
+     */
+    private final IdListAstNode idList;
 
     /**
      * Initializes a new {@link StatAstNode}.
@@ -12,7 +16,7 @@ public final class ReadStatAstNode extends StatAstNode {
      * @param idList The {@code <idlist>} child node.
      */
     public ReadStatAstNode(IdListAstNode idList) {
-        super(idList);
+        this.idList = idList;
     }
 
     /**
@@ -20,9 +24,8 @@ public final class ReadStatAstNode extends StatAstNode {
      *
      * @return The {@code <idlist>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public IdListAstNode getIdList() {
-        return (IdListAstNode) childNodes.get(0);
+        return this.idList;
     }
 
     @Override
@@ -30,6 +33,11 @@ public final class ReadStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitReadStat(this);
+    }
+
     @Override
     public String toString() {
         return "read" + " " + "(" + " " + getIdList() + " " + ")";
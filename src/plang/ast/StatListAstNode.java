@@ -1,38 +1,75 @@
 package plang.ast;
 
-public final class StatListAstNode extends AstNode {
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Represents a {@code <statlist>} AST node.
+ * <p>
+ * The node holds the whole list of statements (i.e., the {@code <stat>} and the following {@code <statlistex>}
+ * productions) in a single array, instead of a chain of {@code <statlistex>} nodes.
+ */
+public final class StatListAstNode extends AstNode implements Iterable<StatAstNode> {
     /**
      * The ID of this production
      */
     public final int ID = 0;
 
+    /**
+     * The {@code <stat>} child nodes, in order
+     */
+    private final StatAstNode[] stats;
+
     /**
      * Initializes a new {@link StatListAstNode}.
      *
-     * @param stat       The {@code <stat>} child node.
-     * @param statListEx The {@code <statlistex>} child node.
+     * @param stats The {@code <stat>} child nodes, in order.
+     * @throws IllegalArgumentException If there are no child nodes.
+     */
+    public StatListAstNode(StatAstNode... stats) {
+        if (stats.length == 0)
+            throw new IllegalArgumentException("A statement list shall contain at least one statement");
+
+        this.stats = stats.clone();
+    }
+
+    /**
+     * Gets the number of {@code <stat>} child nodes.
+     *
+     * @return The number of {@code <stat>} child nodes.
      */
-    public StatListAstNode(StatAstNode stat, StatListExAstNode statListEx) {
-        super(stat, statListEx);
+    public int size() {
+        return stats.length;
     }
 
     /**
-     * Gets the {@link StatAstNode} child node.
+     * Gets the {@link StatAstNode} child node at the specified index.
      *
-     * @return The {@code <stat>} child node.
+     * @param index The index of the child node.
+     * @return The {@code <stat>} child node at the specified index.
+     * @throws IndexOutOfBoundsException If the index is out of range.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
-    public StatAstNode getStat() {
-        return (StatAstNode) childNodes.get(0);
+    public StatAstNode get(int index) {
+        return stats[index];
     }
 
     /**
-     * Gets the {@link StatListExAstNode} child node.
+     * Creates a copy of this list in which the {@code <stat>} child node at the specified index is replaced.
      *
-     * @return The {@code <statlistex>} child node.
+     * @param index The index of the child node to replace.
+     * @param stat  The new {@code <stat>} child node.
+     * @return The new {@link StatListAstNode}, which shares the other child nodes with this one.
+     * @throws IndexOutOfBoundsException If the index is out of range.
      */
-    public StatListExAstNode getStatListEx() {
-        return (StatListExAstNode) childNodes.get(1);
+    public StatListAstNode replace(int index, StatAstNode stat) {
+        StatAstNode[] copy = stats.clone();
+        copy[index] = stat;
+        return new StatListAstNode(copy);
+    }
+
+    @Override
+    public Iterator<StatAstNode> iterator() {
+        return Arrays.asList(stats).iterator();
     }
 
     @Override
@@ -45,8 +82,18 @@ public final class StatListAstNode extends AstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitStatList(this);
+    }
+
     @Override
     public String toString() {
-        return getStat() + " " + getStatListEx();
+        StringBuilder builder = new StringBuilder().append(stats[0]).append(' ');
+
+        for (int i = 1; i < stats.length; i++)
+            builder.append("; ").append(stats[i]).append(' ');
+
+        return builder.toString();
     }
 }
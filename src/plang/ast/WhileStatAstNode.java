@@ -8,6 +8,14 @@ public final class WhileStatAstNode extends StatAstNode {
      * The ID of this production
      */
     public static final int ID = 3;
+    /**
+     * The {@code <boolexpr>} child node
+     */
+    private final BoolExprAstNode boolExpr;
+    /**
+     * The {@code <stat>} child node
+     */
+    private final StatAstNode stat;
 
     /**
      * Initializes a new {@link WhileStatAstNode}.
@@ -16,7 +24,8 @@ public final class WhileStatAstNode extends StatAstNode {
      * @param stat     The {@code <stat>} child node.
      */
     public WhileStatAstNode(BoolExprAstNode boolExpr, StatAstNode stat) {
-        super(boolExpr, stat);
+        this.boolExpr = boolExpr;
+        this.stat = stat;
     }
 
     /**
@@ -24,9 +33,8 @@ public final class WhileStatAstNode extends StatAstNode {
      *
      * @return The {@code <boolexpr>} child node.
      */
-    @SuppressWarnings("SequencedCollectionMethodCanBeUsed")
     public BoolExprAstNode getBoolExpr() {
-        return (BoolExprAstNode) childNodes.get(0);
+        return this.boolExpr;
     }
 
     /**
@@ -35,7 +43,7 @@ public final class WhileStatAstNode extends StatAstNode {
      * @return The {@code <stat>} child node.
      */
     public StatAstNode getStat() {
-        return (StatAstNode) childNodes.get(1);
+        return this.stat;
     }
 
     @Override
@@ -43,6 +51,11 @@ public final class WhileStatAstNode extends StatAstNode {
         return ID;
     }
 
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+        return visitor.visitWhileStat(this);
+    }
+
     @Override
     public String toString() {
         return "while" + " " + "(" + getBoolExpr() + " " + ")" + " " + getStat();
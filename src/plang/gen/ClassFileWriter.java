@@ -0,0 +1,1732 @@
+package plang.gen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implements the writer of the class file of a program, which holds the same methods as the Jasmin code written by
+ * {@link CodeGenerator}, so that it can be loaded without assembling the code. The code of the program is also written
+ * into the other variants of the {@code run} method (see {@link RunMethod}), which read and print through their
+ * parameters, so that the program can be embedded.
+ * <p>
+ * The class file has a modern version, so its {@code run} methods carry a {@code StackMapTable} with a frame at each
+ * branch target (and after each unconditional jump), for the type-checking verifier. All the variables are set to
+ * {@code 0} at the start of a {@code run} method, so that the frames have the same locals (the parameters, followed by
+ * variables of type {@code int}), and only their stacks have to be tracked.
+ * <p>
+ * The labels are resolved to branch offsets in a few layout passes: a jump whose offset does not fit into 16 bits is
+ * turned into a {@code goto_w} (preceded by the inverse conditional jump over it, if the jump is conditional), which
+ * moves the following code, until every jump fits.
+ */
+final class ClassFileWriter {
+    /**
+     * The major version of the class file (Java 17)
+     */
+    private static final int MAJOR_VERSION = 61;
+    /**
+     * The {@code ACC_PUBLIC} access flag
+     */
+    private static final int ACC_PUBLIC = 0x0001;
+    /**
+     * The {@code ACC_PRIVATE} access flag
+     */
+    private static final int ACC_PRIVATE = 0x0002;
+    /**
+     * The {@code ACC_STATIC} access flag
+     */
+    private static final int ACC_STATIC = 0x0008;
+    /**
+     * The {@code ACC_SUPER} access flag
+     */
+    private static final int ACC_SUPER = 0x0020;
+    /**
+     * The maximum length of the code of a method
+     */
+    private static final int MAX_CODE_LENGTH = 0xFFFF;
+    /**
+     * The size of a conditional jump over a {@code goto_w}
+     */
+    private static final int LONG_BRANCH_SIZE = 8;
+    /**
+     * The {@code int} verification type of a frame
+     */
+    private static final int ITEM_INTEGER = 1;
+    /**
+     * The object verification type of a frame
+     */
+    private static final int ITEM_OBJECT = 7;
+    /**
+     * The {@code byte} type of a {@code newarray} instruction
+     */
+    private static final int T_BYTE = 8;
+    /**
+     * The {@code int} type of a {@code newarray} instruction
+     */
+    private static final int T_INT = 10;
+    /**
+     * The size of the output buffer of the program
+     */
+    private static final int OUTPUT_BUFFER_SIZE = CodeGenerator.OUTPUT_BUFFER_SIZE;
+    /**
+     * The size of the input buffer of the program
+     */
+    private static final int INPUT_BUFFER_SIZE = CodeGenerator.INPUT_BUFFER_SIZE;
+    /**
+     * The maximum length of a printed integer, without the line separator that follows it (e.g., {@code -2147483648})
+     */
+    private static final int MAX_PRINT_LENGTH = 11;
+    /**
+     * The internal name of the class
+     */
+    private final String className;
+    /**
+     * The constant pool of the class
+     */
+    private final ConstantPool pool = new ConstantPool();
+
+    /**
+     * Initializes a new {@link ClassFileWriter}.
+     *
+     * @param className The internal name of the class (e.g., {@code plang/Output}).
+     */
+    ClassFileWriter(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Writes the class file of a program.
+     *
+     * @param entities   The entities of the code of the {@code run()} method.
+     * @param localCount The number of variables of the program.
+     * @return The bytes of the class file.
+     * @throws IllegalStateException If the code is too large for a method.
+     */
+    byte[] write(List<CodeGenEntity> entities, int localCount) {
+        try {
+            ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+            DataOutputStream methods = new DataOutputStream(methodBytes);
+
+            ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+            DataOutputStream code = new DataOutputStream(codeBytes);
+
+            code.writeByte(0x2A);                                               // aload_0
+            code.writeByte(0xB7);                                               // invokespecial
+            code.writeShort(pool.methodRef("java/lang/Object", "<init>", "()V"));
+            code.writeByte(0xB1);                                               // return
+            writeMethod(methods, ACC_PUBLIC, "<init>", "()V", 1, 1, codeBytes);
+
+            writeIntConstant(code, OUTPUT_BUFFER_SIZE);
+            code.writeByte(0xBC);                                               // newarray
+            code.writeByte(T_BYTE);
+            code.writeByte(0xB3);                                               // putstatic
+            code.writeShort(pool.fieldRef(className, "output", "[B"));
+            writeIntConstant(code, INPUT_BUFFER_SIZE);
+            code.writeByte(0xBC);                                               // newarray
+            code.writeByte(T_BYTE);
+            code.writeByte(0xB3);                                               // putstatic
+            code.writeShort(pool.fieldRef(className, "input", "[B"));
+            code.writeByte(0x03);                                               // iconst_0
+            code.writeByte(0xBC);                                               // newarray
+            code.writeByte(T_INT);
+            code.writeByte(0xB3);                                               // putstatic
+            code.writeShort(pool.fieldRef(className, "values", "[I"));
+            code.writeByte(0xB8);                                               // invokestatic
+            code.writeShort(pool.methodRef("java/lang/System", "lineSeparator", "()Ljava/lang/String;"));
+            code.writeByte(0xB6);                                               // invokevirtual
+            code.writeShort(pool.methodRef("java/lang/String", "getBytes", "()[B"));
+            code.writeByte(0xB3);                                               // putstatic
+            code.writeShort(pool.fieldRef(className, "lineSeparator", "[B"));
+            code.writeByte(0xB1);                                               // return
+            writeMethod(methods, ACC_STATIC, "<clinit>", "()V", 1, 0, codeBytes);
+
+            writePrintMethod(methods, codeBytes);
+
+            code.writeByte(0xB2);                                               // getstatic
+            code.writeShort(pool.fieldRef("java/lang/System", "out", "Ljava/io/PrintStream;"));
+            code.writeByte(0xB2);                                               // getstatic
+            code.writeShort(pool.fieldRef(className, "output", "[B"));
+            code.writeByte(0x03);                                               // iconst_0
+            code.writeByte(0xB2);                                               // getstatic
+            code.writeShort(pool.fieldRef(className, "outputPosition", "I"));
+            code.writeByte(0xB6);                                               // invokevirtual
+            code.writeShort(pool.methodRef("java/io/PrintStream", "write", "([BII)V"));
+            code.writeByte(0x03);                                               // iconst_0
+            code.writeByte(0xB3);                                               // putstatic
+            code.writeShort(pool.fieldRef(className, "outputPosition", "I"));
+            code.writeByte(0xB2);                                               // getstatic
+            code.writeShort(pool.fieldRef("java/lang/System", "out", "Ljava/io/PrintStream;"));
+            code.writeByte(0xB6);                                               // invokevirtual
+            code.writeShort(pool.methodRef("java/io/PrintStream", "flush", "()V"));
+            code.writeByte(0xB1);                                               // return
+            writeMethod(methods, ACC_PUBLIC | ACC_STATIC, "flush", "()V", 4, 0, codeBytes);
+
+            writeReadByteMethod(methods, codeBytes);
+            writeReadMethod(methods, codeBytes);
+            writeReadListMethod(methods, codeBytes);
+
+            for (RunMethod runMethod : RunMethod.values())
+                writeRunMethod(methods, runMethod, entities, localCount);
+
+            writeMainMethod(methods, codeBytes);
+
+            int thisClass = pool.classRef(className);
+            int superClass = pool.classRef("java/lang/Object");
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream(methodBytes.size() + 1024);
+            DataOutputStream out = new DataOutputStream(classBytes);
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            pool.write(out);
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);                                                  // interfaces
+            out.writeShort(7);                                                  // fields
+            writeField(out, "output", "[B");
+            writeField(out, "outputPosition", "I");
+            writeField(out, "lineSeparator", "[B");
+            writeField(out, "input", "[B");
+            writeField(out, "inputPosition", "I");
+            writeField(out, "inputLimit", "I");
+            writeField(out, "values", "[I");
+            out.writeShort(8 + RunMethod.values().length);                      // methods
+            methodBytes.writeTo(out);
+            out.writeShort(0);                                                  // attributes
+
+            return classBytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a method whose code has no branches.
+     *
+     * @param out        The output of the methods.
+     * @param access     The access flags of the method.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @param maxStack   The maximum depth of the operand stack.
+     * @param maxLocals  The number of local variables.
+     * @param code       The code of the method, which is cleared once it has been written.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeMethod(DataOutputStream out, int access, String name, String descriptor, int maxStack,
+                             int maxLocals, ByteArrayOutputStream code) throws IOException {
+        writeMethod(out, access, name, descriptor, maxStack, maxLocals, code, null, 0, null);
+    }
+
+    /**
+     * Writes a method whose code has branches, or an exception handler.
+     *
+     * @param out        The output of the methods.
+     * @param access     The access flags of the method.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @param maxStack   The maximum depth of the operand stack.
+     * @param maxLocals  The number of local variables.
+     * @param code       The code of the method, which is cleared once it has been written.
+     * @param frames     The encoded frames of the {@code StackMapTable} attribute, or {@code null} if there is none.
+     * @param frameCount The number of frames.
+     * @param handler    The start, end and handler offsets of the exception handler of any exception, or {@code null}
+     *                   if there is none.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeMethod(DataOutputStream out, int access, String name, String descriptor, int maxStack,
+                             int maxLocals, ByteArrayOutputStream code, byte[] frames, int frameCount, int[] handler)
+            throws IOException {
+        writeMethodHeader(out, access, name, descriptor);
+        out.writeShort(1);                                                      // attributes
+        writeCodeAttribute(out, maxStack, maxLocals, code.toByteArray(), code.size(), handler, frames, frameCount);
+        code.reset();
+    }
+
+    /**
+     * Writes the {@code print(I)V} method, which formats an integer and a line separator into the output buffer,
+     * flushing the buffer first if it might not have room for them. The line separator is the one of the platform, as
+     * printed by {@code println}, whose bytes are got once by the class initializer.
+     * <p>
+     * The digits are computed from the negated value (if it is positive), so that {@code Integer.MIN_VALUE} needs no
+     * special case: its number of digits is counted first, and then the digits are stored backwards.
+     *
+     * @param out       The output of the methods.
+     * @param codeBytes The buffer of the code.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writePrintMethod(DataOutputStream out, ByteArrayOutputStream codeBytes) throws IOException {
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+
+        // Locals: 0 = value, 1 = output, 2 = output position, 3 = quotient, 4 = index
+        code.writeByte(0xB2);                                                   // 0: getstatic
+        code.writeShort(pool.fieldRef(className, "output", "[B"));
+        code.writeByte(0x4C);                                                   // 3: astore_1
+        code.writeByte(0xB2);                                                   // 4: getstatic
+        code.writeShort(pool.fieldRef(className, "outputPosition", "I"));
+        code.writeByte(0x3D);                                                   // 7: istore_2
+        code.writeByte(0x1C);                                                   // 8: iload_2
+        code.writeByte(0x2B);                                                   // 9: aload_1
+        code.writeByte(0xBE);                                                   // 10: arraylength
+        code.writeByte(0x10);                                                   // 11: bipush
+        code.writeByte(MAX_PRINT_LENGTH);
+        code.writeByte(0x64);                                                   // 13: isub
+        code.writeByte(0xB2);                                                   // 14: getstatic
+        code.writeShort(pool.fieldRef(className, "lineSeparator", "[B"));
+        code.writeByte(0xBE);                                                   // 17: arraylength
+        code.writeByte(0x64);                                                   // 18: isub
+        code.writeByte(0xA4);                                                   // 19: if_icmple 27
+        code.writeShort(8);
+        code.writeByte(0xB8);                                                   // 22: invokestatic
+        code.writeShort(pool.methodRef(className, "flush", "()V"));
+        code.writeByte(0x03);                                                   // 25: iconst_0
+        code.writeByte(0x3D);                                                   // 26: istore_2
+        code.writeByte(0x1A);                                                   // 27: iload_0
+        code.writeByte(0x9B);                                                   // 28: iflt 37
+        code.writeShort(9);
+        code.writeByte(0x1A);                                                   // 31: iload_0
+        code.writeByte(0x74);                                                   // 32: ineg
+        code.writeByte(0x3B);                                                   // 33: istore_0
+        code.writeByte(0xA7);                                                   // 34: goto 45
+        code.writeShort(11);
+        code.writeByte(0x2B);                                                   // 37: aload_1
+        code.writeByte(0x1C);                                                   // 38: iload_2
+        code.writeByte(0x84);                                                   // 39: iinc 2 1
+        code.writeByte(2);
+        code.writeByte(1);
+        code.writeByte(0x10);                                                   // 42: bipush '-'
+        code.writeByte('-');
+        code.writeByte(0x54);                                                   // 44: bastore
+        code.writeByte(0x1C);                                                   // 45: iload_2
+        code.writeByte(0x36);                                                   // 46: istore 4
+        code.writeByte(4);
+        code.writeByte(0x1A);                                                   // 48: iload_0
+        code.writeByte(0x3E);                                                   // 49: istore_3
+        code.writeByte(0x84);                                                   // 50: iinc 4 1
+        code.writeByte(4);
+        code.writeByte(1);
+        code.writeByte(0x1D);                                                   // 53: iload_3
+        code.writeByte(0x10);                                                   // 54: bipush 10
+        code.writeByte(10);
+        code.writeByte(0x6C);                                                   // 56: idiv
+        code.writeByte(0x59);                                                   // 57: dup
+        code.writeByte(0x3E);                                                   // 58: istore_3
+        code.writeByte(0x9A);                                                   // 59: ifne 50
+        code.writeShort(-9);
+        code.writeByte(0xB2);                                                   // 62: getstatic
+        code.writeShort(pool.fieldRef(className, "lineSeparator", "[B"));
+        code.writeByte(0x03);                                                   // 65: iconst_0
+        code.writeByte(0x2B);                                                   // 66: aload_1
+        code.writeByte(0x15);                                                   // 67: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 69: getstatic
+        code.writeShort(pool.fieldRef(className, "lineSeparator", "[B"));
+        code.writeByte(0xBE);                                                   // 72: arraylength
+        code.writeByte(0xB8);                                                   // 73: invokestatic
+        code.writeShort(pool.methodRef("java/lang/System", "arraycopy", "(Ljava/lang/Object;ILjava/lang/Object;II)V"));
+        code.writeByte(0x15);                                                   // 76: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 78: getstatic
+        code.writeShort(pool.fieldRef(className, "lineSeparator", "[B"));
+        code.writeByte(0xBE);                                                   // 81: arraylength
+        code.writeByte(0x60);                                                   // 82: iadd
+        code.writeByte(0xB3);                                                   // 83: putstatic
+        code.writeShort(pool.fieldRef(className, "outputPosition", "I"));
+        code.writeByte(0x2B);                                                   // 86: aload_1
+        code.writeByte(0x84);                                                   // 87: iinc 4 -1
+        code.writeByte(4);
+        code.writeByte(-1);
+        code.writeByte(0x15);                                                   // 90: iload 4
+        code.writeByte(4);
+        code.writeByte(0x10);                                                   // 92: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0x1A);                                                   // 94: iload_0
+        code.writeByte(0x10);                                                   // 95: bipush 10
+        code.writeByte(10);
+        code.writeByte(0x70);                                                   // 97: irem
+        code.writeByte(0x64);                                                   // 98: isub
+        code.writeByte(0x91);                                                   // 99: i2b
+        code.writeByte(0x54);                                                   // 100: bastore
+        code.writeByte(0x1A);                                                   // 101: iload_0
+        code.writeByte(0x10);                                                   // 102: bipush 10
+        code.writeByte(10);
+        code.writeByte(0x6C);                                                   // 104: idiv
+        code.writeByte(0x59);                                                   // 105: dup
+        code.writeByte(0x3B);                                                   // 106: istore_0
+        code.writeByte(0x9A);                                                   // 107: ifne 86
+        code.writeShort(-21);
+        code.writeByte(0xB1);                                                   // 110: return
+
+        frames.writeByte(253);                                                  // 27: append_frame
+        frames.writeShort(27);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[B"));
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(37 - 27 - 1);                                          // 37: same_frame
+        frames.writeByte(45 - 37 - 1);                                          // 45: same_frame
+        frames.writeByte(253);                                                  // 50: append_frame
+        frames.writeShort(50 - 45 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(86 - 50 - 1);                                          // 86: same_frame
+
+        writeMethod(out, ACC_PUBLIC | ACC_STATIC, "print", "(I)V", 5, 5, codeBytes, frameBytes.toByteArray(), 5,
+                null);
+    }
+
+    /**
+     * Writes the {@code readByte()I} method, which gets the next byte of the standard input from the input buffer,
+     * filling the buffer with a single read of the standard input when it has been consumed. The output buffer is
+     * flushed before the standard input is read, so that a prompt printed by the program is seen before it blocks.
+     *
+     * @param out       The output of the methods.
+     * @param codeBytes The buffer of the code.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeReadByteMethod(DataOutputStream out, ByteArrayOutputStream codeBytes) throws IOException {
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+
+        // Locals: 0 = input position (or number of bytes read)
+        code.writeByte(0xB2);                                                   // 0: getstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x3B);                                                   // 3: istore_0
+        code.writeByte(0x1A);                                                   // 4: iload_0
+        code.writeByte(0xB2);                                                   // 5: getstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0xA0);                                                   // 8: if_icmpne 40
+        code.writeShort(32);
+        code.writeByte(0xB8);                                                   // 11: invokestatic
+        code.writeShort(pool.methodRef(className, "flush", "()V"));
+        code.writeByte(0xB2);                                                   // 14: getstatic
+        code.writeShort(pool.fieldRef("java/lang/System", "in", "Ljava/io/InputStream;"));
+        code.writeByte(0xB2);                                                   // 17: getstatic
+        code.writeShort(pool.fieldRef(className, "input", "[B"));
+        code.writeByte(0x03);                                                   // 20: iconst_0
+        code.writeByte(0xB2);                                                   // 21: getstatic
+        code.writeShort(pool.fieldRef(className, "input", "[B"));
+        code.writeByte(0xBE);                                                   // 24: arraylength
+        code.writeByte(0xB6);                                                   // 25: invokevirtual
+        code.writeShort(pool.methodRef("java/io/InputStream", "read", "([BII)I"));
+        code.writeByte(0x59);                                                   // 28: dup
+        code.writeByte(0x9D);                                                   // 29: ifgt 35
+        code.writeShort(6);
+        code.writeByte(0x57);                                                   // 32: pop
+        code.writeByte(0x02);                                                   // 33: iconst_m1
+        code.writeByte(0xAC);                                                   // 34: ireturn
+        code.writeByte(0xB3);                                                   // 35: putstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0x03);                                                   // 38: iconst_0
+        code.writeByte(0x3B);                                                   // 39: istore_0
+        code.writeByte(0xB2);                                                   // 40: getstatic
+        code.writeShort(pool.fieldRef(className, "input", "[B"));
+        code.writeByte(0x1A);                                                   // 43: iload_0
+        code.writeByte(0x1A);                                                   // 44: iload_0
+        code.writeByte(0x04);                                                   // 45: iconst_1
+        code.writeByte(0x60);                                                   // 46: iadd
+        code.writeByte(0xB3);                                                   // 47: putstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x33);                                                   // 50: baload
+        code.writeByte(0x11);                                                   // 51: sipush 0xFF
+        code.writeShort(0xFF);
+        code.writeByte(0x7E);                                                   // 54: iand
+        code.writeByte(0xAC);                                                   // 55: ireturn
+
+        frames.writeByte(255);                                                  // 35: full_frame
+        frames.writeShort(35);
+        frames.writeShort(1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeShort(1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(40 - 35 - 1);                                          // 40: same_frame
+
+        writeMethod(out, ACC_PRIVATE | ACC_STATIC, "readByte", "()I", 4, 1, codeBytes, frameBytes.toByteArray(), 2,
+                null);
+    }
+
+    /**
+     * Writes the {@code read()I} method, which parses the next signed decimal integer of the standard input, skipping
+     * the whitespace that precedes it.
+     * <p>
+     * As {@code Integer.parseInt}, the value is accumulated negatively, so that {@code Integer.MIN_VALUE} needs no
+     * special case. A {@code NoSuchElementException} is thrown at the end of the input, and a
+     * {@code NumberFormatException} if the token is not an integer, or if it overflows.
+     *
+     * @param out       The output of the methods.
+     * @param codeBytes The buffer of the code.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeReadMethod(DataOutputStream out, ByteArrayOutputStream codeBytes) throws IOException {
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+
+        // Locals: 0 = byte, 1 = negative, 2 = value, 3 = digit
+        code.writeByte(0xB8);                                                   // 0: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x3B);                                                   // 3: istore_0
+        code.writeByte(0x1A);                                                   // 4: iload_0
+        code.writeByte(0x10);                                                   // 5: bipush ' '
+        code.writeByte(' ');
+        code.writeByte(0xA3);                                                   // 7: if_icmpgt 29
+        code.writeShort(22);
+        code.writeByte(0x1A);                                                   // 10: iload_0
+        code.writeByte(0x9C);                                                   // 11: ifge 22
+        code.writeShort(11);
+        code.writeByte(0xBB);                                                   // 14: new
+        code.writeShort(pool.classRef("java/util/NoSuchElementException"));
+        code.writeByte(0x59);                                                   // 17: dup
+        code.writeByte(0xB7);                                                   // 18: invokespecial
+        code.writeShort(pool.methodRef("java/util/NoSuchElementException", "<init>", "()V"));
+        code.writeByte(0xBF);                                                   // 21: athrow
+        code.writeByte(0xB8);                                                   // 22: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x3B);                                                   // 25: istore_0
+        code.writeByte(0xA7);                                                   // 26: goto 4
+        code.writeShort(-22);
+        code.writeByte(0x03);                                                   // 29: iconst_0
+        code.writeByte(0x3C);                                                   // 30: istore_1
+        code.writeByte(0x1A);                                                   // 31: iload_0
+        code.writeByte(0x10);                                                   // 32: bipush '-'
+        code.writeByte('-');
+        code.writeByte(0xA0);                                                   // 34: if_icmpne 42
+        code.writeShort(8);
+        code.writeByte(0x04);                                                   // 37: iconst_1
+        code.writeByte(0x3C);                                                   // 38: istore_1
+        code.writeByte(0xA7);                                                   // 39: goto 48
+        code.writeShort(9);
+        code.writeByte(0x1A);                                                   // 42: iload_0
+        code.writeByte(0x10);                                                   // 43: bipush '+'
+        code.writeByte('+');
+        code.writeByte(0xA0);                                                   // 45: if_icmpne 52
+        code.writeShort(7);
+        code.writeByte(0xB8);                                                   // 48: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x3B);                                                   // 51: istore_0
+        code.writeByte(0x03);                                                   // 52: iconst_0
+        code.writeByte(0x3D);                                                   // 53: istore_2
+        code.writeByte(0x1A);                                                   // 54: iload_0
+        code.writeByte(0x10);                                                   // 55: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0xA1);                                                   // 57: if_icmplt 131
+        code.writeShort(74);
+        code.writeByte(0x1A);                                                   // 60: iload_0
+        code.writeByte(0x10);                                                   // 61: bipush '9'
+        code.writeByte('9');
+        code.writeByte(0xA3);                                                   // 63: if_icmpgt 131
+        code.writeShort(68);
+        code.writeByte(0x1A);                                                   // 66: iload_0
+        code.writeByte(0x10);                                                   // 67: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0x64);                                                   // 69: isub
+        code.writeByte(0x3E);                                                   // 70: istore_3
+        code.writeByte(0x1C);                                                   // 71: iload_2
+        code.writeByte(0x13);                                                   // 72: ldc_w
+        code.writeShort(pool.integer(Integer.MIN_VALUE / 10));
+        code.writeByte(0xA1);                                                   // 75: if_icmplt 131
+        code.writeShort(56);
+        code.writeByte(0x1C);                                                   // 78: iload_2
+        code.writeByte(0x10);                                                   // 79: bipush 10
+        code.writeByte(10);
+        code.writeByte(0x68);                                                   // 81: imul
+        code.writeByte(0x3D);                                                   // 82: istore_2
+        code.writeByte(0x1C);                                                   // 83: iload_2
+        code.writeByte(0x13);                                                   // 84: ldc_w
+        code.writeShort(pool.integer(Integer.MIN_VALUE));
+        code.writeByte(0x1D);                                                   // 87: iload_3
+        code.writeByte(0x60);                                                   // 88: iadd
+        code.writeByte(0xA1);                                                   // 89: if_icmplt 131
+        code.writeShort(42);
+        code.writeByte(0x1C);                                                   // 92: iload_2
+        code.writeByte(0x1D);                                                   // 93: iload_3
+        code.writeByte(0x64);                                                   // 94: isub
+        code.writeByte(0x3D);                                                   // 95: istore_2
+        code.writeByte(0xB8);                                                   // 96: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x3B);                                                   // 99: istore_0
+        code.writeByte(0x1A);                                                   // 100: iload_0
+        code.writeByte(0x10);                                                   // 101: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0xA1);                                                   // 103: if_icmplt 112
+        code.writeShort(9);
+        code.writeByte(0x1A);                                                   // 106: iload_0
+        code.writeByte(0x10);                                                   // 107: bipush '9'
+        code.writeByte('9');
+        code.writeByte(0xA4);                                                   // 109: if_icmple 66
+        code.writeShort(-43);
+        code.writeByte(0x1A);                                                   // 112: iload_0
+        code.writeByte(0x10);                                                   // 113: bipush ' '
+        code.writeByte(' ');
+        code.writeByte(0xA3);                                                   // 115: if_icmpgt 131
+        code.writeShort(16);
+        code.writeByte(0x1B);                                                   // 118: iload_1
+        code.writeByte(0x9A);                                                   // 119: ifne 129
+        code.writeShort(10);
+        code.writeByte(0x1C);                                                   // 122: iload_2
+        code.writeByte(0x74);                                                   // 123: ineg
+        code.writeByte(0x59);                                                   // 124: dup
+        code.writeByte(0x3D);                                                   // 125: istore_2
+        code.writeByte(0x9B);                                                   // 126: iflt 131
+        code.writeShort(5);
+        code.writeByte(0x1C);                                                   // 129: iload_2
+        code.writeByte(0xAC);                                                   // 130: ireturn
+        code.writeByte(0xBB);                                                   // 131: new
+        code.writeShort(pool.classRef("java/lang/NumberFormatException"));
+        code.writeByte(0x59);                                                   // 134: dup
+        code.writeByte(0xB7);                                                   // 135: invokespecial
+        code.writeShort(pool.methodRef("java/lang/NumberFormatException", "<init>", "()V"));
+        code.writeByte(0xBF);                                                   // 138: athrow
+
+        frames.writeByte(252);                                                  // 4: append_frame
+        frames.writeShort(4);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(22 - 4 - 1);                                           // 22: same_frame
+        frames.writeByte(29 - 22 - 1);                                          // 29: same_frame
+        frames.writeByte(252);                                                  // 42: append_frame
+        frames.writeShort(42 - 29 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(48 - 42 - 1);                                          // 48: same_frame
+        frames.writeByte(52 - 48 - 1);                                          // 52: same_frame
+        frames.writeByte(252);                                                  // 66: append_frame
+        frames.writeShort(66 - 52 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(112 - 66 - 1);                                         // 112: same_frame
+        frames.writeByte(129 - 112 - 1);                                        // 129: same_frame
+        frames.writeByte(131 - 129 - 1);                                        // 131: same_frame
+
+        writeMethod(out, ACC_PUBLIC | ACC_STATIC, "read", "()I", 3, 4, codeBytes, frameBytes.toByteArray(), 10,
+                null);
+    }
+
+    /**
+     * Writes the {@code readList(I)[I} method, which reads the specified number of integers into the first elements
+     * of the values array (growing it if needed), and returns the array.
+     * <p>
+     * The integers are parsed as by {@code read()I}, but in a single loop over the input buffer, whose position and
+     * limit are kept in locals: {@code readByte()I} is only invoked to refill the buffer once it has been consumed.
+     *
+     * @param out       The output of the methods.
+     * @param codeBytes The buffer of the code.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeReadListMethod(DataOutputStream out, ByteArrayOutputStream codeBytes) throws IOException {
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+
+        // Locals: 0 = count, 1 = values, 2 = index, 3 = input, 4 = input position, 5 = input limit, 6 = byte,
+        // 7 = negative, 8 = value, 9 = digit
+        code.writeByte(0xB2);                                                   // 0: getstatic
+        code.writeShort(pool.fieldRef(className, "values", "[I"));
+        code.writeByte(0x4C);                                                   // 3: astore_1
+        code.writeByte(0x2B);                                                   // 4: aload_1
+        code.writeByte(0xBE);                                                   // 5: arraylength
+        code.writeByte(0x1A);                                                   // 6: iload_0
+        code.writeByte(0xA2);                                                   // 7: if_icmpge 18
+        code.writeShort(11);
+        code.writeByte(0x1A);                                                   // 10: iload_0
+        code.writeByte(0xBC);                                                   // 11: newarray int
+        code.writeByte(T_INT);
+        code.writeByte(0x59);                                                   // 13: dup
+        code.writeByte(0x4C);                                                   // 14: astore_1
+        code.writeByte(0xB3);                                                   // 15: putstatic
+        code.writeShort(pool.fieldRef(className, "values", "[I"));
+        code.writeByte(0xB2);                                                   // 18: getstatic
+        code.writeShort(pool.fieldRef(className, "input", "[B"));
+        code.writeByte(0x4E);                                                   // 21: astore_3
+        code.writeByte(0xB2);                                                   // 22: getstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x36);                                                   // 25: istore 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 27: getstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0x36);                                                   // 30: istore 5
+        code.writeByte(5);
+        code.writeByte(0x03);                                                   // 32: iconst_0
+        code.writeByte(0x3D);                                                   // 33: istore_2
+        code.writeByte(0x1C);                                                   // 34: iload_2
+        code.writeByte(0x1A);                                                   // 35: iload_0
+        code.writeByte(0xA2);                                                   // 36: if_icmpge 314
+        code.writeShort(278);
+        code.writeByte(0x15);                                                   // 39: iload 4
+        code.writeByte(4);
+        code.writeByte(0x15);                                                   // 41: iload 5
+        code.writeByte(5);
+        code.writeByte(0xA2);                                                   // 43: if_icmpge 62
+        code.writeShort(19);
+        code.writeByte(0x2D);                                                   // 46: aload_3
+        code.writeByte(0x15);                                                   // 47: iload 4
+        code.writeByte(4);
+        code.writeByte(0x84);                                                   // 49: iinc 4 1
+        code.writeByte(4);
+        code.writeByte(1);
+        code.writeByte(0x33);                                                   // 52: baload
+        code.writeByte(0x11);                                                   // 53: sipush 0xFF
+        code.writeShort(0xFF);
+        code.writeByte(0x7E);                                                   // 56: iand
+        code.writeByte(0x36);                                                   // 57: istore 6
+        code.writeByte(6);
+        code.writeByte(0xA7);                                                   // 59: goto 82
+        code.writeShort(23);
+        code.writeByte(0x15);                                                   // 62: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB3);                                                   // 64: putstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0xB8);                                                   // 67: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x36);                                                   // 70: istore 6
+        code.writeByte(6);
+        code.writeByte(0xB2);                                                   // 72: getstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x36);                                                   // 75: istore 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 77: getstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0x36);                                                   // 80: istore 5
+        code.writeByte(5);
+        code.writeByte(0x15);                                                   // 82: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 84: bipush ' '
+        code.writeByte(' ');
+        code.writeByte(0xA3);                                                   // 86: if_icmpgt 102
+        code.writeShort(16);
+        code.writeByte(0x15);                                                   // 89: iload 6
+        code.writeByte(6);
+        code.writeByte(0x9C);                                                   // 91: ifge 39
+        code.writeShort(-52);
+        code.writeByte(0xBB);                                                   // 94: new
+        code.writeShort(pool.classRef("java/util/NoSuchElementException"));
+        code.writeByte(0x59);                                                   // 97: dup
+        code.writeByte(0xB7);                                                   // 98: invokespecial
+        code.writeShort(pool.methodRef("java/util/NoSuchElementException", "<init>", "()V"));
+        code.writeByte(0xBF);                                                   // 101: athrow
+        code.writeByte(0x03);                                                   // 102: iconst_0
+        code.writeByte(0x36);                                                   // 103: istore 7
+        code.writeByte(7);
+        code.writeByte(0x15);                                                   // 105: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 107: bipush '-'
+        code.writeByte('-');
+        code.writeByte(0xA0);                                                   // 109: if_icmpne 118
+        code.writeShort(9);
+        code.writeByte(0x04);                                                   // 112: iconst_1
+        code.writeByte(0x36);                                                   // 113: istore 7
+        code.writeByte(7);
+        code.writeByte(0xA7);                                                   // 115: goto 125
+        code.writeShort(10);
+        code.writeByte(0x15);                                                   // 118: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 120: bipush '+'
+        code.writeByte('+');
+        code.writeByte(0xA0);                                                   // 122: if_icmpne 168
+        code.writeShort(46);
+        code.writeByte(0x15);                                                   // 125: iload 4
+        code.writeByte(4);
+        code.writeByte(0x15);                                                   // 127: iload 5
+        code.writeByte(5);
+        code.writeByte(0xA2);                                                   // 129: if_icmpge 148
+        code.writeShort(19);
+        code.writeByte(0x2D);                                                   // 132: aload_3
+        code.writeByte(0x15);                                                   // 133: iload 4
+        code.writeByte(4);
+        code.writeByte(0x84);                                                   // 135: iinc 4 1
+        code.writeByte(4);
+        code.writeByte(1);
+        code.writeByte(0x33);                                                   // 138: baload
+        code.writeByte(0x11);                                                   // 139: sipush 0xFF
+        code.writeShort(0xFF);
+        code.writeByte(0x7E);                                                   // 142: iand
+        code.writeByte(0x36);                                                   // 143: istore 6
+        code.writeByte(6);
+        code.writeByte(0xA7);                                                   // 145: goto 168
+        code.writeShort(23);
+        code.writeByte(0x15);                                                   // 148: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB3);                                                   // 150: putstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0xB8);                                                   // 153: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x36);                                                   // 156: istore 6
+        code.writeByte(6);
+        code.writeByte(0xB2);                                                   // 158: getstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x36);                                                   // 161: istore 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 163: getstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0x36);                                                   // 166: istore 5
+        code.writeByte(5);
+        code.writeByte(0x03);                                                   // 168: iconst_0
+        code.writeByte(0x36);                                                   // 169: istore 8
+        code.writeByte(8);
+        code.writeByte(0x15);                                                   // 171: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 173: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0xA1);                                                   // 175: if_icmplt 321
+        code.writeShort(146);
+        code.writeByte(0x15);                                                   // 178: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 180: bipush '9'
+        code.writeByte('9');
+        code.writeByte(0xA3);                                                   // 182: if_icmpgt 321
+        code.writeShort(139);
+        code.writeByte(0x15);                                                   // 185: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 187: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0x64);                                                   // 189: isub
+        code.writeByte(0x36);                                                   // 190: istore 9
+        code.writeByte(9);
+        code.writeByte(0x15);                                                   // 192: iload 8
+        code.writeByte(8);
+        code.writeByte(0x13);                                                   // 194: ldc_w
+        code.writeShort(pool.integer(Integer.MIN_VALUE / 10));
+        code.writeByte(0xA1);                                                   // 197: if_icmplt 321
+        code.writeShort(124);
+        code.writeByte(0x15);                                                   // 200: iload 8
+        code.writeByte(8);
+        code.writeByte(0x10);                                                   // 202: bipush 10
+        code.writeByte(10);
+        code.writeByte(0x68);                                                   // 204: imul
+        code.writeByte(0x36);                                                   // 205: istore 8
+        code.writeByte(8);
+        code.writeByte(0x15);                                                   // 207: iload 8
+        code.writeByte(8);
+        code.writeByte(0x13);                                                   // 209: ldc_w
+        code.writeShort(pool.integer(Integer.MIN_VALUE));
+        code.writeByte(0x15);                                                   // 212: iload 9
+        code.writeByte(9);
+        code.writeByte(0x60);                                                   // 214: iadd
+        code.writeByte(0xA1);                                                   // 215: if_icmplt 321
+        code.writeShort(106);
+        code.writeByte(0x15);                                                   // 218: iload 8
+        code.writeByte(8);
+        code.writeByte(0x15);                                                   // 220: iload 9
+        code.writeByte(9);
+        code.writeByte(0x64);                                                   // 222: isub
+        code.writeByte(0x36);                                                   // 223: istore 8
+        code.writeByte(8);
+        code.writeByte(0x15);                                                   // 225: iload 4
+        code.writeByte(4);
+        code.writeByte(0x15);                                                   // 227: iload 5
+        code.writeByte(5);
+        code.writeByte(0xA2);                                                   // 229: if_icmpge 248
+        code.writeShort(19);
+        code.writeByte(0x2D);                                                   // 232: aload_3
+        code.writeByte(0x15);                                                   // 233: iload 4
+        code.writeByte(4);
+        code.writeByte(0x84);                                                   // 235: iinc 4 1
+        code.writeByte(4);
+        code.writeByte(1);
+        code.writeByte(0x33);                                                   // 238: baload
+        code.writeByte(0x11);                                                   // 239: sipush 0xFF
+        code.writeShort(0xFF);
+        code.writeByte(0x7E);                                                   // 242: iand
+        code.writeByte(0x36);                                                   // 243: istore 6
+        code.writeByte(6);
+        code.writeByte(0xA7);                                                   // 245: goto 268
+        code.writeShort(23);
+        code.writeByte(0x15);                                                   // 248: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB3);                                                   // 250: putstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0xB8);                                                   // 253: invokestatic
+        code.writeShort(pool.methodRef(className, "readByte", "()I"));
+        code.writeByte(0x36);                                                   // 256: istore 6
+        code.writeByte(6);
+        code.writeByte(0xB2);                                                   // 258: getstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x36);                                                   // 261: istore 4
+        code.writeByte(4);
+        code.writeByte(0xB2);                                                   // 263: getstatic
+        code.writeShort(pool.fieldRef(className, "inputLimit", "I"));
+        code.writeByte(0x36);                                                   // 266: istore 5
+        code.writeByte(5);
+        code.writeByte(0x15);                                                   // 268: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 270: bipush '0'
+        code.writeByte('0');
+        code.writeByte(0xA1);                                                   // 272: if_icmplt 282
+        code.writeShort(10);
+        code.writeByte(0x15);                                                   // 275: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 277: bipush '9'
+        code.writeByte('9');
+        code.writeByte(0xA4);                                                   // 279: if_icmple 185
+        code.writeShort(-94);
+        code.writeByte(0x15);                                                   // 282: iload 6
+        code.writeByte(6);
+        code.writeByte(0x10);                                                   // 284: bipush ' '
+        code.writeByte(' ');
+        code.writeByte(0xA3);                                                   // 286: if_icmpgt 321
+        code.writeShort(35);
+        code.writeByte(0x15);                                                   // 289: iload 7
+        code.writeByte(7);
+        code.writeByte(0x9A);                                                   // 291: ifne 303
+        code.writeShort(12);
+        code.writeByte(0x15);                                                   // 294: iload 8
+        code.writeByte(8);
+        code.writeByte(0x74);                                                   // 296: ineg
+        code.writeByte(0x59);                                                   // 297: dup
+        code.writeByte(0x36);                                                   // 298: istore 8
+        code.writeByte(8);
+        code.writeByte(0x9B);                                                   // 300: iflt 321
+        code.writeShort(21);
+        code.writeByte(0x2B);                                                   // 303: aload_1
+        code.writeByte(0x1C);                                                   // 304: iload_2
+        code.writeByte(0x15);                                                   // 305: iload 8
+        code.writeByte(8);
+        code.writeByte(0x4F);                                                   // 307: iastore
+        code.writeByte(0x84);                                                   // 308: iinc 2 1
+        code.writeByte(2);
+        code.writeByte(1);
+        code.writeByte(0xA7);                                                   // 311: goto 34
+        code.writeShort(-277);
+        code.writeByte(0x15);                                                   // 314: iload 4
+        code.writeByte(4);
+        code.writeByte(0xB3);                                                   // 316: putstatic
+        code.writeShort(pool.fieldRef(className, "inputPosition", "I"));
+        code.writeByte(0x2B);                                                   // 319: aload_1
+        code.writeByte(0xB0);                                                   // 320: areturn
+        code.writeByte(0xBB);                                                   // 321: new
+        code.writeShort(pool.classRef("java/lang/NumberFormatException"));
+        code.writeByte(0x59);                                                   // 324: dup
+        code.writeByte(0xB7);                                                   // 325: invokespecial
+        code.writeShort(pool.methodRef("java/lang/NumberFormatException", "<init>", "()V"));
+        code.writeByte(0xBF);                                                   // 328: athrow
+
+        frames.writeByte(252);                                                  // 18: append_frame
+        frames.writeShort(18);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[I"));
+        frames.writeByte(255);                                                  // 34: full_frame
+        frames.writeShort(34 - 18 - 1);
+        frames.writeShort(6);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[I"));
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[B"));
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeShort(0);
+        frames.writeByte(39 - 34 - 1);                                          // 39: same_frame
+        frames.writeByte(62 - 39 - 1);                                          // 62: same_frame
+        frames.writeByte(252);                                                  // 82: append_frame
+        frames.writeShort(82 - 62 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(102 - 82 - 1);                                         // 102: same_frame
+        frames.writeByte(252);                                                  // 118: append_frame
+        frames.writeShort(118 - 102 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(125 - 118 - 1);                                        // 125: same_frame
+        frames.writeByte(148 - 125 - 1);                                        // 148: same_frame
+        frames.writeByte(168 - 148 - 1);                                        // 168: same_frame
+        frames.writeByte(252);                                                  // 185: append_frame
+        frames.writeShort(185 - 168 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(252);                                                  // 248: append_frame
+        frames.writeShort(248 - 185 - 1);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(268 - 248 - 1);                                        // 268: same_frame
+        frames.writeByte(282 - 268 - 1);                                        // 282: same_frame
+        frames.writeByte(303 - 282 - 1);                                        // 303: same_frame
+        frames.writeByte(255);                                                  // 314: full_frame
+        frames.writeShort(314 - 303 - 1);
+        frames.writeShort(6);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[I"));
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("[B"));
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeByte(ITEM_INTEGER);
+        frames.writeShort(0);
+        frames.writeByte(321 - 314 - 1);                                        // 321: same_frame
+
+        writeMethod(out, ACC_PUBLIC | ACC_STATIC, "readList", "(I)[I", 3, 10, codeBytes, frameBytes.toByteArray(), 17,
+                null);
+    }
+
+    /**
+     * Writes the {@code main} method, which runs the program, and flushes the output buffer even if the program
+     * throws an exception.
+     *
+     * @param out       The output of the methods.
+     * @param codeBytes The buffer of the code.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeMainMethod(DataOutputStream out, ByteArrayOutputStream codeBytes) throws IOException {
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+
+        code.writeByte(0xB8);                                                   // 0: invokestatic
+        code.writeShort(pool.methodRef(className, "run", "()V"));
+        code.writeByte(0xB8);                                                   // 3: invokestatic
+        code.writeShort(pool.methodRef(className, "flush", "()V"));
+        code.writeByte(0xB1);                                                   // 6: return
+        code.writeByte(0xB8);                                                   // 7: invokestatic
+        code.writeShort(pool.methodRef(className, "flush", "()V"));
+        code.writeByte(0xBF);                                                   // 10: athrow
+
+        frames.writeByte(64 + 7);                                               // 7: same_locals_1_stack_item_frame
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(pool.classRef("java/lang/Throwable"));
+
+        writeMethod(out, ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", 1, 1, codeBytes,
+                frameBytes.toByteArray(), 1, new int[]{0, 3, 7});
+    }
+
+    /**
+     * Writes a {@code run} method, which holds the code of the program.
+     *
+     * @param out        The output of the methods.
+     * @param runMethod  The variant of the method.
+     * @param entities   The entities of the code.
+     * @param localCount The number of variables of the program.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeRunMethod(DataOutputStream out, RunMethod runMethod, List<CodeGenEntity> entities,
+                                int localCount) throws IOException {
+        int count = entities.size();
+        Instruction<?>[] instructions = new Instruction<?>[count];
+        Map<Label, Integer> labelIndices = new HashMap<>();
+        int labelCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            CodeGenEntity entity = entities.get(i);
+
+            if (entity instanceof Instruction<?> instruction)
+                instructions[i] = instruction;
+            else
+                labelIndices.put((Label) entity, labelCount++);
+        }
+
+        // The targets of the jumps and the labels of the entities, as indices of labels
+        int[] targets = new int[count];
+        // The depth of the stack at each label, and after each instruction
+        int[] labelDepths = new int[labelCount];
+        int[] depths = new int[count];
+        // Whether each label, and each instruction that follows a goto without a label, needs a frame
+        boolean[] labelFrames = new boolean[labelCount];
+        boolean[] deadFrames = new boolean[count];
+        int depth = 0;
+        int firstVariable = runMethod.getFirstVariable();
+        int maxLocals = firstVariable + localCount;
+        int maxStack = maxLocals > runMethod.getParameterCount() ? 1 : 0;
+        boolean reachable = true;
+
+        Arrays.fill(labelDepths, -1);
+
+        for (int i = 0; i < count; i++) {
+            Instruction<?> instruction = instructions[i];
+
+            if (instruction == null) {
+                int label = targets[i] = labelIndices.get((Label) entities.get(i));
+
+                if (!reachable) {
+                    depth = Math.max(labelDepths[label], 0);
+                    labelFrames[label] = true;
+                }
+
+                if (labelDepths[label] < 0)
+                    labelDepths[label] = depth;
+
+                reachable = true;
+                continue;
+            }
+
+            if (!reachable) {
+                deadFrames[i] = true;
+                depth = 0;
+                reachable = true;
+            }
+
+            depth += getStackDelta(instruction);
+            maxStack = Math.max(maxStack, depth);
+
+            // The array of the read integers, its copy and an index are pushed while the variables are stored
+            if (instruction.getOpCode() == OpCode.READ_LIST)
+                maxStack = Math.max(maxStack, depth + 3);
+            depths[i] = depth;
+
+            if (instruction.getOperand() instanceof Label target) {
+                Integer label = labelIndices.get(target);
+
+                if (label == null)
+                    throw new IllegalStateException("Undefined label: " + target.getName());
+
+                targets[i] = label;
+                labelFrames[label] = true;
+
+                if (labelDepths[label] < 0)
+                    labelDepths[label] = depth;
+
+                reachable = instruction.getOpCode() != OpCode.GOTO;
+            }
+        }
+
+        // The offsets of the entities, computed until every jump fits into its encoding
+        int prologueSize = getPrologueSize(runMethod, maxLocals);
+        int[] offsets = new int[count + 1];
+        int[] labelOffsets = new int[labelCount];
+        boolean[] longJumps = new boolean[count];
+        boolean changed = true;
+
+        while (changed) {
+            int offset = prologueSize;
+
+            for (int i = 0; i < count; i++) {
+                offsets[i] = offset;
+
+                if (instructions[i] == null)
+                    labelOffsets[targets[i]] = offset;
+                else
+                    offset += getSize(runMethod, instructions[i], longJumps[i]);
+            }
+
+            offsets[count] = offset;
+            changed = false;
+
+            for (int i = 0; i < count; i++) {
+                if (instructions[i] != null && instructions[i].getOperand() instanceof Label && !longJumps[i]) {
+                    int jump = labelOffsets[targets[i]] - offsets[i];
+
+                    if (jump < Short.MIN_VALUE || jump > Short.MAX_VALUE)
+                        changed = longJumps[i] = true;
+                }
+            }
+        }
+
+        int codeLength = offsets[count] + (runMethod == RunMethod.ARRAYS ? 2 : 1);
+
+        if (codeLength > MAX_CODE_LENGTH)
+            throw new IllegalStateException("The code of the program is too large for a method (" + codeLength
+                    + " bytes, the maximum is " + MAX_CODE_LENGTH + ")");
+
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream(codeLength);
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(frameBytes);
+        int frameCount = 0;
+        int lastFrame = -1;
+
+        for (int local = runMethod.getParameterCount(); local < maxLocals; local++) {
+            code.writeByte(0x03);                                               // iconst_0
+            writeLocalInstruction(code, 0x36, 0x3B, local);                     // istore
+        }
+
+        for (int i = 0; i < count; i++) {
+            Instruction<?> instruction = instructions[i];
+            int frameDepth = -1;
+
+            if (instruction == null) {
+                if (labelFrames[targets[i]])
+                    frameDepth = labelDepths[targets[i]];
+            } else if (deadFrames[i])
+                frameDepth = 0;
+
+            if (frameDepth >= 0 && offsets[i] != lastFrame) {
+                writeFrame(frames, runMethod, offsets[i], lastFrame, frameDepth, maxLocals);
+                lastFrame = offsets[i];
+                frameCount++;
+            }
+
+            if (instruction == null)
+                continue;
+
+            writeInstruction(code, runMethod, instruction, longJumps[i], labelOffsets, targets[i], offsets[i]);
+
+            // The conditional jump over the goto_w jumps to the next instruction
+            if (longJumps[i] && instruction.getOpCode() != OpCode.GOTO) {
+                writeFrame(frames, runMethod, offsets[i] + LONG_BRANCH_SIZE, lastFrame, depths[i], maxLocals);
+                lastFrame = offsets[i] + LONG_BRANCH_SIZE;
+                frameCount++;
+            }
+        }
+
+        // The final return follows a goto if the last entity is a goto
+        if (!reachable && offsets[count] != lastFrame) {
+            writeFrame(frames, runMethod, offsets[count], lastFrame, 0, maxLocals);
+            frameCount++;
+        }
+
+        if (runMethod == RunMethod.ARRAYS) {
+            code.writeByte(0x1D);                                               // iload_3
+            code.writeByte(0xAC);                                               // ireturn
+        } else
+            code.writeByte(0xB1);                                               // return
+
+        writeMethodHeader(out, ACC_PUBLIC | ACC_STATIC, "run", runMethod.getDescriptor());
+        out.writeShort(1);                                                      // attributes
+        writeCodeAttribute(out, maxStack + getRuntimeStack(runMethod), maxLocals, codeBytes.toByteArray(),
+                codeLength, null, frameBytes.toByteArray(), frameCount);
+    }
+
+    /**
+     * Writes a private static field, which has no attributes.
+     *
+     * @param out        The output of the class file.
+     * @param name       The name of the field.
+     * @param descriptor The descriptor of the field.
+     * @throws IOException If an I/O exception occurs writing the field.
+     */
+    private void writeField(DataOutputStream out, String name, String descriptor) throws IOException {
+        out.writeShort(ACC_PRIVATE | ACC_STATIC);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(0);                                                      // attributes
+    }
+
+    /**
+     * Writes the access flags, name, and descriptor of a method.
+     *
+     * @param out        The output of the methods.
+     * @param access     The access flags of the method.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @throws IOException If an I/O exception occurs writing the method.
+     */
+    private void writeMethodHeader(DataOutputStream out, int access, String name, String descriptor)
+            throws IOException {
+        out.writeShort(access);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+    }
+
+    /**
+     * Writes the {@code Code} attribute of a method.
+     *
+     * @param out        The output of the methods.
+     * @param maxStack   The maximum depth of the operand stack.
+     * @param maxLocals  The number of local variables.
+     * @param code       The code of the method.
+     * @param codeLength The length of the code.
+     * @param handler    The start, end and handler offsets of the exception handler of any exception, or {@code null}
+     *                   if there is none.
+     * @param frames     The encoded frames of the {@code StackMapTable} attribute, or {@code null} if there is none.
+     * @param frameCount The number of frames.
+     * @throws IOException If an I/O exception occurs writing the attribute.
+     */
+    private void writeCodeAttribute(DataOutputStream out, int maxStack, int maxLocals, byte[] code, int codeLength,
+                                    int[] handler, byte[] frames, int frameCount) throws IOException {
+        boolean hasFrames = frameCount > 0;
+        int stackMapLength = hasFrames ? 2 + frames.length : 0;
+        int handlerLength = handler != null ? 8 : 0;
+
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(2 + 2 + 4 + codeLength + 2 + handlerLength + 2 + (hasFrames ? 6 + stackMapLength : 0));
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(codeLength);
+        out.write(code, 0, codeLength);
+
+        if (handler == null)
+            out.writeShort(0);                                                  // exception table
+        else {
+            out.writeShort(1);                                                  // exception table
+            out.writeShort(handler[0]);
+            out.writeShort(handler[1]);
+            out.writeShort(handler[2]);
+            out.writeShort(0);                                                  // any exception
+        }
+
+        out.writeShort(hasFrames ? 1 : 0);                                      // attributes
+
+        if (hasFrames) {
+            out.writeShort(pool.utf8("StackMapTable"));
+            out.writeInt(stackMapLength);
+            out.writeShort(frameCount);
+            out.write(frames);
+        }
+    }
+
+    /**
+     * Writes a frame of the {@code StackMapTable} attribute, whose locals are the parameters of the method followed by
+     * variables of type {@code int}, and whose stack holds only values of type {@code int}.
+     *
+     * @param out        The output of the frames.
+     * @param runMethod  The variant of the method.
+     * @param offset     The offset of the frame.
+     * @param lastOffset The offset of the previous frame, or {@code -1} if this is the first one.
+     * @param depth      The depth of the stack.
+     * @param localCount The number of variables of the method, including its parameters.
+     * @throws IOException If an I/O exception occurs writing the frame.
+     */
+    private void writeFrame(DataOutputStream out, RunMethod runMethod, int offset, int lastOffset, int depth,
+                            int localCount) throws IOException {
+        int delta = lastOffset < 0 ? offset : offset - lastOffset - 1;
+        String[] parameterTypes = runMethod.getParameterTypes();
+
+        // The locals differ from the ones of the initial frame (i.e., the parameters) only in the first frame
+        if (lastOffset >= 0 || localCount == parameterTypes.length) {
+            if (depth == 0) {
+                if (delta < 64)
+                    out.writeByte(delta);                                       // same_frame
+                else {
+                    out.writeByte(251);                                         // same_frame_extended
+                    out.writeShort(delta);
+                }
+
+                return;
+            }
+
+            if (depth == 1) {
+                if (delta < 64)
+                    out.writeByte(64 + delta);                                  // same_locals_1_stack_item_frame
+                else {
+                    out.writeByte(247);                                         // same_locals_1_stack_item_frame_extended
+                    out.writeShort(delta);
+                }
+
+                out.writeByte(ITEM_INTEGER);
+                return;
+            }
+        }
+
+        out.writeByte(255);                                                     // full_frame
+        out.writeShort(delta);
+        out.writeShort(localCount);
+
+        for (String parameterType : parameterTypes) {
+            out.writeByte(ITEM_OBJECT);
+            out.writeShort(pool.classRef(parameterType));
+        }
+
+        for (int i = parameterTypes.length; i < localCount; i++)
+            out.writeByte(ITEM_INTEGER);
+
+        out.writeShort(depth);
+
+        for (int i = 0; i < depth; i++)
+            out.writeByte(ITEM_INTEGER);
+    }
+
+    /**
+     * Writes an instruction of the code of the program.
+     *
+     * @param out          The output of the code.
+     * @param runMethod    The variant of the method of the code.
+     * @param instruction  The instruction.
+     * @param longJump     Whether the instruction is a jump encoded with a {@code goto_w}.
+     * @param labelOffsets The offsets of the labels.
+     * @param target       The label to which the instruction jumps, if it is a jump.
+     * @param offset       The offset of the instruction.
+     * @throws IOException If an I/O exception occurs writing the instruction.
+     */
+    private void writeInstruction(DataOutputStream out, RunMethod runMethod, Instruction<?> instruction,
+                                  boolean longJump, int[] labelOffsets, int target, int offset) throws IOException {
+        OpCode opCode = instruction.getOpCode();
+
+        switch (opCode) {
+            case LOAD_CONST -> writeIntConstant(out, (Integer) instruction.getOperand());
+            case READ_LIST -> writeReadList(out, runMethod, (int[]) instruction.getOperand());
+            case INVOKE_STATIC -> {
+                if (isRead(instruction))
+                    writeRead(out, runMethod);
+                else
+                    writePrint(out, runMethod);
+            }
+            case LOAD_VAR -> writeLocalInstruction(out, 0x15, 0x1A,
+                    runMethod.getFirstVariable() + (Integer) instruction.getOperand());
+            case STORE_VAR -> writeLocalInstruction(out, 0x36, 0x3B,
+                    runMethod.getFirstVariable() + (Integer) instruction.getOperand());
+            case ADD -> out.writeByte(0x60);                                    // iadd
+            case SUBTRACT -> out.writeByte(0x64);                               // isub
+            case MULTIPLY -> out.writeByte(0x68);                               // imul
+            case DIVIDE -> out.writeByte(0x6C);                                 // idiv
+            case NEGATE -> out.writeByte(0x74);                                 // ineg
+            case AND -> out.writeByte(0x7E);                                    // iand
+            case OR -> out.writeByte(0x80);                                     // ior
+            case IF_EQ, IF_NE, IF_LT, IF_GT, IF_LE, IF_GE, IF_NZ, GOTO -> {
+                int jumpOpCode = getJumpOpCode(opCode);
+                int jump = labelOffsets[target] - offset;
+
+                if (!longJump) {
+                    out.writeByte(jumpOpCode);
+                    out.writeShort(jump);
+                } else if (opCode == OpCode.GOTO) {
+                    out.writeByte(0xC8);                                        // goto_w
+                    out.writeInt(jump);
+                } else {
+                    out.writeByte(getInverseJumpOpCode(opCode));
+                    out.writeShort(LONG_BRANCH_SIZE);
+                    out.writeByte(0xC8);                                        // goto_w
+                    out.writeInt(jump - 3);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the instruction that pushes an integer constant, in its shortest encoding.
+     *
+     * @param out   The output of the code.
+     * @param value The integer.
+     * @throws IOException If an I/O exception occurs writing the instruction.
+     */
+    private void writeIntConstant(DataOutputStream out, int value) throws IOException {
+        if (value >= -1 && value <= 5)
+            out.writeByte(0x03 + value);                                        // iconst_<n>
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            out.writeByte(0x10);                                                // bipush
+            out.writeByte(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            out.writeByte(0x11);                                                // sipush
+            out.writeShort(value);
+        } else {
+            int index = pool.integer(value);
+
+            if (index <= 0xFF) {
+                out.writeByte(0x12);                                            // ldc
+                out.writeByte(index);
+            } else {
+                out.writeByte(0x13);                                            // ldc_w
+                out.writeShort(index);
+            }
+        }
+    }
+
+    /**
+     * Writes the code that reads an integer from the source of a {@code run} method, and pushes it.
+     *
+     * @param out       The output of the code.
+     * @param runMethod The variant of the method of the code.
+     * @throws IOException If an I/O exception occurs writing the code.
+     */
+    private void writeRead(DataOutputStream out, RunMethod runMethod) throws IOException {
+        switch (runMethod) {
+            case STANDARD -> {
+                out.writeByte(0xB8);                                            // invokestatic
+                out.writeShort(pool.methodRef(className, "read", "()I"));
+            }
+            case SINKS -> {
+                out.writeByte(0x2A);                                            // aload_0
+                out.writeByte(0xB9);                                            // invokeinterface
+                out.writeShort(pool.interfaceMethodRef("java/util/function/IntSupplier", "getAsInt", "()I"));
+                out.writeByte(1);
+                out.writeByte(0);
+            }
+            case ARRAYS -> {
+                out.writeByte(0x2A);                                            // aload_0
+                out.writeByte(0x1C);                                            // iload_2
+                out.writeByte(0x84);                                            // iinc
+                out.writeByte(2);
+                out.writeByte(1);
+                out.writeByte(0x2E);                                            // iaload
+            }
+        }
+    }
+
+    /**
+     * Writes the code that reads a list of variables.
+     * In the {@code run()V} method, the integers are read by a single invocation of {@code readList(I)[I}, and loaded
+     * from the returned array; in the other variants, which read from their parameters, they are read one at a time.
+     *
+     * @param out       The output of the code.
+     * @param runMethod The variant of the method of the code.
+     * @param variables The indices of the variables.
+     * @throws IOException If an I/O exception occurs writing the code.
+     */
+    private void writeReadList(DataOutputStream out, RunMethod runMethod, int[] variables) throws IOException {
+        int firstVariable = runMethod.getFirstVariable();
+
+        if (runMethod != RunMethod.STANDARD) {
+            for (int variable : variables) {
+                writeRead(out, runMethod);
+                writeLocalInstruction(out, 0x36, 0x3B, firstVariable + variable);   // istore
+            }
+
+            return;
+        }
+
+        writeIntConstant(out, variables.length);
+        out.writeByte(0xB8);                                                    // invokestatic
+        out.writeShort(pool.methodRef(className, "readList", "(I)[I"));
+
+        for (int i = 0; i < variables.length; i++) {
+            if (i < variables.length - 1)
+                out.writeByte(0x59);                                            // dup
+
+            writeIntConstant(out, i);
+            out.writeByte(0x2E);                                                // iaload
+            writeLocalInstruction(out, 0x36, 0x3B, firstVariable + variables[i]);   // istore
+        }
+    }
+
+    /**
+     * Gets the size of the code that reads a list of variables.
+     *
+     * @param runMethod The variant of the method of the code.
+     * @param variables The indices of the variables.
+     * @return The size of the code.
+     */
+    private int getReadListSize(RunMethod runMethod, int[] variables) {
+        int firstVariable = runMethod.getFirstVariable();
+        int size = 0;
+
+        if (runMethod != RunMethod.STANDARD) {
+            for (int variable : variables)
+                size += getReadSize(runMethod) + getLocalInstructionSize(firstVariable + variable);
+
+            return size;
+        }
+
+        size += getIntConstantSize(variables.length) + 3;
+
+        for (int i = 0; i < variables.length; i++)
+            size += (i < variables.length - 1 ? 1 : 0) + getIntConstantSize(i) + 1
+                    + getLocalInstructionSize(firstVariable + variables[i]);
+
+        return size;
+    }
+
+    /**
+     * Gets the size of the code that reads an integer.
+     *
+     * @param runMethod The variant of the method of the code.
+     * @return The size of the code.
+     */
+    private static int getReadSize(RunMethod runMethod) {
+        return switch (runMethod) {
+            case STANDARD -> 3;
+            case SINKS, ARRAYS -> 6;
+        };
+    }
+
+    /**
+     * Gets the size of the code that prints an integer.
+     *
+     * @param runMethod The variant of the method of the code.
+     * @return The size of the code.
+     */
+    private static int getPrintSize(RunMethod runMethod) {
+        return switch (runMethod) {
+            case STANDARD -> 3;
+            case SINKS -> 7;
+            case ARRAYS -> 8;
+        };
+    }
+
+    /**
+     * Writes the code that pops an integer, and prints it to the sink of a {@code run} method.
+     *
+     * @param out       The output of the code.
+     * @param runMethod The variant of the method of the code.
+     * @throws IOException If an I/O exception occurs writing the code.
+     */
+    private void writePrint(DataOutputStream out, RunMethod runMethod) throws IOException {
+        switch (runMethod) {
+            case STANDARD -> {
+                out.writeByte(0xB8);                                            // invokestatic
+                out.writeShort(pool.methodRef(className, "print", "(I)V"));
+            }
+            case SINKS -> {
+                out.writeByte(0x2B);                                            // aload_1
+                out.writeByte(0x5F);                                            // swap
+                out.writeByte(0xB9);                                            // invokeinterface
+                out.writeShort(pool.interfaceMethodRef("java/util/function/IntConsumer", "accept", "(I)V"));
+                out.writeByte(2);
+                out.writeByte(0);
+            }
+            case ARRAYS -> {
+                out.writeByte(0x2B);                                            // aload_1
+                out.writeByte(0x1D);                                            // iload_3
+                out.writeByte(0x84);                                            // iinc
+                out.writeByte(3);
+                out.writeByte(1);
+                out.writeByte(0x5D);                                            // dup2_x1
+                out.writeByte(0x58);                                            // pop2
+                out.writeByte(0x4F);                                            // iastore
+            }
+        }
+    }
+
+    /**
+     * Tells whether an {@code invokestatic} instruction reads an integer.
+     *
+     * @param instruction The instruction.
+     * @return {@code true} if the instruction reads an integer, or {@code false} if it prints one.
+     * @throws IllegalStateException If the instruction invokes neither {@code read} nor {@code print}.
+     */
+    private static boolean isRead(Instruction<?> instruction) {
+        int method = (Integer) instruction.getOperand();
+
+        return switch (method) {
+            case Instruction.READ_METHOD_ID -> true;
+            case Instruction.PRINT_METHOD_ID -> false;
+            default -> throw new IllegalStateException("The instruction 'invokestatic' has an invalid operand: '"
+                    + method + "'");
+        };
+    }
+
+    /**
+     * Gets the number of values that the code reading or printing an integer pushes onto the stack, besides the value
+     * it reads or prints.
+     *
+     * @param runMethod The variant of the method of the code.
+     * @return The additional depth of the stack.
+     */
+    private static int getRuntimeStack(RunMethod runMethod) {
+        return switch (runMethod) {
+            case STANDARD -> 0;
+            case SINKS -> 1;
+            case ARRAYS -> 4;
+        };
+    }
+
+    /**
+     * Writes an {@code iload} or {@code istore} instruction, in its shortest encoding.
+     *
+     * @param out       The output of the code.
+     * @param opCode    The opcode of the instruction with an explicit index.
+     * @param shortForm The opcode of the instruction for the variable {@code 0} (e.g., {@code iload_0}).
+     * @param local     The index of the variable.
+     * @throws IOException If an I/O exception occurs writing the instruction.
+     */
+    private static void writeLocalInstruction(DataOutputStream out, int opCode, int shortForm, int local)
+            throws IOException {
+        if (local <= 3)
+            out.writeByte(shortForm + local);
+        else if (local <= 0xFF) {
+            out.writeByte(opCode);
+            out.writeByte(local);
+        } else {
+            out.writeByte(0xC4);                                                // wide
+            out.writeByte(opCode);
+            out.writeShort(local);
+        }
+    }
+
+    /**
+     * Gets the size of the prologue of a {@code run} method, which sets all the variables that are not parameters to
+     * {@code 0}.
+     *
+     * @param runMethod  The variant of the method.
+     * @param localCount The number of variables of the method, including its parameters.
+     * @return The size of the prologue.
+     */
+    private static int getPrologueSize(RunMethod runMethod, int localCount) {
+        int size = 0;
+
+        for (int local = runMethod.getParameterCount(); local < localCount; local++)
+            size += 1 + getLocalInstructionSize(local);
+
+        return size;
+    }
+
+    /**
+     * Gets the size of an {@code iload} or {@code istore} instruction.
+     *
+     * @param local The index of the variable.
+     * @return The size of the instruction.
+     */
+    private static int getLocalInstructionSize(int local) {
+        return local <= 3 ? 1 : local <= 0xFF ? 2 : 4;
+    }
+
+    /**
+     * Gets the size of an instruction.
+     *
+     * @param runMethod   The variant of the method of the instruction.
+     * @param instruction The instruction.
+     * @param longJump    Whether the instruction is a jump encoded with a {@code goto_w}.
+     * @return The size of the instruction.
+     */
+    private int getSize(RunMethod runMethod, Instruction<?> instruction, boolean longJump) {
+        return switch (instruction.getOpCode()) {
+            case LOAD_CONST -> getIntConstantSize((Integer) instruction.getOperand());
+            case INVOKE_STATIC -> isRead(instruction) ? getReadSize(runMethod) : getPrintSize(runMethod);
+            case READ_LIST -> getReadListSize(runMethod, (int[]) instruction.getOperand());
+            case LOAD_VAR, STORE_VAR ->
+                    getLocalInstructionSize(runMethod.getFirstVariable() + (Integer) instruction.getOperand());
+            case ADD, SUBTRACT, MULTIPLY, DIVIDE, NEGATE, AND, OR -> 1;
+            case GOTO -> longJump ? 5 : 3;
+            case IF_EQ, IF_NE, IF_LT, IF_GT, IF_LE, IF_GE, IF_NZ -> longJump ? LONG_BRANCH_SIZE : 3;
+        };
+    }
+
+    /**
+     * Gets the size of the instruction that pushes an integer constant.
+     *
+     * @param value The integer.
+     * @return The size of the instruction.
+     */
+    private int getIntConstantSize(int value) {
+        if (value >= -1 && value <= 5)
+            return 1;
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+            return 2;
+        if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+            return 3;
+
+        return pool.integer(value) <= 0xFF ? 2 : 3;
+    }
+
+    /**
+     * Gets the change of the depth of the stack caused by an instruction.
+     *
+     * @param instruction The instruction.
+     * @return The number of pushed values, minus the number of popped values.
+     */
+    private static int getStackDelta(Instruction<?> instruction) {
+        return switch (instruction.getOpCode()) {
+            case LOAD_CONST, LOAD_VAR -> 1;
+            case INVOKE_STATIC -> (Integer) instruction.getOperand() == Instruction.READ_METHOD_ID ? 1 : -1;
+            case STORE_VAR, ADD, SUBTRACT, MULTIPLY, DIVIDE, AND, OR, IF_NZ -> -1;
+            case NEGATE, GOTO, READ_LIST -> 0;
+            case IF_EQ, IF_NE, IF_LT, IF_GT, IF_LE, IF_GE -> -2;
+        };
+    }
+
+    /**
+     * Gets the JVM opcode of a jump.
+     *
+     * @param opCode The opcode of the jump.
+     * @return The JVM opcode of the jump, in its short encoding.
+     */
+    private static int getJumpOpCode(OpCode opCode) {
+        return switch (opCode) {
+            case IF_EQ -> 0x9F;                                                 // if_icmpeq
+            case IF_NE -> 0xA0;                                                 // if_icmpne
+            case IF_LT -> 0xA1;                                                 // if_icmplt
+            case IF_GE -> 0xA2;                                                 // if_icmpge
+            case IF_GT -> 0xA3;                                                 // if_icmpgt
+            case IF_LE -> 0xA4;                                                 // if_icmple
+            case IF_NZ -> 0x9A;                                                 // ifne
+            case GOTO -> 0xA7;                                                  // goto
+            default -> throw new IllegalStateException("Not a jump: " + opCode);
+        };
+    }
+
+    /**
+     * Gets the JVM opcode of the inverse of a conditional jump.
+     *
+     * @param opCode The opcode of the conditional jump.
+     * @return The JVM opcode of the jump whose condition is the negation of the one of the specified jump.
+     */
+    private static int getInverseJumpOpCode(OpCode opCode) {
+        return switch (opCode) {
+            case IF_EQ -> 0xA0;                                                 // if_icmpne
+            case IF_NE -> 0x9F;                                                 // if_icmpeq
+            case IF_LT -> 0xA2;                                                 // if_icmpge
+            case IF_GE -> 0xA1;                                                 // if_icmplt
+            case IF_GT -> 0xA4;                                                 // if_icmple
+            case IF_LE -> 0xA3;                                                 // if_icmpgt
+            case IF_NZ -> 0x99;                                                 // ifeq
+            default -> throw new IllegalStateException("Not a conditional jump: " + opCode);
+        };
+    }
+}
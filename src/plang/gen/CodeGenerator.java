@@ -3,29 +3,63 @@ package plang.gen;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * Implements an IJVM code generator.
+ * <p>
+ * The generator either keeps the added entities until the code is generated into a file, or writes each entity to an
+ * output as soon as it is added (i.e., it streams the code), so that the code is never held in memory.
  */
 public final class CodeGenerator {
     /**
-     * The queue of entities to be generated
+     * The queue of entities to be generated, or {@code null} if the code is streamed
      */
-    private final List<CodeGenEntity> entities = new LinkedList<>();
+    private final List<CodeGenEntity> entities;
+    /**
+     * The output to which the code is streamed, or {@code null} if the code is generated at once
+     */
+    private final Writer out;
     /**
      * The symbol table
      */
     private final SymbolTable symbolTable = new SymbolTable();
 
+    /**
+     * Initializes a new {@link CodeGenerator}, which keeps the added entities until {@link #generate(String)} is called.
+     */
+    public CodeGenerator() {
+        this.entities = new LinkedList<>();
+        this.out = null;
+    }
+
+    /**
+     * Initializes a new {@link CodeGenerator}, which streams the code to the specified output.
+     * The header of the code is written immediately, each entity is written as it is added, and the footer is written
+     * by {@link #finish()}. An I/O error that occurs writing an entity is thrown as an {@link UncheckedIOException}.
+     *
+     * @param out The output to which the code is written.
+     * @throws IOException If an I/O exception occurs writing the header of the code.
+     */
+    public CodeGenerator(Writer out) throws IOException {
+        this.entities = null;
+        this.out = out;
+        out.write(header);
+    }
+
     /**
      * Adds an instruction to be generated.
      *
      * @param opCode The opcode of the instruction
      */
     public void addInstruction(OpCode opCode) {
-        entities.add(new Instruction<>(opCode));
+        add(new Instruction<>(opCode));
     }
 
     /**
@@ -35,7 +69,7 @@ public final class CodeGenerator {
      * @param label  The label operand of the opcode.
      */
     public void addInstruction(OpCode opcode, Label label) {
-        entities.add(new Instruction<>(opcode, Label.LABEL_PREFIX + label.getId()));
+        add(new Instruction<>(opcode, label));
     }
 
     /**
@@ -45,7 +79,7 @@ public final class CodeGenerator {
      * @param operand The integer operand of the instruction.
      */
     public void addInstruction(OpCode opcode, int operand) {
-        entities.add(new Instruction<>(opcode, operand));
+        add(new Instruction<>(opcode, operand));
     }
 
     /**
@@ -54,21 +88,43 @@ public final class CodeGenerator {
      * @param label The label to go to.
      */
     public void addGotoInstruction(Label label) {
-        entities.add(new Instruction<>(OpCode.GOTO, Label.LABEL_PREFIX + label.getId()));
+        add(new Instruction<>(OpCode.GOTO, label));
     }
 
     /**
      * Adds a {@code read} instruction.
      */
     public void addReadInstruction() {
-        entities.add(new Instruction<>(OpCode.INVOKE_STATIC, Instruction.READ_METHOD_ID));
+        add(new Instruction<>(OpCode.INVOKE_STATIC, Instruction.READ_METHOD_ID));
+    }
+
+    /**
+     * Adds the read of a list of variables.
+     * A single variable is read by a {@code read} instruction, while several variables are read at once (see
+     * {@link OpCode#READ_LIST}).
+     *
+     * @param varNames The names of the variables, in order.
+     */
+    public void addReadListInstruction(List<String> varNames) {
+        if (varNames.size() == 1) {
+            addReadInstruction();
+            addStoreVarInstruction(varNames.get(0));
+            return;
+        }
+
+        int[] variables = new int[varNames.size()];
+
+        for (int i = 0; i < variables.length; i++)
+            variables[i] = symbolTable.get(varNames.get(i));
+
+        add(new Instruction<>(OpCode.READ_LIST, variables));
     }
 
     /**
      * Adds a {@code print} instruction.
      */
     public void addPrintInstruction() {
-        entities.add(new Instruction<>(OpCode.INVOKE_STATIC, Instruction.PRINT_METHOD_ID));
+        add(new Instruction<>(OpCode.INVOKE_STATIC, Instruction.PRINT_METHOD_ID));
     }
 
     /**
@@ -77,7 +133,7 @@ public final class CodeGenerator {
      * @param varName The name of the variable to store.
      */
     public void addStoreVarInstruction(String varName) {
-        entities.add(new Instruction<>(OpCode.STORE_VAR, symbolTable.get(varName)));
+        add(new Instruction<>(OpCode.STORE_VAR, symbolTable.get(varName)));
     }
 
     /**
@@ -86,7 +142,7 @@ public final class CodeGenerator {
      * @param varName The name of the variable to load.
      */
     public void addLoadVarInstruction(String varName) {
-        entities.add(new Instruction<>(OpCode.LOAD_VAR, symbolTable.lookup(varName)));
+        add(new Instruction<>(OpCode.LOAD_VAR, symbolTable.lookup(varName)));
     }
 
     /**
@@ -95,7 +151,25 @@ public final class CodeGenerator {
      * @param label The label to be generated.
      */
     public void addLabel(Label label) {
-        entities.add(label);
+        add(label);
+    }
+
+    /**
+     * Adds an entity, writing it to the output if the code is streamed.
+     *
+     * @param entity The entity to be generated.
+     * @throws UncheckedIOException If an I/O exception occurs writing the entity.
+     */
+    private void add(CodeGenEntity entity) {
+        if (out == null)
+            entities.add(entity);
+        else {
+            try {
+                out.write(entity + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -103,8 +177,12 @@ public final class CodeGenerator {
      *
      * @param outFilePath The path of the output file.
      * @throws IOException If an I/O exception occurs when generating the code.
+     * @throws IllegalStateException If the code is streamed.
      */
     public void generate(String outFilePath) throws IOException {
+        if (out != null)
+            throw new IllegalStateException("The code is streamed to an output");
+
         BufferedWriter br = new BufferedWriter(new FileWriter(outFilePath, false));
         br.write(header);
 
@@ -115,41 +193,496 @@ public final class CodeGenerator {
         br.close();
     }
 
+    /**
+     * Generates the class file of the code into the file at the specified path, without assembling the code.
+     * The class is named {@code Output}, as the class of the generated code.
+     *
+     * @param outFilePath The path of the output file.
+     * @throws IOException           If an I/O exception occurs when writing the class file.
+     * @throws IllegalStateException If the code is streamed, or if it is too large for a method.
+     */
+    public void generateClass(String outFilePath) throws IOException {
+        Files.write(Path.of(outFilePath), toClassFile(CLASS_NAME));
+    }
+
+    /**
+     * Generates the class file of the code.
+     *
+     * @param className The internal name of the class (e.g., {@code plang/Output}).
+     * @return The bytes of the class file.
+     * @throws IllegalStateException If the code is streamed, or if it is too large for a method.
+     */
+    public byte[] toClassFile(String className) {
+        if (out != null)
+            throw new IllegalStateException("The code is streamed to an output");
+
+        return new ClassFileWriter(className).write(new ArrayList<>(entities), symbolTable.size());
+    }
+
+    /**
+     * Writes the footer of the code that is streamed, and flushes the output.
+     *
+     * @throws IOException If an I/O exception occurs writing the footer.
+     * @throws IllegalStateException If the code is not streamed.
+     */
+    public void finish() throws IOException {
+        if (out == null)
+            throw new IllegalStateException("The code is not streamed to an output");
+
+        out.write(footer);
+        out.flush();
+    }
+
+    /** The name of the generated class */
+    private static final String CLASS_NAME = "Output";
+
+    /** The size of the buffer into which the generated code prints */
+    static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /** The size of the buffer from which the generated code reads */
+    static final int INPUT_BUFFER_SIZE = 1 << 16;
+
     /** The header of an output file */
     private static final String header = """
             .class public Output
             .super java/lang/Object
             
+            .field private static output [B
+            .field private static outputPosition I
+            .field private static lineSeparator [B
+            .field private static input [B
+            .field private static inputPosition I
+            .field private static inputLimit I
+            .field private static values [I
+            
             .method public <init>()V
              aload_0
              invokenonvirtual java/lang/Object/<init>()V
              return
             .end method
             
+            .method static <clinit>()V
+             .limit stack 1
+             ldc %d
+             newarray byte
+             putstatic Output/output [B
+             ldc %d
+             newarray byte
+             putstatic Output/input [B
+             iconst_0
+             newarray int
+             putstatic Output/values [I
+             invokestatic java/lang/System/lineSeparator()Ljava/lang/String;
+             invokevirtual java/lang/String/getBytes()[B
+             putstatic Output/lineSeparator [B
+             return
+            .end method
+            
             .method public static print(I)V
-             .limit stack 2
-             getstatic java/lang/System/out Ljava/io/PrintStream;
+             .limit stack 5
+             .limit locals 5
+             getstatic Output/output [B
+             astore_1
+             getstatic Output/outputPosition I
+             istore_2
+             iload_2
+             aload_1
+             arraylength
+             bipush 11
+             isub
+             getstatic Output/lineSeparator [B
+             arraylength
+             isub
+             if_icmple Fits
+             invokestatic Output/flush()V
+             iconst_0
+             istore_2
+            Fits:
+             iload_0
+             iflt Negative
+             iload_0
+             ineg
+             istore_0
+             goto Digits
+            Negative:
+             aload_1
+             iload_2
+             iinc 2 1
+             bipush 45
+             bastore
+            Digits:
+             iload_2
+             istore 4
+             iload_0
+             istore_3
+            Count:
+             iinc 4 1
+             iload_3
+             bipush 10
+             idiv
+             dup
+             istore_3
+             ifne Count
+             getstatic Output/lineSeparator [B
+             iconst_0
+             aload_1
+             iload 4
+             getstatic Output/lineSeparator [B
+             arraylength
+             invokestatic java/lang/System/arraycopy(Ljava/lang/Object;ILjava/lang/Object;II)V
+             iload 4
+             getstatic Output/lineSeparator [B
+             arraylength
+             iadd
+             putstatic Output/outputPosition I
+            Digit:
+             aload_1
+             iinc 4 -1
+             iload 4
+             bipush 48
+             iload_0
+             bipush 10
+             irem
+             isub
+             i2b
+             bastore
              iload_0
-             invokestatic java/lang/Integer/toString(I)Ljava/lang/String;
-             invokevirtual java/io/PrintStream/println(Ljava/lang/String;)V
+             bipush 10
+             idiv
+             dup
+             istore_0
+             ifne Digit
+             return
+            .end method
+            
+            .method public static flush()V
+             .limit stack 4
+             getstatic java/lang/System/out Ljava/io/PrintStream;
+             getstatic Output/output [B
+             iconst_0
+             getstatic Output/outputPosition I
+             invokevirtual java/io/PrintStream/write([BII)V
+             iconst_0
+             putstatic Output/outputPosition I
+             getstatic java/lang/System/out Ljava/io/PrintStream;
+             invokevirtual java/io/PrintStream/flush()V
              return
             .end method
             
+            .method private static readByte()I
+             .limit stack 4
+             .limit locals 1
+             getstatic Output/inputPosition I
+             istore_0
+             iload_0
+             getstatic Output/inputLimit I
+             if_icmpne Available
+             invokestatic Output/flush()V
+             getstatic java/lang/System/in Ljava/io/InputStream;
+             getstatic Output/input [B
+             iconst_0
+             getstatic Output/input [B
+             arraylength
+             invokevirtual java/io/InputStream/read([BII)I
+             dup
+             ifgt Filled
+             pop
+             iconst_m1
+             ireturn
+            Filled:
+             putstatic Output/inputLimit I
+             iconst_0
+             istore_0
+            Available:
+             getstatic Output/input [B
+             iload_0
+             iload_0
+             iconst_1
+             iadd
+             putstatic Output/inputPosition I
+             baload
+             sipush 255
+             iand
+             ireturn
+            .end method
+            
             .method public static read()I
              .limit stack 3
-             new java/util/Scanner
+             .limit locals 4
+             invokestatic Output/readByte()I
+             istore_0
+            Skip:
+             iload_0
+             bipush 32
+             if_icmpgt Token
+             iload_0
+             ifge Next
+             new java/util/NoSuchElementException
              dup
-             getstatic java/lang/System/in Ljava/io/InputStream;
-             invokespecial java/util/Scanner/<init>(Ljava/io/InputStream;)V
-             invokevirtual java/util/Scanner/next()Ljava/lang/String;
-             invokestatic java/lang/Integer.parseInt(Ljava/lang/String;)I
+             invokespecial java/util/NoSuchElementException/<init>()V
+             athrow
+            Next:
+             invokestatic Output/readByte()I
+             istore_0
+             goto Skip
+            Token:
+             iconst_0
+             istore_1
+             iload_0
+             bipush 45
+             if_icmpne Plus
+             iconst_1
+             istore_1
+             goto Sign
+            Plus:
+             iload_0
+             bipush 43
+             if_icmpne First
+            Sign:
+             invokestatic Output/readByte()I
+             istore_0
+            First:
+             iconst_0
+             istore_2
+             iload_0
+             bipush 48
+             if_icmplt Invalid
+             iload_0
+             bipush 57
+             if_icmpgt Invalid
+            Digit:
+             iload_0
+             bipush 48
+             isub
+             istore_3
+             iload_2
+             ldc -214748364
+             if_icmplt Invalid
+             iload_2
+             bipush 10
+             imul
+             istore_2
+             iload_2
+             ldc -2147483648
+             iload_3
+             iadd
+             if_icmplt Invalid
+             iload_2
+             iload_3
+             isub
+             istore_2
+             invokestatic Output/readByte()I
+             istore_0
+             iload_0
+             bipush 48
+             if_icmplt End
+             iload_0
+             bipush 57
+             if_icmple Digit
+            End:
+             iload_0
+             bipush 32
+             if_icmpgt Invalid
+             iload_1
+             ifne Return
+             iload_2
+             ineg
+             dup
+             istore_2
+             iflt Invalid
+            Return:
+             iload_2
              ireturn
+            Invalid:
+             new java/lang/NumberFormatException
+             dup
+             invokespecial java/lang/NumberFormatException/<init>()V
+             athrow
+            .end method
+            
+            .method public static readList(I)[I
+             .limit stack 3
+             .limit locals 10
+             getstatic Output/values [I
+             astore_1
+             aload_1
+             arraylength
+             iload_0
+             if_icmpge Fill
+             iload_0
+             newarray int
+             dup
+             astore_1
+             putstatic Output/values [I
+            Fill:
+             getstatic Output/input [B
+             astore_3
+             getstatic Output/inputPosition I
+             istore 4
+             getstatic Output/inputLimit I
+             istore 5
+             iconst_0
+             istore_2
+            Loop:
+             iload_2
+             iload_0
+             if_icmpge Done
+            Skip:
+             iload 4
+             iload 5
+             if_icmpge SkipRefill
+             aload_3
+             iload 4
+             iinc 4 1
+             baload
+             sipush 255
+             iand
+             istore 6
+             goto Skipped
+            SkipRefill:
+             iload 4
+             putstatic Output/inputPosition I
+             invokestatic Output/readByte()I
+             istore 6
+             getstatic Output/inputPosition I
+             istore 4
+             getstatic Output/inputLimit I
+             istore 5
+            Skipped:
+             iload 6
+             bipush 32
+             if_icmpgt Token
+             iload 6
+             ifge Skip
+             new java/util/NoSuchElementException
+             dup
+             invokespecial java/util/NoSuchElementException/<init>()V
+             athrow
+            Token:
+             iconst_0
+             istore 7
+             iload 6
+             bipush 45
+             if_icmpne Plus
+             iconst_1
+             istore 7
+             goto Sign
+            Plus:
+             iload 6
+             bipush 43
+             if_icmpne First
+            Sign:
+             iload 4
+             iload 5
+             if_icmpge SignRefill
+             aload_3
+             iload 4
+             iinc 4 1
+             baload
+             sipush 255
+             iand
+             istore 6
+             goto First
+            SignRefill:
+             iload 4
+             putstatic Output/inputPosition I
+             invokestatic Output/readByte()I
+             istore 6
+             getstatic Output/inputPosition I
+             istore 4
+             getstatic Output/inputLimit I
+             istore 5
+            First:
+             iconst_0
+             istore 8
+             iload 6
+             bipush 48
+             if_icmplt Invalid
+             iload 6
+             bipush 57
+             if_icmpgt Invalid
+            Digit:
+             iload 6
+             bipush 48
+             isub
+             istore 9
+             iload 8
+             ldc -214748364
+             if_icmplt Invalid
+             iload 8
+             bipush 10
+             imul
+             istore 8
+             iload 8
+             ldc -2147483648
+             iload 9
+             iadd
+             if_icmplt Invalid
+             iload 8
+             iload 9
+             isub
+             istore 8
+             iload 4
+             iload 5
+             if_icmpge DigitRefill
+             aload_3
+             iload 4
+             iinc 4 1
+             baload
+             sipush 255
+             iand
+             istore 6
+             goto Digited
+            DigitRefill:
+             iload 4
+             putstatic Output/inputPosition I
+             invokestatic Output/readByte()I
+             istore 6
+             getstatic Output/inputPosition I
+             istore 4
+             getstatic Output/inputLimit I
+             istore 5
+            Digited:
+             iload 6
+             bipush 48
+             if_icmplt End
+             iload 6
+             bipush 57
+             if_icmple Digit
+            End:
+             iload 6
+             bipush 32
+             if_icmpgt Invalid
+             iload 7
+             ifne Store
+             iload 8
+             ineg
+             dup
+             istore 8
+             iflt Invalid
+            Store:
+             aload_1
+             iload_2
+             iload 8
+             iastore
+             iinc 2 1
+             goto Loop
+            Done:
+             iload 4
+             putstatic Output/inputPosition I
+             aload_1
+             areturn
+            Invalid:
+             new java/lang/NumberFormatException
+             dup
+             invokespecial java/lang/NumberFormatException/<init>()V
+             athrow
             .end method
             
             .method public static run()V
              .limit stack 1024
              .limit locals 256
-            """;
+            """.formatted(OUTPUT_BUFFER_SIZE, INPUT_BUFFER_SIZE);
 
     /** The footer of an output file */
     private static final String footer = """
@@ -157,8 +690,16 @@ public final class CodeGenerator {
             .end method
             
             .method public static main([Ljava/lang/String;)V
+             .limit stack 1
+             .catch all from Begin to End using Handler
+            Begin:
              invokestatic Output/run()V
+            End:
+             invokestatic Output/flush()V
              return
+            Handler:
+             invokestatic Output/flush()V
+             athrow
             .end method
             """;
 }
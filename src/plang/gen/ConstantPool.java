@@ -0,0 +1,203 @@
+package plang.gen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implements the constant pool of a class file, whose entries are added on demand, and shared by all the instructions
+ * that refer to the same constant.
+ */
+final class ConstantPool {
+    /**
+     * The tag of a {@code CONSTANT_Utf8} entry
+     */
+    private static final int UTF8 = 1;
+    /**
+     * The tag of a {@code CONSTANT_Integer} entry
+     */
+    private static final int INTEGER = 3;
+    /**
+     * The tag of a {@code CONSTANT_Class} entry
+     */
+    private static final int CLASS = 7;
+    /**
+     * The tag of a {@code CONSTANT_Fieldref} entry
+     */
+    private static final int FIELD_REF = 9;
+    /**
+     * The tag of a {@code CONSTANT_Methodref} entry
+     */
+    private static final int METHOD_REF = 10;
+    /**
+     * The tag of a {@code CONSTANT_InterfaceMethodref} entry
+     */
+    private static final int INTERFACE_METHOD_REF = 11;
+    /**
+     * The tag of a {@code CONSTANT_NameAndType} entry
+     */
+    private static final int NAME_AND_TYPE = 12;
+    /**
+     * The encoded entries
+     */
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    /**
+     * The output to which the entries are encoded
+     */
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    /**
+     * The indices of the entries, by their tag and content
+     */
+    private final Map<String, Integer> indices = new HashMap<>();
+    /**
+     * The index of the next entry (the entry at index {@code 0} is unused)
+     */
+    private int nextIndex = 1;
+
+    /**
+     * Gets the index of a {@code CONSTANT_Utf8} entry.
+     *
+     * @param value The string.
+     * @return The index of the entry.
+     */
+    int utf8(String value) {
+        Integer index = indices.get(UTF8 + ":" + value);
+
+        if (index != null)
+            return index;
+
+        try {
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return add(UTF8 + ":" + value);
+    }
+
+    /**
+     * Gets the index of a {@code CONSTANT_Integer} entry.
+     *
+     * @param value The integer.
+     * @return The index of the entry.
+     */
+    int integer(int value) {
+        Integer index = indices.get(INTEGER + ":" + value);
+
+        if (index != null)
+            return index;
+
+        try {
+            out.writeByte(INTEGER);
+            out.writeInt(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return add(INTEGER + ":" + value);
+    }
+
+    /**
+     * Gets the index of a {@code CONSTANT_Class} entry.
+     *
+     * @param name The internal name of the class (e.g., {@code java/lang/Object}).
+     * @return The index of the entry.
+     */
+    int classRef(String name) {
+        return entry(CLASS, utf8(name), -1);
+    }
+
+    /**
+     * Gets the index of a {@code CONSTANT_Fieldref} entry.
+     *
+     * @param owner      The internal name of the class of the field.
+     * @param name       The name of the field.
+     * @param descriptor The descriptor of the field.
+     * @return The index of the entry.
+     */
+    int fieldRef(String owner, String name, String descriptor) {
+        return entry(FIELD_REF, classRef(owner), entry(NAME_AND_TYPE, utf8(name), utf8(descriptor)));
+    }
+
+    /**
+     * Gets the index of a {@code CONSTANT_Methodref} entry.
+     *
+     * @param owner      The internal name of the class of the method.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The index of the entry.
+     */
+    int methodRef(String owner, String name, String descriptor) {
+        return entry(METHOD_REF, classRef(owner), entry(NAME_AND_TYPE, utf8(name), utf8(descriptor)));
+    }
+
+    /**
+     * Gets the index of a {@code CONSTANT_InterfaceMethodref} entry.
+     *
+     * @param owner      The internal name of the interface of the method.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The index of the entry.
+     */
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return entry(INTERFACE_METHOD_REF, classRef(owner), entry(NAME_AND_TYPE, utf8(name), utf8(descriptor)));
+    }
+
+    /**
+     * Writes the constant pool count and the entries.
+     *
+     * @param out The output of the class file.
+     * @throws IOException If an I/O exception occurs writing the entries.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeShort(nextIndex);
+        bytes.writeTo(out);
+    }
+
+    /**
+     * Gets the index of an entry made of one or two indices of other entries.
+     *
+     * @param tag    The tag of the entry.
+     * @param index1 The first index.
+     * @param index2 The second index, or {@code -1} if the entry has only one.
+     * @return The index of the entry.
+     */
+    private int entry(int tag, int index1, int index2) {
+        String key = tag + ":" + index1 + ":" + index2;
+        Integer index = indices.get(key);
+
+        if (index != null)
+            return index;
+
+        try {
+            out.writeByte(tag);
+            out.writeShort(index1);
+
+            if (index2 >= 0)
+                out.writeShort(index2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return add(key);
+    }
+
+    /**
+     * Assigns the next index to the entry that has just been encoded.
+     *
+     * @param key The tag and content of the entry.
+     * @return The index of the entry.
+     * @throws IllegalStateException If the constant pool is full.
+     */
+    private int add(String key) {
+        if (nextIndex > 0xFFFF - 1)
+            throw new IllegalStateException("The constant pool of the class is full");
+
+        indices.put(key, nextIndex);
+        return nextIndex++;
+    }
+}
@@ -48,6 +48,24 @@ public final class Instruction<T> implements CodeGenEntity {
         this.operand = Objects.requireNonNull(operand);
     }
 
+    /**
+     * Gets the opcode of the instruction.
+     *
+     * @return The opcode of the instruction.
+     */
+    public OpCode getOpCode() {
+        return this.opCode;
+    }
+
+    /**
+     * Gets the operand of the instruction.
+     *
+     * @return The operand of the instruction, or {@code null} if the instruction has no operand.
+     */
+    public T getOperand() {
+        return this.operand;
+    }
+
     @SuppressWarnings("DataFlowIssue")
     @Override
     public String toString() {
@@ -70,14 +88,42 @@ public final class Instruction<T> implements CodeGenEntity {
             case OR -> "\tior";
             case AND -> "\tiand";
             case LOAD_VAR -> "\tiload" + " " + operand;
-            case IF_EQ -> "\tif_icmpeq" + " " + operand;
-            case IF_NE -> "\tif_icmpne" + " " + operand;
-            case IF_LT -> "\tif_icmplt" + " " + operand;
-            case IF_GT -> "\tif_icmpgt" + " " + operand;
-            case IF_LE -> "\tif_icmple" + " " + operand;
-            case IF_GE -> "\tif_icmpge" + " " + operand;
-            case IF_NZ -> "\tifne" + " " + operand;
-            case GOTO -> "\tgoto" + " " + operand;
+            case IF_EQ -> "\tif_icmpeq" + " " + ((Label) operand).getName();
+            case IF_NE -> "\tif_icmpne" + " " + ((Label) operand).getName();
+            case IF_LT -> "\tif_icmplt" + " " + ((Label) operand).getName();
+            case IF_GT -> "\tif_icmpgt" + " " + ((Label) operand).getName();
+            case IF_LE -> "\tif_icmple" + " " + ((Label) operand).getName();
+            case IF_GE -> "\tif_icmpge" + " " + ((Label) operand).getName();
+            case IF_NZ -> "\tifne" + " " + ((Label) operand).getName();
+            case GOTO -> "\tgoto" + " " + ((Label) operand).getName();
+            case READ_LIST -> readListToString((int[]) operand);
         };
     }
+
+    /**
+     * Gets the code of a read of a list of variables, which loads each integer from the array returned by the
+     * {@code readList} method (keeping the array on the stack until the last variable is stored).
+     *
+     * @param variables The indices of the variables.
+     * @return The code of the read.
+     */
+    private static String readListToString(int[] variables) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tldc ").append(variables.length).append('\n');
+        sb.append("\tinvokestatic Output/readList(I)[I\n");
+
+        for (int i = 0; i < variables.length; i++) {
+            if (i < variables.length - 1)
+                sb.append("\tdup\n");
+
+            sb.append("\tldc ").append(i).append('\n');
+            sb.append("\tiaload\n");
+            sb.append("\tistore ").append(variables[i]);
+
+            if (i < variables.length - 1)
+                sb.append('\n');
+        }
+
+        return sb.toString();
+    }
 }
@@ -33,8 +33,17 @@ public final class Label implements CodeGenEntity {
         return this.id;
     }
 
+    /**
+     * Gets the name of the label, as it is referenced by the jump instructions.
+     *
+     * @return The name of the label.
+     */
+    public String getName() {
+        return LABEL_PREFIX + id;
+    }
+
     @Override
     public String toString() {
-        return LABEL_PREFIX + id + ":";
+        return getName() + ":";
     }
 }
@@ -117,4 +117,11 @@ public enum OpCode {
      * which unconditionally jumps to the label specified by its operand.
      */
     GOTO,
+
+    /**
+     * The read of a list of variables,
+     * which reads as many integers as the variables whose indices are specified by its operand (an {@code int[]}) in
+     * a single invocation of the {@code readList} method, and stores them in the variables, in order.
+     */
+    READ_LIST,
 }
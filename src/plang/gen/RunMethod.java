@@ -0,0 +1,88 @@
+package plang.gen;
+
+/**
+ * Enumerates the variants of the {@code run} method of the class file of a program, which hold the same code, but
+ * differ in the source of the integers read by the program and in the sink of the integers printed by it.
+ */
+enum RunMethod {
+    /**
+     * The {@code run()V} method, which reads from the standard input and prints to the standard output, through the
+     * {@code read()I} and {@code print(I)V} methods of the class
+     */
+    STANDARD("()V", new String[0], 0),
+    /**
+     * The {@code run(IntSupplier, IntConsumer)V} method, which reads from the {@code IntSupplier} and prints to the
+     * {@code IntConsumer} it is invoked with
+     */
+    SINKS("(Ljava/util/function/IntSupplier;Ljava/util/function/IntConsumer;)V",
+            new String[]{"java/util/function/IntSupplier", "java/util/function/IntConsumer"}, 0),
+    /**
+     * The {@code run(int[], int[])I} method, which reads the elements of the first array and prints into the elements
+     * of the second array, in order, and returns the number of printed integers (the positions into the arrays are
+     * the variables {@code 2} and {@code 3})
+     */
+    ARRAYS("([I[I)I", new String[]{"[I", "[I"}, 2);
+
+    /**
+     * The descriptor of the method
+     */
+    private final String descriptor;
+    /**
+     * The internal names of the types of the parameters of the method
+     */
+    private final String[] parameterTypes;
+    /**
+     * The number of {@code int} variables of the method that follow its parameters and precede the variables of the
+     * program
+     */
+    private final int positionCount;
+
+    /**
+     * Initializes a new {@link RunMethod}.
+     *
+     * @param descriptor     The descriptor of the method.
+     * @param parameterTypes The internal names of the types of the parameters of the method.
+     * @param positionCount  The number of {@code int} variables that precede the variables of the program.
+     */
+    RunMethod(String descriptor, String[] parameterTypes, int positionCount) {
+        this.descriptor = descriptor;
+        this.parameterTypes = parameterTypes;
+        this.positionCount = positionCount;
+    }
+
+    /**
+     * Gets the descriptor of the method.
+     *
+     * @return The descriptor of the method.
+     */
+    String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Gets the internal names of the types of the parameters of the method.
+     *
+     * @return The internal names of the types of the parameters.
+     */
+    String[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * Gets the number of parameters of the method.
+     *
+     * @return The number of parameters.
+     */
+    int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    /**
+     * Gets the index of the first variable of the program among the variables of the method.
+     *
+     * @return The index of the first variable of the program.
+     */
+    int getFirstVariable() {
+        return parameterTypes.length + positionCount;
+    }
+}
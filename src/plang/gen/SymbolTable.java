@@ -43,6 +43,15 @@ public final class SymbolTable {
         throw new IllegalArgumentException("The variable " + varName + " has not been declared");
     }
 
+    /**
+     * Gets the number of variables in the symbol table.
+     *
+     * @return The number of variables.
+     */
+    public int size() {
+        return this.count;
+    }
+
     /**
      * Lookups the index of the specified variable name, adding a new variable if the index is not found.
      *
@@ -1,16 +1,19 @@
 package plang.tokens;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Defines the common tokens of the language.
  */
 public final class CommonTokens {
     /**
-     * Cache for common allocated tokens.
+     * Cache for common allocated tokens, indexed by the ordinal of their kind.
      */
-    private final static Map<TokenKind, Token> commonTokens = new HashMap<>();
+    private final static Token[] commonTokens = new Token[TokenKind.values().length];
+
+    static {
+        for (TokenKind kind : TokenKind.values())
+            if (kind != TokenKind.NUMBER && kind != TokenKind.IDENTIFIER)
+                commonTokens[kind.ordinal()] = new Token(kind);
+    }
 
     /**
      * Gets the common token associated with the specified kind.
@@ -21,15 +24,11 @@ public final class CommonTokens {
      *                                  (e.g., {@link NumberToken} or {@link IdentifierToken}).
      */
     public static Token get(TokenKind kind) {
-        if (kind == TokenKind.NUMBER || kind == TokenKind.IDENTIFIER)
-            throw new IllegalArgumentException("A token of the specified kind is dynamic and cannot be cached");
+        Token token = commonTokens[kind.ordinal()];
 
-        if (commonTokens.containsKey(kind)) {
-            return commonTokens.get(kind);
-        }
+        if (token == null)
+            throw new IllegalArgumentException("A token of the specified kind is dynamic and cannot be cached");
 
-        Token token = new Token(kind);
-        commonTokens.put(kind, token);
         return token;
     }
 }
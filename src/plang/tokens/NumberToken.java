@@ -8,11 +8,24 @@ package plang.tokens;
  * sequences of digits.
  */
 public class NumberToken extends Token {
+    /**
+     * The highest value whose token is cached by {@link #valueOf(int)}
+     */
+    private static final int CACHE_HIGH = 255;
+    /**
+     * Cache for the tokens of the values from {@code 0} to {@link #CACHE_HIGH}.
+     */
+    private static final NumberToken[] cache = new NumberToken[CACHE_HIGH + 1];
     /**
      * The integral value
      */
     private final int value;
 
+    static {
+        for (int i = 0; i <= CACHE_HIGH; i++)
+            cache[i] = new NumberToken(i);
+    }
+
     /**
      * Initializes a new {@link NumberToken} with the specified integral value.
      *
@@ -23,6 +36,20 @@ public class NumberToken extends Token {
         this.value = value;
     }
 
+    /**
+     * Gets a {@link NumberToken} with the specified integral value.
+     * Tokens of frequently used values (from {@code 0} to {@code 255}) are cached, so that they are not allocated.
+     *
+     * @param value The integral value.
+     * @return A token with the specified value.
+     */
+    public static NumberToken valueOf(int value) {
+        if (value >= 0 && value <= CACHE_HIGH)
+            return cache[value];
+
+        return new NumberToken(value);
+    }
+
     /**
      * Gets the value of this numerical token.
      *
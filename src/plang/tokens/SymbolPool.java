@@ -0,0 +1,174 @@
+package plang.tokens;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Implements a pool of identifiers, which interns the {@link IdentifierToken}s by their lexeme.
+ * <p>
+ * Identifiers are looked up directly by the bytes of their lexeme (e.g., a slice of the buffer of the lexer), so that
+ * an identifier that has already been interned is returned without allocating anything. The pool is an open
+ * addressing hash table with linear probing, and each interned identifier is given a symbol id, which is its
+ * (dense, zero-based) index in the order of interning.
+ */
+public final class SymbolPool {
+    /**
+     * The initial capacity of the pool (must be a power of two)
+     */
+    private static final int INITIAL_CAPACITY = 256;
+    /**
+     * The hash table, holding the symbol id of each interned identifier plus one, or {@code 0} for an empty slot
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+    /**
+     * The interned identifiers, indexed by symbol id
+     */
+    private IdentifierToken[] tokens = new IdentifierToken[INITIAL_CAPACITY / 2];
+    /**
+     * The lexemes of the interned identifiers, encoded in ASCII and indexed by symbol id
+     */
+    private byte[][] lexemes = new byte[INITIAL_CAPACITY / 2][];
+    /**
+     * The hash codes of the interned identifiers, indexed by symbol id
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY / 2];
+    /**
+     * The number of interned identifiers
+     */
+    private int size;
+
+    /**
+     * Gets the symbol id of the identifier with the specified lexeme, interning it if it has not been interned yet.
+     *
+     * @param source The bytes that contain the lexeme, encoded in ASCII.
+     * @param offset The offset of the first byte of the lexeme.
+     * @param length The length of the lexeme.
+     * @return The symbol id of the identifier with the specified lexeme.
+     */
+    public int intern(byte[] source, int offset, int length) {
+        int hash = hash(source, offset, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+
+        for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            byte[] lexeme = lexemes[entry - 1];
+
+            if (hashes[entry - 1] == hash && Arrays.equals(lexeme, 0, lexeme.length, source, offset, offset + length))
+                return entry - 1;
+        }
+
+        byte[] lexeme = Arrays.copyOfRange(source, offset, offset + length);
+        return add(slot, hash, lexeme, new IdentifierToken(new String(lexeme, StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Gets the symbol id of an identifier of another pool, interning it if it has not been interned yet.
+     * <p>
+     * The identifier is shared with the other pool, so that interning the identifiers of several pools in order of
+     * symbol id assigns them the same symbol ids they would have got if they had been interned into a single pool.
+     *
+     * @param pool The pool of the identifier.
+     * @param id   The symbol id of the identifier in its pool.
+     * @return The symbol id of the identifier in this pool.
+     * @throws IndexOutOfBoundsException If no identifier of the other pool has the specified symbol id.
+     */
+    public int intern(SymbolPool pool, int id) {
+        IdentifierToken token = pool.get(id);
+        byte[] lexeme = pool.lexemes[id];
+        int hash = pool.hashes[id];
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+
+        for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask)
+            if (hashes[entry - 1] == hash && Arrays.equals(lexemes[entry - 1], lexeme))
+                return entry - 1;
+
+        return add(slot, hash, lexeme, token);
+    }
+
+    /**
+     * Gets the identifier with the specified symbol id.
+     *
+     * @param id The symbol id.
+     * @return The identifier with the specified symbol id.
+     * @throws IndexOutOfBoundsException If no identifier has the specified symbol id.
+     */
+    public IdentifierToken get(int id) {
+        if (id < 0 || id >= size)
+            throw new IndexOutOfBoundsException("Invalid symbol id: " + id);
+
+        return tokens[id];
+    }
+
+    /**
+     * Gets the number of interned identifiers.
+     *
+     * @return The number of interned identifiers.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a new identifier to the pool.
+     *
+     * @param slot   The empty slot of the hash table in which the identifier shall be stored.
+     * @param hash   The hash code of the lexeme of the identifier.
+     * @param lexeme The lexeme of the identifier, encoded in ASCII.
+     * @param token  The identifier.
+     * @return The symbol id of the identifier.
+     */
+    private int add(int slot, int hash, byte[] lexeme, IdentifierToken token) {
+        if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, size * 2);
+            lexemes = Arrays.copyOf(lexemes, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        int id = size++;
+
+        tokens[id] = token;
+        lexemes[id] = lexeme;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        if (size * 2 > slots.length)
+            rehash();
+
+        return id;
+    }
+
+    /**
+     * Doubles the capacity of the hash table, rehashing the interned identifiers.
+     */
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Computes the hash code of a lexeme.
+     *
+     * @param source The bytes that contain the lexeme.
+     * @param offset The offset of the first byte of the lexeme.
+     * @param length The length of the lexeme.
+     * @return The hash code of the lexeme.
+     */
+    private static int hash(byte[] source, int offset, int length) {
+        int hash = length;
+
+        for (int i = offset; i < offset + length; i++)
+            hash = 31 * hash + source[i];
+
+        return hash ^ (hash >>> 16);
+    }
+}